@@ -389,6 +389,11 @@ public class DDAgentFeaturesDiscovery implements DroppingPolicy {
     return supportsMetrics() && supportsDropping;
   }
 
+  @Override
+  public boolean statsComputedByClient() {
+    return supportsMetrics();
+  }
+
   public boolean supportsTelemetryProxy() {
     return telemetryProxyEndpoint != null;
   }
@@ -6,6 +6,14 @@ public interface DroppingPolicy {
 
   boolean active();
 
+  /**
+   * @return {@code true} if stats are computed by the tracer before traces are written, in which
+   *     case traces dropped by the sampler can also be dropped under backpressure
+   */
+  default boolean statsComputedByClient() {
+    return false;
+  }
+
   class DisabledDroppingPolicy implements DroppingPolicy {
 
     @Override
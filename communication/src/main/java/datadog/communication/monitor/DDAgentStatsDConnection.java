@@ -30,6 +30,9 @@ final class DDAgentStatsDConnection implements StatsDClientErrorHandler {
   private static final AgentThreadFactory STATSD_CLIENT_THREAD_FACTORY =
       new AgentThreadFactory(STATSD_CLIENT);
 
+  // matches the default of the DogStatsD client
+  static final int MIN_AGGREGATION_SHARDS = 4;
+
   private static final int RETRY_DELAY = 10;
   private static final int MAX_RETRIES = 20;
 
@@ -120,6 +123,10 @@ final class DDAgentStatsDConnection implements StatsDClientErrorHandler {
           clientBuilder.entityID(null);
         }
 
+        if (useAggregation) {
+          configureAggregation(clientBuilder, Config.get());
+        }
+
         Integer queueSize = Config.get().getStatsDClientQueueSize();
         if (queueSize != null) {
           clientBuilder.queueSize(queueSize);
@@ -154,6 +161,12 @@ final class DDAgentStatsDConnection implements StatsDClientErrorHandler {
           } else {
             log.debug("Configured StatsD client - queueSize={}", clientBuilder.queueSize);
           }
+          if (useAggregation) {
+            log.debug(
+                "Configured StatsD aggregation - flushInterval={}, shards={}",
+                clientBuilder.aggregationFlushInterval,
+                clientBuilder.aggregationShards);
+          }
         }
 
         try {
@@ -238,6 +251,23 @@ final class DDAgentStatsDConnection implements StatsDClientErrorHandler {
     }
   }
 
+  /**
+   * Counts and gauges are aggregated per shard until the next flush, which then packs them into as
+   * few datagrams as possible; use a shard per core to limit lock contention when many application
+   * threads report different metrics.
+   */
+  static void configureAggregation(NonBlockingStatsDClientBuilder clientBuilder, Config config) {
+    Integer flushInterval = config.getStatsDClientAggregationFlushInterval();
+    if (flushInterval != null) {
+      clientBuilder.aggregationFlushInterval(flushInterval);
+    }
+    Integer shards = config.getStatsDClientAggregationShards();
+    if (shards == null) {
+      shards = Math.max(MIN_AGGREGATION_SHARDS, Runtime.getRuntime().availableProcessors());
+    }
+    clientBuilder.aggregationShards(shards);
+  }
+
   private String statsDAddress() {
     if (namedPipe != null) {
       return namedPipe;
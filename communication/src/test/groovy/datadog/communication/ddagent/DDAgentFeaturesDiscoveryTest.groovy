@@ -316,6 +316,7 @@ class DDAgentFeaturesDiscoveryTest extends DDSpecification {
     !features.supportsDropping()
     !features.supportsMetrics()
     !(features as DroppingPolicy).active()
+    !(features as DroppingPolicy).statsComputedByClient()
     features.state() == PROBE_STATE
 
     when: "/info and v0.6/stats become available to an already configured tracer"
@@ -327,6 +328,7 @@ class DDAgentFeaturesDiscoveryTest extends DDSpecification {
     features.supportsDropping()
     features.supportsMetrics()
     (features as DroppingPolicy).active()
+    (features as DroppingPolicy).statsComputedByClient()
     features.state() == INFO_WITH_CLIENT_DROPPING_STATE
     0 * _
   }
@@ -7,5 +7,6 @@ class DroppingPolicyTest extends DDSpecification {
   def "test disabled dropping policy"() {
     expect:
     !DroppingPolicy.DISABLED.active()
+    !DroppingPolicy.DISABLED.statsComputedByClient()
   }
 }
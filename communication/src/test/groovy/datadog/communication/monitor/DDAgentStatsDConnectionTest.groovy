@@ -0,0 +1,39 @@
+package datadog.communication.monitor
+
+import com.timgroup.statsd.NonBlockingStatsDClientBuilder
+import datadog.trace.api.Config
+import datadog.trace.test.util.DDSpecification
+
+import static datadog.trace.api.config.GeneralConfig.STATSD_CLIENT_AGGREGATION_FLUSH_INTERVAL
+import static datadog.trace.api.config.GeneralConfig.STATSD_CLIENT_AGGREGATION_SHARDS
+
+class DDAgentStatsDConnectionTest extends DDSpecification {
+
+  def "aggregation uses the configured flush interval and shards"() {
+    setup:
+    injectSysConfig(STATSD_CLIENT_AGGREGATION_FLUSH_INTERVAL, '500')
+    injectSysConfig(STATSD_CLIENT_AGGREGATION_SHARDS, '16')
+    def clientBuilder = new NonBlockingStatsDClientBuilder()
+
+    when:
+    DDAgentStatsDConnection.configureAggregation(clientBuilder, Config.get())
+
+    then:
+    clientBuilder.aggregationFlushInterval == 500
+    clientBuilder.aggregationShards == 16
+  }
+
+  def "aggregation defaults to a shard per core"() {
+    setup:
+    def clientBuilder = new NonBlockingStatsDClientBuilder()
+    def defaultFlushInterval = clientBuilder.aggregationFlushInterval
+
+    when:
+    DDAgentStatsDConnection.configureAggregation(clientBuilder, Config.get())
+
+    then:
+    clientBuilder.aggregationFlushInterval == defaultFlushInterval
+    clientBuilder.aggregationShards == Math.max(
+      DDAgentStatsDConnection.MIN_AGGREGATION_SHARDS, Runtime.getRuntime().availableProcessors())
+  }
+}
@@ -0,0 +1,51 @@
+package datadog.trace.bootstrap;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the nested-call guard as used by advice: enter increments the depth and only the
+ * outermost call proceeds, exit resets the depth.
+ */
+@Warmup(iterations = 3, time = 5, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Fork(value = 1)
+@Threads(4)
+public class CallDepthThreadLocalMapBenchmark {
+
+  @Benchmark
+  public boolean enterExit() {
+    boolean outermost = CallDepthThreadLocalMap.incrementCallDepth(Runnable.class) == 0;
+    if (outermost) {
+      CallDepthThreadLocalMap.reset(Runnable.class);
+    }
+    return outermost;
+  }
+
+  @Benchmark
+  public boolean nestedEnterExit() {
+    boolean outermost = CallDepthThreadLocalMap.incrementCallDepth(Runnable.class) == 0;
+    // nested call through another guarded API
+    boolean nestedOutermost = CallDepthThreadLocalMap.incrementCallDepth(AutoCloseable.class) == 0;
+    boolean nested = CallDepthThreadLocalMap.incrementCallDepth(Runnable.class) > 0;
+    CallDepthThreadLocalMap.decrementCallDepth(Runnable.class);
+    if (nestedOutermost) {
+      CallDepthThreadLocalMap.reset(AutoCloseable.class);
+    }
+    if (outermost) {
+      CallDepthThreadLocalMap.reset(Runnable.class);
+    }
+    return nested;
+  }
+}
@@ -1,54 +1,62 @@
 package datadog.trace.bootstrap;
 
 import datadog.trace.api.GenericClassValue;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Utility to track nested instrumentation.
  *
  * <p>For example, this can be used to track nested calls to super() in constructors by calling
  * #incrementCallDepth at the beginning of each constructor.
+ *
+ * <p>Each tracked class is assigned a stable index the first time it is seen. Depths for all
+ * tracked classes are then kept in a single int array per thread, so a nested-call guard is one
+ * class-value lookup, one thread-local lookup and an array access, without per-class allocation.
  */
 public class CallDepthThreadLocalMap {
 
-  private static final ClassValue<ThreadLocalDepth> TLS =
-      GenericClassValue.constructing(ThreadLocalDepth.class);
+  private static final int INITIAL_CAPACITY = 32;
+
+  private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+
+  private static final ClassValue<Integer> INDICES =
+      GenericClassValue.of(k -> NEXT_INDEX.getAndIncrement());
+
+  private static final ThreadLocal<int[]> DEPTHS =
+      ThreadLocal.withInitial(() -> new int[Math.max(INITIAL_CAPACITY, NEXT_INDEX.get())]);
 
   public static int incrementCallDepth(final Class<?> k) {
-    return TLS.get(k).get().increment();
+    int index = INDICES.get(k);
+    return depths(index)[index]++;
   }
 
   public static int getCallDepth(final Class<?> k) {
-    return TLS.get(k).get().depth;
+    int index = INDICES.get(k);
+    int[] depths = DEPTHS.get();
+    return index < depths.length ? depths[index] : 0;
   }
 
   public static int decrementCallDepth(final Class<?> k) {
-    return TLS.get(k).get().decrement();
+    int index = INDICES.get(k);
+    return --depths(index)[index];
   }
 
   public static void reset(final Class<?> k) {
-    TLS.get(k).get().depth = 0;
-  }
-
-  private static final class Depth {
-    private int depth;
-
-    private Depth() {
-      this.depth = 0;
-    }
-
-    private int increment() {
-      return this.depth++;
-    }
-
-    private int decrement() {
-      return --this.depth;
+    int index = INDICES.get(k);
+    int[] depths = DEPTHS.get();
+    if (index < depths.length) {
+      depths[index] = 0;
     }
   }
 
-  public static final class ThreadLocalDepth extends ThreadLocal<Depth> {
-    @Override
-    protected Depth initialValue() {
-      return new Depth();
+  /** Returns the current thread's depths, growing them if needed to cover the given index. */
+  private static int[] depths(int index) {
+    int[] depths = DEPTHS.get();
+    if (index >= depths.length) {
+      depths = Arrays.copyOf(depths, Math.max(index + 1, depths.length * 2));
+      DEPTHS.set(depths);
     }
+    return depths;
   }
 }
@@ -98,6 +98,11 @@ public final class FieldBackedContextStore implements ContextStore<Object, Objec
   private volatile WeakMapContextStore<Object, Object> weakStore;
   private final Object synchronizationInstance = new Object();
 
+  /** Returns the weak-map fall-back, or {@code null} if this store has not needed it. */
+  WeakMapContextStore<Object, Object> weakStoreIfCreated() {
+    return weakStore;
+  }
+
   WeakMapContextStore<Object, Object> weakStore() {
     if (null == weakStore) {
       synchronized (synchronizationInstance) {
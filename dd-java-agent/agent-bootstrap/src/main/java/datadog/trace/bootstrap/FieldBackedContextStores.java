@@ -2,6 +2,7 @@ package datadog.trace.bootstrap;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -135,6 +136,34 @@ public final class FieldBackedContextStores {
     return store;
   }
 
+  /** Summarizes which context stores have had to fall back to weak maps, for troubleshooting. */
+  public static String summary() {
+    StringBuilder buf = new StringBuilder();
+    for (Map.Entry<String, FieldBackedContextStore> entry : STORES_BY_NAME.entrySet()) {
+      FieldBackedContextStore store = entry.getValue();
+      WeakMapContextStore<Object, Object> weakStore = store.weakStoreIfCreated();
+      if (null != weakStore) {
+        String storeName = entry.getKey();
+        int separator = storeName.indexOf(';');
+        buf.append("ContextStore #")
+            .append(store.storeId)
+            .append(' ')
+            .append(storeName, 0, separator)
+            .append("->")
+            .append(storeName, separator + 1, storeName.length())
+            .append(" weak-map fall-back: size=")
+            .append(weakStore.size())
+            .append(" puts=")
+            .append(weakStore.putCount())
+            .append('\n');
+      }
+    }
+    if (buf.length() == 0) {
+      buf.append("No context stores have needed a weak-map fall-back\n");
+    }
+    return buf.toString();
+  }
+
   /** Injection helper that immediately delegates to the weak-map for the given context store. */
   public static Object weakGet(final Object key, final int storeId) {
     return getContextStore(storeId).weakStore().get(key);
@@ -1,18 +1,30 @@
 package datadog.trace.bootstrap;
 
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Weak {@link ContextStore} that acts as a fall-back when field-injection isn't possible.
  *
  * <p>This class should be created lazily because it uses weak maps with background cleanup.
+ *
+ * <p>The underlying weak map is concurrent, so locking is only needed to avoid calling factories
+ * prematurely. Locks are striped by the key's identity hash, so unrelated keys don't contend.
  */
 final class WeakMapContextStore<K, V> implements ContextStore<K, V> {
   private static final int DEFAULT_MAX_SIZE = 50_000;
 
+  private static final int LOCK_STRIPES = 16; // must be a power of two
+
   private final int maxSize;
   private final WeakMap<Object, Object> map = WeakMap.Supplier.newWeakMap();
+  private final Object[] locks = new Object[LOCK_STRIPES];
+  private final LongAdder putCount = new LongAdder();
 
   public WeakMapContextStore(int maxSize) {
     this.maxSize = maxSize;
+    for (int i = 0; i < LOCK_STRIPES; i++) {
+      locks[i] = new Object();
+    }
   }
 
   public WeakMapContextStore() {
@@ -29,6 +41,7 @@ final class WeakMapContextStore<K, V> implements ContextStore<K, V> {
   public void put(final K key, final V context) {
     if (map.size() < maxSize) {
       map.put(key, context);
+      putCount.increment();
     }
   }
 
@@ -42,7 +55,7 @@ final class WeakMapContextStore<K, V> implements ContextStore<K, V> {
       // There is still the possibility that there is a concurrent
       // call to put that will win, but that is indistinguishable
       // from the put happening right after the putIfAbsent.
-      synchronized (map) {
+      synchronized (lockFor(key)) {
         existingContext = get(key);
         if (null == existingContext) {
           existingContext = context;
@@ -68,7 +81,7 @@ final class WeakMapContextStore<K, V> implements ContextStore<K, V> {
       // There is still the possibility that there is a concurrent
       // call to put that will win, but that is indistinguishable
       // from the put happening right after the putIfAbsent.
-      synchronized (map) {
+      synchronized (lockFor(key)) {
         existingContext = get(key);
         if (null == existingContext) {
           existingContext = contextFactory.create(key);
@@ -85,8 +98,17 @@ final class WeakMapContextStore<K, V> implements ContextStore<K, V> {
     return (V) map.remove(key);
   }
 
+  private Object lockFor(final K key) {
+    return locks[System.identityHashCode(key) & (LOCK_STRIPES - 1)];
+  }
+
   // Package reachable for testing
   int size() {
     return map.size();
   }
+
+  /** Number of times context has been put in this store. */
+  long putCount() {
+    return putCount.sum();
+  }
 }
@@ -413,21 +413,22 @@ public abstract class HttpServerDecorator<REQUEST, CONNECTION, RESPONSE, REQUEST
 
   private Flow<Void> callIGCallbackRequestHeaders(AgentSpan span, REQUEST_CARRIER carrier) {
     CallbackProvider cbp = tracer().getUniversalCallbackProvider();
+    if (cbp == null || !cbp.hasCallbacks()) {
+      return Flow.ResultFlow.empty();
+    }
     RequestContext requestContext = span.getRequestContext();
     AgentPropagation.ContextVisitor<REQUEST_CARRIER> getter = getter();
     if (requestContext == null || getter == null) {
       return Flow.ResultFlow.empty();
     }
-    if (cbp != null) {
-      IGKeyClassifier igKeyClassifier =
-          IGKeyClassifier.create(
-              requestContext,
-              cbp.getCallback(EVENTS.requestHeader()),
-              cbp.getCallback(EVENTS.requestHeaderDone()));
-      if (null != igKeyClassifier) {
-        getter.forEachKey(carrier, igKeyClassifier);
-        return igKeyClassifier.done();
-      }
+    IGKeyClassifier igKeyClassifier =
+        IGKeyClassifier.create(
+            requestContext,
+            cbp.getCallback(EVENTS.requestHeader()),
+            cbp.getCallback(EVENTS.requestHeaderDone()));
+    if (null != igKeyClassifier) {
+      getter.forEachKey(carrier, igKeyClassifier);
+      return igKeyClassifier.done();
     }
     return Flow.ResultFlow.empty();
   }
@@ -496,8 +497,11 @@ public abstract class HttpServerDecorator<REQUEST, CONNECTION, RESPONSE, REQUEST
       return;
     }
     CallbackProvider cbp = tracer().getUniversalCallbackProvider();
+    if (cbp == null || !cbp.hasCallbacks()) {
+      return;
+    }
     RequestContext requestContext = span.getRequestContext();
-    if (cbp != null && requestContext != null) {
+    if (requestContext != null) {
       BiFunction<RequestContext, IGSpanInfo, Flow<Void>> callback =
           cbp.getCallback(EVENTS.requestEnded());
       if (callback != null) {
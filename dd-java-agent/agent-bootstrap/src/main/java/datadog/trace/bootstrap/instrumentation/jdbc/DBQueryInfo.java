@@ -2,6 +2,7 @@ package datadog.trace.bootstrap.instrumentation.jdbc;
 
 import datadog.trace.api.cache.DDCache;
 import datadog.trace.api.cache.DDCaches;
+import datadog.trace.api.cache.DDPartialKeyCache;
 import datadog.trace.api.normalize.SQLNormalizer;
 import datadog.trace.bootstrap.instrumentation.api.UTF8BytesString;
 import java.util.function.Function;
@@ -14,16 +15,43 @@ public final class DBQueryInfo {
   private static final ToIntFunction<DBQueryInfo> SQL_WEIGHER = DBQueryInfo::weight;
   private static final DDCache<String, DBQueryInfo> CACHED_PREPARED_STATEMENTS =
       DDCaches.newFixedSizeWeightedCache(512, SQL_WEIGHER, COMBINED_SQL_LIMIT);
-  private static final Function<String, DBQueryInfo> NORMALIZE = DBQueryInfo::new;
+  private static final Function<String, DBQueryInfo> NORMALIZE = DBQueryInfo::ofShape;
+
+  private static final int SHAPED_SQL_LIMIT = 8 * 1024; // characters
+
+  // second-level cache keyed by the shape of the query, so that queries only differing in the
+  // values of their literals share the same normalized result
+  private static final DDPartialKeyCache<String, DBQueryInfo> CACHED_SHAPES =
+      DDCaches.newFixedSizePartialKeyCache(256);
 
   public static DBQueryInfo ofStatement(String sql) {
-    return NORMALIZE.apply(sql);
+    return ofShape(sql);
   }
 
   public static DBQueryInfo ofPreparedStatement(String sql) {
     return CACHED_PREPARED_STATEMENTS.computeIfAbsent(sql, NORMALIZE);
   }
 
+  private static DBQueryInfo ofShape(String sql) {
+    if (sql.length() > SHAPED_SQL_LIMIT) {
+      return new DBQueryInfo(sql); // too big to cache
+    }
+    return CACHED_SHAPES.computeIfAbsent(
+        sql, 0, sql.length(), DBQueryInfo::shapeHash, DBQueryInfo::hasShape, DBQueryInfo::produce);
+  }
+
+  private static int shapeHash(String sql, int start, int end) {
+    return SQLNormalizer.shapeHashCode(sql);
+  }
+
+  private static boolean hasShape(String sql, int start, int end, DBQueryInfo info) {
+    return SQLNormalizer.hasShape(sql, info.sql);
+  }
+
+  private static DBQueryInfo produce(String sql, int hash, int start, int end) {
+    return new DBQueryInfo(sql);
+  }
+
   private final UTF8BytesString operation;
   private final UTF8BytesString sql;
 
@@ -32,4 +32,43 @@ class CallDepthThreadLocalMapTest extends DDSpecification {
     CallDepthThreadLocalMap.incrementCallDepth(k1) == 1
     CallDepthThreadLocalMap.incrementCallDepth(k2) == 1
   }
+
+  def "call depths are tracked per thread"() {
+    setup:
+    Class<?> k = Long
+    CallDepthThreadLocalMap.incrementCallDepth(k)
+    CallDepthThreadLocalMap.incrementCallDepth(k)
+
+    when:
+    int otherDepth = -1
+    def thread = new Thread({
+      otherDepth = CallDepthThreadLocalMap.incrementCallDepth(k)
+    })
+    thread.start()
+    thread.join()
+
+    then:
+    otherDepth == 0
+    CallDepthThreadLocalMap.getCallDepth(k) == 2
+    CallDepthThreadLocalMap.decrementCallDepth(k) == 1
+
+    cleanup:
+    CallDepthThreadLocalMap.reset(k)
+  }
+
+  def "call depths are tracked for many classes"() {
+    setup:
+    // array classes of increasing dimensions, so each one is new to the map
+    def keys = (1..100).collect { Class.forName('[' * it + 'Ljava.lang.Runnable;') }
+
+    when:
+    keys.each { CallDepthThreadLocalMap.incrementCallDepth(it) }
+
+    then:
+    keys.every { CallDepthThreadLocalMap.getCallDepth(it) == 1 }
+    keys.every { CallDepthThreadLocalMap.incrementCallDepth(it) == 1 }
+
+    cleanup:
+    keys.each { CallDepthThreadLocalMap.reset(it) }
+  }
 }
@@ -1,11 +1,15 @@
 package datadog.trace.bootstrap
 
 import datadog.trace.agent.test.utils.ThreadUtils
+import datadog.trace.agent.tooling.WeakMaps
 import datadog.trace.test.util.DDSpecification
 
 import java.util.concurrent.atomic.AtomicInteger
 
 class FieldBackedContextStoresTest extends DDSpecification {
+  static {
+    WeakMaps.registerAsSupplier()
+  }
 
   def "test FieldBackedContextStore id allocation"() {
     setup:
@@ -25,4 +29,36 @@ class FieldBackedContextStoresTest extends DDSpecification {
     allocatedStores.size() == testAllocations
     (allocatedStores as List).withIndex().collect({ store, storeId -> assert store.storeId == storeId })
   }
+
+  def "test weak-map fall-back usage is summarized per store"() {
+    setup:
+    int storeId = FieldBackedContextStores.getContextStoreId("java.lang.Thread", "fallback.Context")
+    def store = FieldBackedContextStores.getContextStore(storeId)
+    def keys = (1..3).collect { new Object() }
+
+    when:
+    keys.each { store.put(it, "context") }
+    keys.each { store.computeIfAbsent(it, { k -> "other" }) }
+
+    then:
+    keys.every { store.get(it) == "context" }
+    FieldBackedContextStores.summary().contains(
+      "ContextStore #${storeId} java.lang.Thread->fallback.Context weak-map fall-back: size=3 puts=3")
+  }
+
+  def "test weak-map fall-back only runs factory once per key under concurrency"() {
+    setup:
+    def store = new WeakMapContextStore<Object, Object>()
+    def key = new Object()
+    AtomicInteger factoryCalls = new AtomicInteger()
+
+    when:
+    ThreadUtils.runConcurrently(10, 100, {
+      store.computeIfAbsent(key, { k -> factoryCalls.incrementAndGet() })
+    })
+
+    then:
+    factoryCalls.get() == 1
+    store.get(key) == 1
+  }
 }
@@ -25,4 +25,18 @@ class DBQueryInfoTest extends DDSpecification {
     "CALL"    | "{CALL /*my-customer-comment*/ STORED_PROC()}"
     "CALL"    | "/*ddps='SqlCommenter',dddbs='my-service'*/ {CALL STORED_PROC()}"
   }
+
+  def "statements only differing in literal values share the same query info"() {
+    when:
+    DBQueryInfo info = DBQueryInfo.ofStatement("SELECT * FROM orders WHERE id = 1287 AND state = 'open'")
+    DBQueryInfo sameShape = DBQueryInfo.ofStatement("SELECT * FROM orders WHERE id = 9 AND state = 'closed'")
+    DBQueryInfo otherShape = DBQueryInfo.ofStatement("SELECT * FROM orders WHERE id = 9 AND state = state")
+
+    then:
+    info.getSql() as String == "SELECT * FROM orders WHERE id = ? AND state = ?"
+    sameShape.is(info)
+    !otherShape.is(info)
+    otherShape.getSql() as String == "SELECT * FROM orders WHERE id = ? AND state = state"
+    DBQueryInfo.ofPreparedStatement("SELECT * FROM orders WHERE id = 42 AND state = 'new'").is(info)
+  }
 }
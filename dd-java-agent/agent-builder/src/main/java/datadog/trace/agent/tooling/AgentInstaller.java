@@ -7,6 +7,8 @@ import datadog.trace.agent.tooling.bytebuddy.SharedTypePools;
 import datadog.trace.agent.tooling.bytebuddy.iast.TaintableRedefinitionStrategyListener;
 import datadog.trace.agent.tooling.bytebuddy.matcher.DDElementMatchers;
 import datadog.trace.agent.tooling.bytebuddy.memoize.MemoizedMatchers;
+import datadog.trace.agent.tooling.bytebuddy.memoize.Memoizer;
+import datadog.trace.agent.tooling.bytebuddy.memoize.SpeculativeMatching;
 import datadog.trace.agent.tooling.bytebuddy.outline.TypePoolFacade;
 import datadog.trace.agent.tooling.usm.UsmExtractorImpl;
 import datadog.trace.agent.tooling.usm.UsmMessageFactoryImpl;
@@ -75,6 +77,11 @@ public class AgentInstaller {
       if (DEBUG) {
         log.debug("Instrumentation installed for {}", enabledSystems);
       }
+      int speculativeMatchingThreads =
+          InstrumenterConfig.get().getResolverSpeculativeMatchingThreads();
+      if (speculativeMatchingThreads > 0 && InstrumenterConfig.get().isResolverMemoizingEnabled()) {
+        SpeculativeMatching.matchClassPath(speculativeMatchingThreads);
+      }
       int poolCleaningInterval = InstrumenterConfig.get().getResolverResetInterval();
       if (poolCleaningInterval > 0) {
         AgentTaskScheduler.INSTANCE.scheduleAtFixedRate(
@@ -235,6 +242,10 @@ public class AgentInstaller {
     }
 
     InstrumenterState.resetDefaultState();
+    if (InstrumenterConfig.get().isResolverMemoizingEnabled()) {
+      // all matchers are now prepared, so memoized matches from the last run can be re-used
+      Memoizer.seedPersistedMemos();
+    }
     try {
       return transformerBuilder.installOn(inst);
     } finally {
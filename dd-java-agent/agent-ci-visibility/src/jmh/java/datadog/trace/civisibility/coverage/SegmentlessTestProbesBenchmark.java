@@ -0,0 +1,102 @@
+package datadog.trace.civisibility.coverage;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import datadog.trace.api.civisibility.telemetry.NoOpMetricCollector;
+import datadog.trace.civisibility.source.SourcePathResolver;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of a single coverage probe, which is executed on every method entry and
+ * foreign field access of instrumented classes.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Fork(value = 1)
+public class SegmentlessTestProbesBenchmark {
+
+  private static final Class<?>[] CLASSES = {
+    String.class,
+    Integer.class,
+    Long.class,
+    Short.class,
+    Byte.class,
+    Double.class,
+    Float.class,
+    Character.class,
+    Boolean.class,
+    Object.class,
+    StringBuilder.class,
+    Math.class,
+    ArrayList.class,
+    HashMap.class,
+    HashSet.class,
+    LinkedList.class
+  };
+
+  private static final SourcePathResolver RESOLVER =
+      new SourcePathResolver() {
+        @Nullable
+        @Override
+        public String getSourcePath(@Nonnull Class<?> c) {
+          return c.getName();
+        }
+
+        @Nullable
+        @Override
+        public String getResourcePath(@Nullable String relativePath) {
+          return relativePath;
+        }
+      };
+
+  private SegmentlessTestProbes testThreadProbes;
+  private SegmentlessTestProbes otherThreadProbes;
+  private int next;
+
+  @Setup
+  public void setup() throws InterruptedException {
+    // created on the benchmark thread, so records are on the test thread
+    testThreadProbes = new SegmentlessTestProbes(RESOLVER, NoOpMetricCollector.INSTANCE);
+    // created on another thread, so records are on a thread spawned by the test
+    Thread creator =
+        new Thread(
+            () ->
+                otherThreadProbes =
+                    new SegmentlessTestProbes(RESOLVER, NoOpMetricCollector.INSTANCE));
+    creator.start();
+    creator.join();
+  }
+
+  @Benchmark
+  public void recordSameClass() {
+    testThreadProbes.record(String.class);
+  }
+
+  @Benchmark
+  public void recordAlternatingClasses() {
+    testThreadProbes.record(CLASSES[next++ & (CLASSES.length - 1)]);
+  }
+
+  @Benchmark
+  public void recordAlternatingClassesFromOtherThread() {
+    otherThreadProbes.record(CLASSES[next++ & (CLASSES.length - 1)]);
+  }
+}
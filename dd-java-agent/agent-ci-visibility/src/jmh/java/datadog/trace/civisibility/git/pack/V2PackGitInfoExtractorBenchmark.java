@@ -0,0 +1,161 @@
+package datadog.trace.civisibility.git.pack;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import datadog.trace.civisibility.git.GitObject;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Looks up commits in a synthetic V2 pack, whose IDX file lists the given number of objects. All
+ * objects point to the same commit in the pack file, so that only the IDX file grows with the
+ * number of objects.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Fork(value = 1)
+public class V2PackGitInfoExtractorBenchmark {
+
+  private static final int HEADER_LENGTH = 12;
+
+  @Param({"10000", "1000000"})
+  int objects;
+
+  private final V2PackGitInfoExtractor extractor = new V2PackGitInfoExtractor();
+
+  private File directory;
+  private File idxFile;
+  private File packFile;
+  private String[] shas;
+  private int next;
+
+  @Setup
+  public void setup() throws IOException {
+    directory = Files.createTempDirectory("pack-benchmark").toFile();
+    idxFile = new File(directory, "pack.idx");
+    packFile = new File(directory, "pack.pack");
+
+    byte[][] sortedShas = new byte[objects][20];
+    Random random = new Random(0);
+    for (byte[] sha : sortedShas) {
+      random.nextBytes(sha);
+    }
+    Arrays.sort(sortedShas, V2PackGitInfoExtractorBenchmark::compare);
+
+    writeIdx(sortedShas);
+    writePack();
+
+    shas = new String[1024];
+    for (int i = 0; i < shas.length; i++) {
+      shas[i] = toHex(sortedShas[random.nextInt(objects)]);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    idxFile.delete();
+    packFile.delete();
+    directory.delete();
+  }
+
+  @Benchmark
+  public GitPackObject extract() {
+    return extractor.extract(idxFile, packFile, shas[next++ & (shas.length - 1)]);
+  }
+
+  private void writeIdx(byte[][] sortedShas) throws IOException {
+    try (DataOutputStream idx =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(idxFile)))) {
+      idx.write(GitPackUtils.HEADER);
+      idx.writeInt(V2PackGitInfoExtractor.VERSION);
+      // fanout table
+      int count = 0;
+      for (int bucket = 0; bucket < 256; bucket++) {
+        while (count < sortedShas.length && (sortedShas[count][0] & 0xFF) == bucket) {
+          count++;
+        }
+        idx.writeInt(count);
+      }
+      // SHA listing
+      for (byte[] sha : sortedShas) {
+        idx.write(sha);
+      }
+      // CRCs
+      for (int i = 0; i < sortedShas.length; i++) {
+        idx.writeInt(0);
+      }
+      // offsets: every object is the commit right after the pack header
+      for (int i = 0; i < sortedShas.length; i++) {
+        idx.writeInt(HEADER_LENGTH);
+      }
+      // pack and idx checksums
+      idx.write(new byte[40]);
+    }
+  }
+
+  private void writePack() throws IOException {
+    byte[] commit =
+        ("tree 0000000000000000000000000000000000000000\n"
+                + "author A U Thor <author@example.com> 1700000000 +0000\n"
+                + "committer A U Thor <author@example.com> 1700000000 +0000\n"
+                + "\n"
+                + "Synthetic commit\n")
+            .getBytes(StandardCharsets.UTF_8);
+    Deflater deflater = new Deflater();
+    deflater.setInput(commit);
+    deflater.finish();
+    byte[] deflated = new byte[1024];
+    int deflatedLength = deflater.deflate(deflated);
+    deflater.end();
+
+    try (OutputStream pack = new FileOutputStream(packFile)) {
+      pack.write(new byte[] {'P', 'A', 'C', 'K', 0, 0, 0, 2, 0, 0, 0, 1});
+      // type and size: 1 continuation bit, 3 type bits, 4 size bits, then 7 size bits
+      pack.write(0x80 | (GitObject.COMMIT_TYPE << 4) | (commit.length & 0x0F));
+      pack.write(commit.length >> 4);
+      pack.write(deflated, 0, deflatedLength);
+    }
+  }
+
+  private static int compare(byte[] left, byte[] right) {
+    for (int i = 0; i < left.length; i++) {
+      int cmp = (left[i] & 0xFF) - (right[i] & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
+  private static String toHex(byte[] sha) {
+    StringBuilder hex = new StringBuilder(40);
+    for (byte b : sha) {
+      hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return hex.toString();
+  }
+}
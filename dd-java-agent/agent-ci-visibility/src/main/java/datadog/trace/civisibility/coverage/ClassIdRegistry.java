@@ -0,0 +1,53 @@
+package datadog.trace.civisibility.coverage;
+
+import datadog.trace.api.GenericClassValue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+
+/**
+ * Assigns dense ids to covered classes, so that coverage stores can track them in bitsets instead
+ * of identity maps. Ids are never reused; classes are only weakly referenced so that unloaded
+ * classes can be collected.
+ */
+final class ClassIdRegistry {
+
+  private static final ClassValue<Integer> IDS = GenericClassValue.of(ClassIdRegistry::register);
+
+  private static final Object LOCK = new Object();
+
+  @SuppressWarnings("unchecked")
+  private static volatile WeakReference<Class<?>>[] classes = new WeakReference[1024];
+
+  private static int nextId;
+
+  private ClassIdRegistry() {}
+
+  static int idOf(Class<?> clazz) {
+    return IDS.get(clazz);
+  }
+
+  /** @return the class with the given id, or {@code null} if it has been unloaded */
+  @Nullable
+  static Class<?> classOf(int id) {
+    WeakReference<Class<?>>[] snapshot = classes;
+    if (id >= snapshot.length) {
+      return null;
+    }
+    WeakReference<Class<?>> ref = snapshot[id];
+    return ref != null ? ref.get() : null;
+  }
+
+  private static Integer register(Class<?> clazz) {
+    synchronized (LOCK) {
+      int id = nextId++;
+      WeakReference<Class<?>>[] current = classes;
+      if (id >= current.length) {
+        current = Arrays.copyOf(current, current.length * 2);
+      }
+      current[id] = new WeakReference<>(clazz);
+      classes = current;
+      return id;
+    }
+  }
+}
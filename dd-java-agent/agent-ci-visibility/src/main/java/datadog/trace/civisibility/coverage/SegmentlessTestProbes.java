@@ -10,10 +10,10 @@ import datadog.trace.api.civisibility.telemetry.tag.CoverageErrorType;
 import datadog.trace.api.civisibility.telemetry.tag.Library;
 import datadog.trace.civisibility.source.SourcePathResolver;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -32,9 +32,10 @@ public class SegmentlessTestProbes implements CoverageProbeStore {
   private final Thread testThread = Thread.currentThread();
   // confined to testThread
   private boolean started;
-  private volatile Class<?> lastCoveredClass;
-  private final Map<Class<?>, Class<?>> coveredClasses;
-  private final Map<Thread, Map<Class<?>, Class<?>>> concurrentCoveredClasses;
+  // ids of covered classes (see ClassIdRegistry), confined to testThread
+  private final BitSet coveredClasses;
+  // each bitset is only written by the thread it is keyed by, and read once the test is done
+  private final Map<Thread, BitSet> concurrentCoveredClasses;
   private final Collection<String> nonCodeResources;
   private final SourcePathResolver sourcePathResolver;
   private final CiVisibilityMetricCollector metricCollector;
@@ -44,7 +45,7 @@ public class SegmentlessTestProbes implements CoverageProbeStore {
       SourcePathResolver sourcePathResolver, CiVisibilityMetricCollector metricCollector) {
     this.sourcePathResolver = sourcePathResolver;
     this.metricCollector = metricCollector;
-    coveredClasses = new IdentityHashMap<>();
+    coveredClasses = new BitSet();
     concurrentCoveredClasses = new ConcurrentHashMap<>();
     nonCodeResources = new ConcurrentLinkedQueue<>();
   }
@@ -57,21 +58,22 @@ public class SegmentlessTestProbes implements CoverageProbeStore {
   @Override
   public void record(Class<?> clazz) {
     try {
-      if (clazz != lastCoveredClass) {
-        Thread currentThread = Thread.currentThread();
-        if (currentThread == testThread) {
-          coveredClasses.put(lastCoveredClass, null);
-          lastCoveredClass = clazz;
-
-          if (!started) {
-            started = true;
-            metricCollector.add(CiVisibilityCountMetric.CODE_COVERAGE_STARTED, 1, Library.CUSTOM);
-          }
-        } else {
-          concurrentCoveredClasses
-              .computeIfAbsent(currentThread, t -> new IdentityHashMap<>())
-              .put(clazz, null);
+      int classId = ClassIdRegistry.idOf(clazz);
+      Thread currentThread = Thread.currentThread();
+      if (currentThread == testThread) {
+        coveredClasses.set(classId);
+
+        if (!started) {
+          started = true;
+          metricCollector.add(CiVisibilityCountMetric.CODE_COVERAGE_STARTED, 1, Library.CUSTOM);
         }
+      } else {
+        BitSet threadCoveredClasses = concurrentCoveredClasses.get(currentThread);
+        if (threadCoveredClasses == null) {
+          threadCoveredClasses =
+              concurrentCoveredClasses.computeIfAbsent(currentThread, t -> new BitSet());
+        }
+        threadCoveredClasses.set(classId);
       }
 
     } catch (Exception e) {
@@ -89,23 +91,21 @@ public class SegmentlessTestProbes implements CoverageProbeStore {
   @Override
   public boolean report(Long testSessionId, Long testSuiteId, long spanId) {
     try {
-      Map<Class<?>, Class<?>> classes =
-          map(coveredClasses.size() + concurrentCoveredClasses.size());
-      classes.putAll(coveredClasses);
-
-      for (Map<Class<?>, Class<?>> threadCoveredClasses : concurrentCoveredClasses.values()) {
-        classes.putAll(threadCoveredClasses);
+      BitSet classIds = (BitSet) coveredClasses.clone();
+      for (BitSet threadCoveredClasses : concurrentCoveredClasses.values()) {
+        classIds.or(threadCoveredClasses);
       }
 
-      classes.put(lastCoveredClass, null);
-      classes.remove(null);
-
-      if (classes.isEmpty() && nonCodeResources.isEmpty()) {
+      if (classIds.isEmpty() && nonCodeResources.isEmpty()) {
         return false;
       }
 
-      Set<String> coveredPaths = set(coveredClasses.size() + nonCodeResources.size());
-      for (Class<?> clazz : classes.keySet()) {
+      Set<String> coveredPaths = set(classIds.cardinality() + nonCodeResources.size());
+      for (int id = classIds.nextSetBit(0); id >= 0; id = classIds.nextSetBit(id + 1)) {
+        Class<?> clazz = ClassIdRegistry.classOf(id);
+        if (clazz == null) {
+          continue; // class has been unloaded since it was covered
+        }
         String sourcePath = sourcePathResolver.getSourcePath(clazz);
         if (sourcePath == null) {
           log.debug(
@@ -150,10 +150,6 @@ public class SegmentlessTestProbes implements CoverageProbeStore {
     }
   }
 
-  private static <K, V> Map<K, V> map(int size) {
-    return new IdentityHashMap<>(Math.max((int) (size / .75f) + 1, 16));
-  }
-
   private static <T> Set<T> set(int size) {
     return new HashSet<>(Math.max((int) (size / .75f) + 1, 16));
   }
@@ -3,6 +3,9 @@ package datadog.trace.civisibility.git.pack;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 
 public final class GitPackUtils {
@@ -44,6 +47,29 @@ public final class GitPackUtils {
     return buff;
   }
 
+  public static byte[] readBytes(final ByteBuffer buffer, final int numBytes) {
+    final byte[] buff = new byte[Math.min(numBytes, buffer.remaining())];
+    buffer.get(buff);
+    return buff;
+  }
+
+  /**
+   * Memory-maps a read-only region of a file. The mapping stays valid after this method returns,
+   * and is released once the returned buffer is garbage collected.
+   *
+   * @param file
+   * @param position
+   * @param size
+   * @return buffer positioned at the start of the region
+   * @throws IOException
+   */
+  public static ByteBuffer map(final File file, final long position, final long size)
+      throws IOException {
+    try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+  }
+
   public static byte[] hexToByteArray(final String s) {
     final int len = s.length();
     final byte[] data = new byte[len / 2];
@@ -3,11 +3,11 @@ package datadog.trace.civisibility.git.pack;
 import static datadog.trace.civisibility.git.GitObject.COMMIT_TYPE;
 import static datadog.trace.civisibility.git.GitObject.TAG_TYPE;
 import static datadog.trace.civisibility.git.pack.GitPackUtils.hexToByteArray;
+import static datadog.trace.civisibility.git.pack.GitPackUtils.map;
 import static datadog.trace.civisibility.git.pack.GitPackUtils.readBytes;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -57,6 +57,12 @@ public class V2PackGitInfoExtractor extends VersionedPackGitInfoExtractor {
   private static final int[] INVALID_TYPE_AND_SIZE = new int[] {-1, -1};
   private static final int MAX_ALLOWED_SIZE = Character.MAX_VALUE; // 65535 or 2 bytes
 
+  private static final int FANOUT_OFFSET = 8; // header and version
+  private static final int SHA_LISTING_OFFSET = FANOUT_OFFSET + 256 * 4;
+  private static final int SHA_LENGTH = 20;
+  // type and size of an object that is at most MAX_ALLOWED_SIZE long take at most 3 bytes
+  private static final int MAX_OBJECT_HEADER_LENGTH = 3;
+
   @Override
   public short getVersion() {
     return VERSION;
@@ -65,6 +71,9 @@ public class V2PackGitInfoExtractor extends VersionedPackGitInfoExtractor {
   /**
    * Extracts the Git object information of a certain commit sha from the IDX and pack files.
    *
+   * <p>Both files are memory-mapped, so that locating the object only touches the pages of the IDX
+   * file visited by the binary search, and only the object itself is read from the pack file.
+   *
    * <p>If there is an error in the process, the object contains a flag called "error" set to true.
    *
    * @param idxFile
@@ -75,119 +84,104 @@ public class V2PackGitInfoExtractor extends VersionedPackGitInfoExtractor {
   @Override
   public GitPackObject extract(final File idxFile, final File packFile, final String commitSha) {
     try {
-      final String indexHex = commitSha.substring(0, 2);
-      final int index = Integer.parseInt(indexHex, 16);
-      final int previousIndex = index - 1;
-
-      try (final RandomAccessFile idx = new RandomAccessFile(idxFile, "r")) {
-        // Skip header and version
-        idx.seek(8);
-
-        int numObjectsPreviousIndex = 0;
-        if (previousIndex != -1) {
-          // Seek to previousIndex position.
-          idx.seek((4L * previousIndex) + idx.getFilePointer());
-          numObjectsPreviousIndex = idx.readInt();
-        }
-
-        // In the fanout table, every index has its objects + the previous ones.
-        // We need to subtract the previous index objects to know the correct
-        // actual number of objects for this specific index.
-        final int numObjectsIndex = idx.readInt() - numObjectsPreviousIndex;
-
-        // Seek to last position. The last position contains the number of all objects.
-        idx.seek((4L * (255 - (index + 1))) + idx.getFilePointer());
-        final int totalObjects = idx.readInt();
-
-        // Search the sha index in the second layer: the SHA listing.
-        final int shaIndex =
-            searchSha(idx, commitSha, totalObjects, numObjectsPreviousIndex, numObjectsIndex);
-        if (shaIndex == GitPackObject.NOT_FOUND_SHA_INDEX) {
-          return GitPackObject.NOT_FOUND_PACK_OBJECT;
-        }
-
-        // Third layer: 4 byte CRC for each object. We skip it.
-        idx.seek((4L * totalObjects) + idx.getFilePointer());
-
-        // Search packOffset in fourth and fifth layer.
-        final long packOffset = searchOffset(idx, shaIndex, totalObjects);
-
-        // Open pack file and seek to packOffset.
-        try (final RandomAccessFile pack = new RandomAccessFile(packFile, "r")) {
-          pack.seek(packOffset);
-
-          // Get the type and the size of the git object.
-          final int[] gitObjectTypeAndSize = extractGitObjectTypeAndSize(pack);
-          if (Arrays.equals(gitObjectTypeAndSize, INVALID_TYPE_AND_SIZE)) {
-            return GitPackObject.ERROR_PACK_OBJECT;
-          }
-
-          // Return the GitPackObject with the extracted information.
-          return new GitPackObject(
-              shaIndex,
-              (byte) gitObjectTypeAndSize[TYPE_INDEX],
-              readBytes(pack, gitObjectTypeAndSize[SIZE_INDEX]),
-              false);
-        }
+      final byte[] shaBytes = hexToByteArray(commitSha);
+      final int index = shaBytes[0] & 0xFF;
+
+      final ByteBuffer idx = map(idxFile, 0, idxFile.length());
+
+      // In the fanout table, every index has its objects + the previous ones.
+      final int numObjectsPreviousIndex =
+          index == 0 ? 0 : idx.getInt(FANOUT_OFFSET + 4 * (index - 1));
+      final int numObjectsUpToIndex = idx.getInt(FANOUT_OFFSET + 4 * index);
+      // The last position contains the number of all objects.
+      final int totalObjects = idx.getInt(FANOUT_OFFSET + 4 * 255);
+
+      // Search the sha index in the second layer: the SHA listing.
+      final int shaIndex = searchSha(idx, shaBytes, numObjectsPreviousIndex, numObjectsUpToIndex);
+      if (shaIndex == GitPackObject.NOT_FOUND_SHA_INDEX) {
+        return GitPackObject.NOT_FOUND_PACK_OBJECT;
+      }
+
+      // Third layer: 4 byte CRC for each object. We skip it.
+      final int offsetsPosition = SHA_LISTING_OFFSET + (SHA_LENGTH + 4) * totalObjects;
+
+      // Search packOffset in fourth and fifth layer.
+      final long packOffset = searchOffset(idx, offsetsPosition, shaIndex, totalObjects);
+
+      // Map the part of the pack file that can hold the git object.
+      final long objectLength =
+          Math.min(MAX_OBJECT_HEADER_LENGTH + MAX_ALLOWED_SIZE, packFile.length() - packOffset);
+      final ByteBuffer pack = map(packFile, packOffset, objectLength);
+
+      // Get the type and the size of the git object.
+      final int[] gitObjectTypeAndSize = extractGitObjectTypeAndSize(pack);
+      if (Arrays.equals(gitObjectTypeAndSize, INVALID_TYPE_AND_SIZE)) {
+        return GitPackObject.ERROR_PACK_OBJECT;
       }
 
+      // Return the GitPackObject with the extracted information.
+      return new GitPackObject(
+          shaIndex,
+          (byte) gitObjectTypeAndSize[TYPE_INDEX],
+          readBytes(pack, gitObjectTypeAndSize[SIZE_INDEX]),
+          false);
+
     } catch (final Exception e) {
       return GitPackObject.ERROR_PACK_OBJECT;
     }
   }
 
   /**
-   * Extracts the SHA index using the number of objects found in the fanout table.
+   * Binary-searches the SHA listing between the given indexes, which are taken from the fanout
+   * table.
    *
    * @param idx
-   * @param commitSha
-   * @param totalObjects
-   * @param numObjectsPreviousIndex
-   * @param numObjectsIndex
+   * @param shaBytes
+   * @param fromIndex first index to search (inclusive)
+   * @param toIndex last index to search (exclusive)
    * @return sha index to be used in the offsets table.
-   * @throws IOException
    */
   protected int searchSha(
-      final RandomAccessFile idx,
-      final String commitSha,
-      final int totalObjects,
-      final int numObjectsPreviousIndex,
-      final int numObjectsIndex)
-      throws IOException {
-
-    // Skip all previous SHAs
-    idx.seek((20L * numObjectsPreviousIndex) + idx.getFilePointer());
-    final byte[] shaBytes = hexToByteArray(commitSha);
-
-    // Search target SHA index in the SHA listing table.
-    for (int i = 0; i < numObjectsIndex; i++) {
-      final byte[] current = readBytes(idx, 20);
-      if (Arrays.equals(shaBytes, current)) {
-        final int shaIndex = numObjectsPreviousIndex + i;
-
-        // If we find the SHA, we skip all SHA listing table.
-        idx.seek((20L * (totalObjects - (shaIndex + 1))) + idx.getFilePointer());
-        return shaIndex;
+      final ByteBuffer idx, final byte[] shaBytes, final int fromIndex, final int toIndex) {
+    int low = fromIndex;
+    int high = toIndex - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int cmp = compareSha(idx, SHA_LISTING_OFFSET + SHA_LENGTH * mid, shaBytes);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
       }
     }
-
     return GitPackObject.NOT_FOUND_SHA_INDEX;
   }
 
+  private static int compareSha(final ByteBuffer idx, final int position, final byte[] shaBytes) {
+    for (int i = 0; i < SHA_LENGTH; i++) {
+      final int cmp = (idx.get(position + i) & 0xFF) - (shaBytes[i] & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return 0;
+  }
+
   /**
    * Find the offset in the fourth and fifth layer of the IDX file using the sha index.
    *
    * @param idx
+   * @param offsetsPosition position of the fourth layer in the IDX file
    * @param shaIndex
    * @param totalObjects
    * @return
-   * @throws IOException
    */
   protected long searchOffset(
-      final RandomAccessFile idx, final int shaIndex, final int totalObjects) throws IOException {
+      final ByteBuffer idx, final int offsetsPosition, final int shaIndex, final int totalObjects) {
     // Fourth layer: 4 byte per object of offset in pack file
-    idx.seek((4L * shaIndex) + idx.getFilePointer());
-    int offset = idx.readInt();
+    int offset = idx.getInt(offsetsPosition + 4 * shaIndex);
 
     // Check the first bit.
     // If the first bit == 0, the offset is in the fourth layer.
@@ -198,12 +192,9 @@ public class V2PackGitInfoExtractor extends VersionedPackGitInfoExtractor {
     } else {
       // Clear first bit and look at it at the 5th layer
       offset &= 0x7FFFFFFF;
-      // Skip complete fourth layer.
-      idx.seek(4L * (totalObjects - (shaIndex + 1)) + idx.getFilePointer());
-      // Use the offset from fourth layer, to find the actual pack file offset in the fifth layer.
-      // In this case, the offset is 8 bytes long.
-      idx.seek((8L * offset) + idx.getFilePointer());
-      return idx.readLong();
+      // Use the offset from fourth layer, to find the actual pack file offset in the fifth layer,
+      // which follows the complete fourth layer. In this case, the offset is 8 bytes long.
+      return idx.getLong(offsetsPosition + 4 * totalObjects + 8 * offset);
     }
   }
 
@@ -211,18 +202,17 @@ public class V2PackGitInfoExtractor extends VersionedPackGitInfoExtractor {
    * Returns an int array with the type and size of the git object. The type is stored in the pos 0
    * of the array The size is stored in the pos 1 of the array.
    *
-   * @param pack
+   * @param pack buffer positioned at the start of the git object
    * @return type and size of the git object.
-   * @throws IOException
    */
-  protected int[] extractGitObjectTypeAndSize(final RandomAccessFile pack) throws IOException {
+  protected int[] extractGitObjectTypeAndSize(final ByteBuffer pack) {
     // The type and size of the git object is stored in a variable length byte array.
     // If the read byte has the first bit == 0, it means it's the final byte to read.
     byte sizePart;
     byte[] sizeParts = new byte[2]; // 2 bytes size is the most common use case.
     int idx = 0;
     do {
-      sizePart = readBytes(pack, 1)[0];
+      sizePart = pack.get();
       sizeParts[idx++] = sizePart;
 
       if (idx == sizeParts.length && ((sizePart >> 7) & 1) == 1) {
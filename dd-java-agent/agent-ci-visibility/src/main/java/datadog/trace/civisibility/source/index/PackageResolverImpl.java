@@ -11,6 +11,7 @@ import java.nio.file.Path;
 public class PackageResolverImpl implements PackageResolver {
 
   private static final String PACKAGE_KEYWORD = "package";
+  private static final String IMPORT_KEYWORD = "import ";
   private final FileSystem fileSystem;
 
   public PackageResolverImpl(FileSystem fileSystem) {
@@ -26,6 +27,9 @@ public class PackageResolverImpl implements PackageResolver {
    * <p>It simply looks for a line, that contains the <code>package</code> keyword and extracts the
    * part that goes after it and until the nearest <code>;</code> character, then verifies that the
    * extracted part looks plausible by checking the actual file path.
+   *
+   * <p>Since the package declaration has to precede imports, reading stops at the first import, so
+   * typically only the first bytes of the file are read.
    */
   @Override
   public Path getPackage(Path sourceFile) throws IOException {
@@ -33,6 +37,10 @@ public class PackageResolverImpl implements PackageResolver {
     try (BufferedReader br = Files.newBufferedReader(sourceFile)) {
       String line;
       while ((line = br.readLine()) != null) {
+        if (line.trim().startsWith(IMPORT_KEYWORD)) {
+          break;
+        }
+
         int packageDeclarationStart = line.indexOf(PACKAGE_KEYWORD);
         if (packageDeclarationStart == -1) {
           continue;
@@ -1,19 +1,27 @@
 package datadog.trace.civisibility.source.index;
 
+import static datadog.trace.util.AgentThreadFactory.AgentThread.CI_REPO_INDEXER;
+
 import datadog.trace.api.Config;
 import datadog.trace.util.ClassNameTrie;
 import java.io.File;
-import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystem;
-import java.nio.file.FileVisitOption;
-import java.nio.file.FileVisitResult;
-import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.EnumSet;
-import java.util.LinkedHashSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,30 +71,41 @@ public class RepoIndexBuilder implements RepoIndexProvider {
 
     Path repoRootPath = toRealPath(fileSystem.getPath(repoRoot));
     Path scanRootPath = toRealPath(fileSystem.getPath(scanRoot));
-    RepoIndexingFileVisitor repoIndexingFileVisitor =
-        new RepoIndexingFileVisitor(config, packageResolver, resourceResolver, repoRootPath);
+    RepoIndexingStats stats = new RepoIndexingStats();
 
     long startTime = System.currentTimeMillis();
+    List<IndexedFile> indexedFiles;
+    ForkJoinPool pool =
+        new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors(), INDEXING_THREAD_FACTORY, null, false);
     try {
-      Files.walkFileTree(
-          scanRootPath,
-          EnumSet.of(FileVisitOption.FOLLOW_LINKS),
-          Integer.MAX_VALUE,
-          repoIndexingFileVisitor);
+      indexedFiles =
+          pool.invoke(
+              new DirectoryScan(
+                  scanRootPath,
+                  new DirectoryScanContext(
+                      packageResolver, resourceResolver, repoRootPath, stats)));
     } catch (Exception e) {
       log.debug("Failed to build index of {}", scanRootPath, e);
+      indexedFiles = Collections.emptyList();
+    } finally {
+      pool.shutdown();
+    }
+
+    RepoIndexAssembler assembler = new RepoIndexAssembler(config, repoRootPath);
+    for (IndexedFile indexedFile : indexedFiles) {
+      assembler.add(indexedFile);
     }
+    RepoIndex index = assembler.getIndex();
 
     long duration = System.currentTimeMillis() - startTime;
-    RepoIndexingStats stats = repoIndexingFileVisitor.indexingStats;
-    RepoIndex index = repoIndexingFileVisitor.getIndex();
     log.info(
         "Indexing took {} ms. Files visited: {}, source files visited: {}, resource files visited: {}, source roots found: {}, root packages found: {}",
         duration,
-        stats.filesVisited,
-        stats.sourceFilesVisited,
-        stats.resourceFilesVisited,
-        repoIndexingFileVisitor.sourceRoots.size(),
+        stats.filesVisited.sum(),
+        stats.sourceFilesVisited.sum(),
+        stats.resourceFilesVisited.sum(),
+        assembler.sourceRoots.size(),
         index.getRootPackages());
     return index;
   }
@@ -100,42 +119,93 @@ public class RepoIndexBuilder implements RepoIndexProvider {
     }
   }
 
-  private static final class RepoIndexingFileVisitor implements FileVisitor<Path> {
-
-    private static final Logger log = LoggerFactory.getLogger(RepoIndexingFileVisitor.class);
+  private static final ForkJoinPool.ForkJoinWorkerThreadFactory INDEXING_THREAD_FACTORY =
+      pool -> {
+        ForkJoinWorkerThread thread =
+            ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName(CI_REPO_INDEXER.threadName + "-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+      };
 
+  /** State shared by all the directory scans of one indexing run. */
+  private static final class DirectoryScanContext {
     private final PackageResolver packageResolver;
     private final ResourceResolver resourceResolver;
-    private final ClassNameTrie.Builder trieBuilder;
-    private final LinkedHashSet<String> sourceRoots;
-    private final PackageTree packageTree;
-    private final RepoIndexingStats indexingStats;
     private final Path repoRoot;
+    private final RepoIndexingStats indexingStats;
+    // keys of the directories that have been scanned, to avoid following symlink cycles
+    private final Set<Object> scannedDirectories = ConcurrentHashMap.newKeySet();
 
-    private RepoIndexingFileVisitor(
-        Config config,
+    private DirectoryScanContext(
         PackageResolver packageResolver,
         ResourceResolver resourceResolver,
-        Path repoRoot) {
+        Path repoRoot,
+        RepoIndexingStats indexingStats) {
       this.packageResolver = packageResolver;
       this.resourceResolver = resourceResolver;
       this.repoRoot = repoRoot;
-      trieBuilder = new ClassNameTrie.Builder();
-      sourceRoots = new LinkedHashSet<>();
-      packageTree = new PackageTree(config);
-      indexingStats = new RepoIndexingStats();
+      this.indexingStats = indexingStats;
+    }
+  }
+
+  /**
+   * Scans one directory, forking a scan for each of its subdirectories so that idle workers can
+   * steal them. Results are returned in a stable order: files of the directory first, then the
+   * results of its subdirectories in listing order.
+   */
+  private static final class DirectoryScan extends RecursiveTask<List<IndexedFile>> {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryScan.class);
+
+    private final Path directory;
+    private final DirectoryScanContext context;
+
+    private DirectoryScan(Path directory, DirectoryScanContext context) {
+      this.directory = directory;
+      this.context = context;
     }
 
     @Override
-    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
-      if (Files.isSymbolicLink(dir) && readSymbolicLink(dir).startsWith(repoRoot)) {
+    protected List<IndexedFile> compute() {
+      List<IndexedFile> indexedFiles = new ArrayList<>();
+      List<DirectoryScan> subdirectoryScans = new ArrayList<>();
+      try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+        for (Path entry : entries) {
+          BasicFileAttributes attrs;
+          try {
+            attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+          } catch (Exception e) {
+            log.debug("Failed to visit file: {}", entry, e);
+            continue;
+          }
+          if (!attrs.isDirectory()) {
+            visitFile(entry, indexedFiles);
+          } else if (shouldScan(entry, attrs)) {
+            DirectoryScan subdirectoryScan = new DirectoryScan(entry, context);
+            subdirectoryScan.fork();
+            subdirectoryScans.add(subdirectoryScan);
+          }
+        }
+      } catch (Exception e) {
+        log.debug("Failed to visit directory: {}", directory, e);
+      }
+      for (DirectoryScan subdirectoryScan : subdirectoryScans) {
+        indexedFiles.addAll(subdirectoryScan.join());
+      }
+      return indexedFiles;
+    }
+
+    private boolean shouldScan(Path dir, BasicFileAttributes attrs) {
+      if (Files.isSymbolicLink(dir) && readSymbolicLink(dir).startsWith(context.repoRoot)) {
         // The path is a symlink that points inside the repo.
         // We'll visit the folder that it points to anyway,
         // moreover, we don't want two different results for one file
         // (one containing the symlink, the other - the actual folder).
-        return FileVisitResult.SKIP_SUBTREE;
+        return false;
       }
-      return FileVisitResult.CONTINUE;
+      Object key = attrs.fileKey();
+      return context.scannedDirectories.add(key != null ? key : dir);
     }
 
     private static Path readSymbolicLink(Path path) {
@@ -147,78 +217,107 @@ public class RepoIndexBuilder implements RepoIndexProvider {
       }
     }
 
-    @Override
-    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-      indexingStats.filesVisited++;
+    private void visitFile(Path file, List<IndexedFile> indexedFiles) {
+      context.indexingStats.filesVisited.increment();
 
       try {
-        Path sourceRoot = getSourceRoot(file);
-        if (sourceRoot != null) {
-          sourceRoots.add(repoRoot.relativize(sourceRoot).toString());
+        String fileName = file.getFileName().toString();
+        SourceType sourceType = SourceType.getByFileName(fileName);
+        if (sourceType == null) {
+          return;
+        }
 
-          Path relativePath = sourceRoot.relativize(file);
-          String classNameWithExtension = relativePath.toString().replace(File.separatorChar, '.');
-          if (!classNameWithExtension.isEmpty()) {
-            trieBuilder.put(classNameWithExtension, sourceRoots.size() - 1);
-          }
+        Path sourceRoot;
+        Path packagePath;
+        if (!sourceType.isResource()) {
+          context.indexingStats.sourceFilesVisited.increment();
+          packagePath = context.packageResolver.getPackage(file);
+          sourceRoot = getSourceRoot(file, packagePath);
+        } else {
+          context.indexingStats.resourceFilesVisited.increment();
+          packagePath = null;
+          sourceRoot = context.resourceResolver.getResourceRoot(file);
+        }
+
+        if (sourceRoot != null) {
+          indexedFiles.add(new IndexedFile(file, sourceRoot, packagePath));
         }
       } catch (Exception e) {
         log.debug("Failed to index file {}", file, e);
       }
-      return FileVisitResult.CONTINUE;
     }
 
-    private Path getSourceRoot(Path file) throws IOException {
-      String fileName = file.getFileName().toString();
-      SourceType sourceType = SourceType.getByFileName(fileName);
-      if (sourceType == null) {
-        return null;
-
-      } else if (!sourceType.isResource()) {
-        indexingStats.sourceFilesVisited++;
-        Path packagePath = packageResolver.getPackage(file);
-        packageTree.add(packagePath);
-        return getSourceRoot(file, packagePath);
-
-      } else {
-        indexingStats.resourceFilesVisited++;
-        return resourceResolver.getResourceRoot(file);
-      }
-    }
-
-    private Path getSourceRoot(Path file, Path packagePath) {
+    private static Path getSourceRoot(Path file, Path packagePath) {
       Path folder = file.getParent();
       // remove package path suffix from folder path to get source root
       return folder
           .getRoot()
           .resolve(folder.subpath(0, folder.getNameCount() - packagePath.getNameCount()));
     }
+  }
 
-    @Override
-    public FileVisitResult visitFileFailed(Path file, IOException exc) {
-      if (exc != null) {
-        log.debug("Failed to visit file: {}", file, exc);
-      }
-      return FileVisitResult.CONTINUE;
+  private static final class IndexedFile {
+    private final Path file;
+    private final Path sourceRoot;
+    // null for resource files
+    @Nullable private final Path packagePath;
+
+    private IndexedFile(Path file, Path sourceRoot, @Nullable Path packagePath) {
+      this.file = file;
+      this.sourceRoot = sourceRoot;
+      this.packagePath = packagePath;
     }
+  }
 
-    @Override
-    public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
-      if (exc != null) {
-        log.debug("Failed to visit directory: {}", dir, exc);
+  /** Builds the index from the scanned files; not thread-safe. */
+  private static final class RepoIndexAssembler {
+
+    private static final Logger log = LoggerFactory.getLogger(RepoIndexAssembler.class);
+
+    private final ClassNameTrie.Builder trieBuilder;
+    private final Map<String, Integer> sourceRoots;
+    private final PackageTree packageTree;
+    private final Path repoRoot;
+
+    private RepoIndexAssembler(Config config, Path repoRoot) {
+      this.repoRoot = repoRoot;
+      trieBuilder = new ClassNameTrie.Builder();
+      sourceRoots = new LinkedHashMap<>();
+      packageTree = new PackageTree(config);
+    }
+
+    void add(IndexedFile indexedFile) {
+      try {
+        if (indexedFile.packagePath != null) {
+          packageTree.add(indexedFile.packagePath);
+        }
+        Path sourceRoot = indexedFile.sourceRoot;
+        String relativeSourceRoot = repoRoot.relativize(sourceRoot).toString();
+        Integer sourceRootIdx = sourceRoots.get(relativeSourceRoot);
+        if (sourceRootIdx == null) {
+          sourceRootIdx = sourceRoots.size();
+          sourceRoots.put(relativeSourceRoot, sourceRootIdx);
+        }
+
+        Path relativePath = sourceRoot.relativize(indexedFile.file);
+        String classNameWithExtension = relativePath.toString().replace(File.separatorChar, '.');
+        if (!classNameWithExtension.isEmpty()) {
+          trieBuilder.put(classNameWithExtension, sourceRootIdx);
+        }
+      } catch (Exception e) {
+        log.debug("Failed to index file {}", indexedFile.file, e);
       }
-      return FileVisitResult.CONTINUE;
     }
 
-    public RepoIndex getIndex() {
+    RepoIndex getIndex() {
       return new RepoIndex(
-          trieBuilder.buildTrie(), new ArrayList<>(sourceRoots), packageTree.asList());
+          trieBuilder.buildTrie(), new ArrayList<>(sourceRoots.keySet()), packageTree.asList());
     }
   }
 
   private static final class RepoIndexingStats {
-    int filesVisited;
-    int sourceFilesVisited;
-    int resourceFilesVisited;
+    final LongAdder filesVisited = new LongAdder();
+    final LongAdder sourceFilesVisited = new LongAdder();
+    final LongAdder resourceFilesVisited = new LongAdder();
   }
 }
@@ -0,0 +1,51 @@
+package datadog.trace.civisibility.coverage
+
+import datadog.trace.api.civisibility.telemetry.NoOpMetricCollector
+import datadog.trace.civisibility.source.SourcePathResolver
+import spock.lang.Specification
+
+class SegmentlessTestProbesTest extends Specification {
+
+  def "reports classes covered by the test thread and other threads"() {
+    setup:
+    def resolver = Stub(SourcePathResolver)
+    resolver.getSourcePath(String) >> "src/String.java"
+    resolver.getSourcePath(Integer) >> "src/Integer.java"
+    resolver.getSourcePath(Long) >> "src/Long.java"
+    def probes = new SegmentlessTestProbes(resolver, NoOpMetricCollector.INSTANCE)
+
+    when:
+    probes.record(String)
+    probes.record(Integer)
+    probes.record(String)
+    def thread = new Thread({
+      probes.record(Long)
+      probes.record(String)
+    })
+    thread.start()
+    thread.join()
+
+    then:
+    probes.report(1L, 2L, 3L)
+    probes.report.testReportFileEntries*.sourceFileName.toSet() == [
+      "src/String.java",
+      "src/Integer.java",
+      "src/Long.java"
+    ].toSet()
+  }
+
+  def "reports nothing when nothing was covered"() {
+    setup:
+    def probes = new SegmentlessTestProbes(Stub(SourcePathResolver), NoOpMetricCollector.INSTANCE)
+
+    expect:
+    !probes.report(1L, 2L, 3L)
+  }
+
+  def "assigns stable ids to classes"() {
+    expect:
+    ClassIdRegistry.idOf(String) == ClassIdRegistry.idOf(String)
+    ClassIdRegistry.idOf(String) != ClassIdRegistry.idOf(Integer)
+    ClassIdRegistry.classOf(ClassIdRegistry.idOf(Integer)) == Integer
+  }
+}
@@ -47,6 +47,22 @@ class GitPackUtilsTest extends DDSpecification {
     file("ci/git/pack/utils/version/v2.idx") | GitPackUtils.HEADER
   }
 
+  def "test read bytes from mapped file correctly"() {
+    setup:
+    def buffer = GitPackUtils.map(file, 0, file.length())
+
+    when:
+    def bArray = GitPackUtils.readBytes(buffer, 4)
+
+    then:
+    bArray == expectedBArray
+    buffer.position() == 4
+
+    where:
+    file                                     | expectedBArray
+    file("ci/git/pack/utils/version/v2.idx") | GitPackUtils.HEADER
+  }
+
   def "test convert hex to byte array correctly"() {
     setup:
     def expectedBArray = [1, 35, 69, 103, -119, -85, -51, -17] as byte[]
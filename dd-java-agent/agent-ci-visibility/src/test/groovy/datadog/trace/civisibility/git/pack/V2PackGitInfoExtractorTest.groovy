@@ -33,26 +33,27 @@ class V2PackGitInfoExtractorTest extends DDSpecification {
 
   def "test search correct sha index"() {
     setup:
-    def idx = new RandomAccessFile(idxFile, "r")
-    idx.seek(8L + (256 * 4))
+    def idx = GitPackUtils.map(idxFile, 0, idxFile.length())
+    def shaBytes = GitPackUtils.hexToByteArray(commitSha)
 
     when:
-    def shaIndex = sut.searchSha(idx, commitSha, totalObjects, previousObjects, indexObjects)
+    def shaIndex = sut.searchSha(idx, shaBytes, previousObjects, previousObjects + indexObjects)
 
     then:
     shaIndex == expectedShaIndex
 
     where:
-    idxFile                                      | commitSha                                  | totalObjects | previousObjects | indexObjects | expectedShaIndex
-    file("ci/git/pack/extractor/v2/pack-v2.idx") | "5b6f3a6dab5972d73a56dff737bd08d995255c08" | 28841        | 10310           | 126          | 10367
+    idxFile                                      | commitSha                                  | previousObjects | indexObjects | expectedShaIndex
+    file("ci/git/pack/extractor/v2/pack-v2.idx") | "5b6f3a6dab5972d73a56dff737bd08d995255c08" | 10310           | 126          | 10367
+    file("ci/git/pack/extractor/v2/pack-v2.idx") | "5b6f3a6dab5972d73a56dff737bd08d995255c09" | 10310           | 126          | -1
   }
 
   def "test search correct offset from idx file"() {
     setup:
-    def idx = new RandomAccessFile(idxFile, "r")
+    def idx = GitPackUtils.map(idxFile, 0, idxFile.length())
 
     when:
-    def offset = sut.searchOffset(idx, shaIndex, totalObjects)
+    def offset = sut.searchOffset(idx, 0, shaIndex, totalObjects)
 
     then:
     offset == expectedOffset
@@ -65,7 +66,7 @@ class V2PackGitInfoExtractorTest extends DDSpecification {
 
   def "test extract correct git object size from pack file"() {
     setup:
-    def pack = new RandomAccessFile(packFile, "r")
+    def pack = GitPackUtils.map(packFile, 0, packFile.length())
 
     when:
     def data = sut.extractGitObjectTypeAndSize(pack)
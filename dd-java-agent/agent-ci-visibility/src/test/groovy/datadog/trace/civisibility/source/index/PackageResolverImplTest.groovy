@@ -33,6 +33,7 @@ class PackageResolverImplTest extends Specification {
     "/root/src/foo/bar/MyClass.java" | COMMENT_WITH_KEYWORD_BEFORE_PACKAGE           | "foo/bar"
     "/root/src/foo/bar/MyClass.java" | MULTILINE_COMMENT_BEFORE_PACKAGE              | "foo/bar"
     "/root/src/foo/bar/MyClass.java" | MULTILINE_COMMENT_WITH_KEYWORD_BEFORE_PACKAGE | "foo/bar"
+    "/root/src/foo/bar/MyClass.java" | KEYWORD_AFTER_IMPORTS                         | ""
   }
 
   private static final String CLASS_IN_DEFAULT_PACKAGE =
@@ -74,5 +75,10 @@ class PackageResolverImplTest extends Specification {
   " */ \n" +
   "package foo.bar;\n" +
   "public class MyClass {}"
-}
 
+  private static final String KEYWORD_AFTER_IMPORTS =
+  "import java.util.List;\n" +
+  "public class MyClass {\n" +
+  "  String s = \"package foo.bar;\";\n" +
+  "}"
+}
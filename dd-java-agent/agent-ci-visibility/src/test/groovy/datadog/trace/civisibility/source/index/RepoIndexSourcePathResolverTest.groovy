@@ -3,6 +3,7 @@ package datadog.trace.civisibility.source.index
 import com.google.common.jimfs.Configuration
 import com.google.common.jimfs.Jimfs
 import datadog.trace.api.Config
+import datadog.trace.api.civisibility.config.TestIdentifier
 import groovy.transform.PackageScope
 import spock.lang.Specification
 
@@ -148,6 +149,38 @@ class RepoIndexSourcePathResolverTest extends Specification {
     sourcePathResolver.getSourcePath(RepoIndexSourcePathResolver) == expectedSourcePathTwo
   }
 
+  def "test source path resolution for repo with multiple source roots"() {
+    setup:
+    def expectedSourcePathOne = givenSourceFile(RepoIndexSourcePathResolverTest, repoRoot + "/module-a/src")
+    def expectedSourcePathTwo = givenSourceFile(RepoIndexSourcePathResolver, repoRoot + "/module-b/src", SourceType.JAVA)
+    def expectedSourcePathThree = givenSourceFile(PublicClassWhoseNameDoesNotCorrespondToFileName, repoRoot + "/module-c/src")
+
+    when:
+    def sourcePathResolver = new RepoIndexSourcePathResolver(config, repoRoot, packageResolver, resourceResolver, fileSystem)
+
+    then:
+    sourcePathResolver.getSourcePath(RepoIndexSourcePathResolverTest) == expectedSourcePathOne
+    sourcePathResolver.getSourcePath(RepoIndexSourcePathResolver) == expectedSourcePathTwo
+    sourcePathResolver.getSourcePath(PublicClassWhoseNameDoesNotCorrespondToFileName) == expectedSourcePathThree
+  }
+
+  def "test source path resolution for repo with a source root nested into another one"() {
+    setup:
+    // the scan visits Config (outer root), then the generated file (nested root), then TestIdentifier (outer root again)
+    def expectedSourcePathOne = givenSourceFile(Config, repoRoot + "/src", SourceType.JAVA)
+    def nestedSourceFile = fileSystem.getPath(repoRoot, "src", "datadog", "trace", "api", "civisibility", "Generated.java")
+    packageResolver.getPackage(nestedSourceFile) >> fileSystem.getPath("civisibility")
+    givenRepoFile(nestedSourceFile)
+    def expectedSourcePathTwo = givenSourceFile(TestIdentifier, repoRoot + "/src", SourceType.JAVA)
+
+    when:
+    def sourcePathResolver = new RepoIndexSourcePathResolver(config, repoRoot, packageResolver, resourceResolver, fileSystem)
+
+    then:
+    sourcePathResolver.getSourcePath(Config) == expectedSourcePathOne
+    sourcePathResolver.getSourcePath(TestIdentifier) == expectedSourcePathTwo
+  }
+
   private String givenSourceFile(Class c, String sourceRoot, SourceType sourceType = SourceType.GROOVY) {
     def classPath = fileSystem.getPath(generateSourceFileName(c, sourceRoot, sourceType))
     packageResolver.getPackage(classPath) >> fileSystem.getPath(sourceRoot).relativize(classPath).getParent()
@@ -1,62 +1,115 @@
 package com.datadog.debugger.agent;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import com.datadog.debugger.sink.ProbeStatusSink;
 import com.timgroup.statsd.StatsDClientErrorHandler;
 import datadog.communication.monitor.DDAgentStatsDClientManager;
 import datadog.trace.api.Config;
 import datadog.trace.api.StatsDClient;
 import datadog.trace.bootstrap.debugger.DebuggerContext;
+import datadog.trace.bootstrap.instrumentation.api.AgentHistogram;
+import datadog.trace.core.histogram.Histograms;
+import datadog.trace.util.AgentTaskScheduler;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Implements forwarding metric probe emitted metrics to a DogStatsD endpoint */
+/**
+ * Implements forwarding metric probe emitted metrics to a DogStatsD endpoint.
+ *
+ * <p>Metric probes can be placed on hot methods, so counts, gauges and histograms are aggregated
+ * per probe and only sent every {@link #FLUSH_INTERVAL_SECONDS} seconds. Histogram values are
+ * accumulated in a sketch, from which the same series as a DogStatsD histogram are computed.
+ * Distribution values are forwarded as they come, because their percentiles are computed from the
+ * values of all hosts.
+ *
+ * <p>The aggregates of a removed or updated probe are evicted after a couple of flushes, once its
+ * instrumentation is gone and no more values can be recorded into them.
+ */
 public class StatsdMetricForwarder
     implements DebuggerContext.MetricForwarder, StatsDClientErrorHandler {
   private static final Logger LOGGER = LoggerFactory.getLogger(StatsdMetricForwarder.class);
   private static final String METRICPROBE_PREFIX = "dynamic.instrumentation.metric.probe";
 
+  // matches the flush interval of the DogStatsD server
+  static final int FLUSH_INTERVAL_SECONDS = 10;
+
+  // flushes of a removed probe's aggregate before it is evicted, so late values are still sent
+  static final int EVICTION_FLUSHES = 2;
+
   private final StatsDClient statsd;
   private final ProbeStatusSink probeStatusSink;
+  final Map<String, ProbeMetric> probeMetrics = new ConcurrentHashMap<>();
 
   public StatsdMetricForwarder(Config config, ProbeStatusSink probeStatusSink) {
-    statsd =
+    this(
         DDAgentStatsDClientManager.statsDClientManager()
             .statsDClient(
                 config.getJmxFetchStatsdHost(),
                 config.getJmxFetchStatsdPort(),
                 config.getDogStatsDNamedPipe(),
                 METRICPROBE_PREFIX,
-                new String[0]);
+                new String[0]),
+        probeStatusSink);
+    probeStatusSink.addProbeRemovalListener(this::removeProbe);
+    AgentTaskScheduler.INSTANCE.scheduleAtFixedRate(
+        StatsdMetricForwarder::flush,
+        this,
+        FLUSH_INTERVAL_SECONDS,
+        FLUSH_INTERVAL_SECONDS,
+        SECONDS);
+  }
+
+  StatsdMetricForwarder(StatsDClient statsd, ProbeStatusSink probeStatusSink) {
+    this.statsd = statsd;
     this.probeStatusSink = probeStatusSink;
   }
 
   @Override
   public void count(String encodedProbeId, String name, long delta, String[] tags) {
-    statsd.count(name, delta, tags);
+    ProbeMetric metric = probeMetrics.get(encodedProbeId);
+    if (metric == null) {
+      metric = probeMetrics.computeIfAbsent(encodedProbeId, id -> new CountMetric(name, tags));
+    }
+    metric.record(delta);
     sendEmittingStatus(encodedProbeId);
   }
 
   @Override
   public void gauge(String encodedProbeId, String name, long value, String[] tags) {
-    statsd.gauge(name, value, tags);
+    ProbeMetric metric = probeMetrics.get(encodedProbeId);
+    if (metric == null) {
+      metric = probeMetrics.computeIfAbsent(encodedProbeId, id -> new GaugeMetric(name, tags));
+    }
+    metric.record(value);
     sendEmittingStatus(encodedProbeId);
   }
 
   @Override
   public void gauge(String encodedProbeId, String name, double value, String[] tags) {
-    statsd.gauge(name, value, tags);
+    ProbeMetric metric = probeMetrics.get(encodedProbeId);
+    if (metric == null) {
+      metric = probeMetrics.computeIfAbsent(encodedProbeId, id -> new GaugeMetric(name, tags));
+    }
+    metric.record(value);
     sendEmittingStatus(encodedProbeId);
   }
 
   @Override
   public void histogram(String encodedProbeId, String name, long value, String[] tags) {
-    statsd.histogram(name, value, tags);
-    sendEmittingStatus(encodedProbeId);
+    histogram(encodedProbeId, name, (double) value, tags);
   }
 
   @Override
   public void histogram(String encodedProbeId, String name, double value, String[] tags) {
-    statsd.histogram(name, value, tags);
+    ProbeMetric metric = probeMetrics.get(encodedProbeId);
+    if (metric == null) {
+      metric = probeMetrics.computeIfAbsent(encodedProbeId, id -> new HistogramMetric(name, tags));
+    }
+    metric.record(value);
     sendEmittingStatus(encodedProbeId);
   }
 
@@ -77,7 +130,192 @@ public class StatsdMetricForwarder
     LOGGER.warn("Error when sending metrics: ", exception);
   }
 
+  /** Schedules the eviction of the aggregate of a probe which has been removed or updated. */
+  void removeProbe(String encodedProbeId) {
+    ProbeMetric metric = probeMetrics.get(encodedProbeId);
+    if (metric != null) {
+      metric.remainingFlushes = EVICTION_FLUSHES;
+    }
+  }
+
+  /**
+   * Sends the metrics aggregated since the last flush. Aggregates are reset in place rather than
+   * removed when idle, because a probe may be recording into an aggregate while it is flushed.
+   * Only the aggregates of removed probes are evicted, once their final values have been sent.
+   */
+  void flush() {
+    for (Map.Entry<String, ProbeMetric> entry : probeMetrics.entrySet()) {
+      ProbeMetric metric = entry.getValue();
+      try {
+        metric.flush(statsd);
+      } catch (Exception ex) {
+        LOGGER.debug("Error when flushing metric {}: ", metric.name, ex);
+      }
+      int remainingFlushes = metric.remainingFlushes;
+      if (remainingFlushes > 0) {
+        metric.remainingFlushes = --remainingFlushes;
+        if (remainingFlushes == 0) {
+          probeMetrics.remove(entry.getKey(), metric);
+        }
+      }
+    }
+  }
+
   private void sendEmittingStatus(String encodedProbeId) {
     probeStatusSink.addEmitting(encodedProbeId);
   }
+
+  /** Aggregates the values recorded by a probe, whose metric name and tags never change. */
+  abstract static class ProbeMetric {
+    final String name;
+    final String[] tags;
+
+    // counts down the flushes left before a removed probe's aggregate is evicted
+    volatile int remainingFlushes;
+
+    ProbeMetric(String name, String[] tags) {
+      this.name = name;
+      this.tags = tags;
+    }
+
+    abstract void record(long value);
+
+    abstract void record(double value);
+
+    /** Sends what was recorded since the last flush, if anything, and resets the aggregate. */
+    abstract void flush(StatsDClient statsd);
+  }
+
+  static final class CountMetric extends ProbeMetric {
+    private final LongAdder count = new LongAdder();
+    private volatile boolean updated;
+
+    CountMetric(String name, String[] tags) {
+      super(name, tags);
+    }
+
+    @Override
+    void record(long value) {
+      count.add(value);
+      if (!updated) {
+        updated = true;
+      }
+    }
+
+    @Override
+    void record(double value) {
+      record((long) value);
+    }
+
+    @Override
+    void flush(StatsDClient statsd) {
+      if (!updated) {
+        return;
+      }
+      updated = false;
+      statsd.count(name, count.sumThenReset(), tags);
+    }
+  }
+
+  static final class GaugeMetric extends ProbeMetric {
+    private volatile long longValue;
+    private volatile double doubleValue;
+    private volatile boolean isDouble;
+    private volatile boolean updated;
+
+    GaugeMetric(String name, String[] tags) {
+      super(name, tags);
+    }
+
+    @Override
+    void record(long value) {
+      longValue = value;
+      updated = true;
+    }
+
+    @Override
+    void record(double value) {
+      doubleValue = value;
+      isDouble = true;
+      updated = true;
+    }
+
+    @Override
+    void flush(StatsDClient statsd) {
+      if (!updated) {
+        return;
+      }
+      updated = false;
+      if (isDouble) {
+        statsd.gauge(name, doubleValue, tags);
+      } else {
+        statsd.gauge(name, longValue, tags);
+      }
+    }
+  }
+
+  /** Computes the default aggregates of a DogStatsD histogram from a sketch of the values. */
+  static final class HistogramMetric extends ProbeMetric {
+    private final String countName;
+    private final String avgName;
+    private final String medianName;
+    private final String p95Name;
+    private final String maxName;
+
+    private final AgentHistogram sketch = Histograms.newHistogram();
+    private long count;
+    private double sum;
+    private double max;
+
+    HistogramMetric(String name, String[] tags) {
+      super(name, tags);
+      this.countName = name + ".count";
+      this.avgName = name + ".avg";
+      this.medianName = name + ".median";
+      this.p95Name = name + ".95percentile";
+      this.maxName = name + ".max";
+    }
+
+    @Override
+    void record(long value) {
+      record((double) value);
+    }
+
+    @Override
+    synchronized void record(double value) {
+      sketch.accept(value);
+      if (count == 0 || value > max) {
+        max = value;
+      }
+      sum += value;
+      count++;
+    }
+
+    @Override
+    void flush(StatsDClient statsd) {
+      long count;
+      double avg;
+      double median;
+      double p95;
+      double max;
+      synchronized (this) {
+        count = this.count;
+        if (count == 0) {
+          return;
+        }
+        avg = sum / count;
+        median = sketch.getValueAtQuantile(0.5);
+        p95 = sketch.getValueAtQuantile(0.95);
+        max = this.max;
+        sketch.clear();
+        this.count = 0;
+        this.sum = 0;
+      }
+      statsd.count(countName, count, tags);
+      statsd.gauge(avgName, avg, tags);
+      statsd.gauge(medianName, median, tags);
+      statsd.gauge(p95Name, p95, tags);
+      statsd.gauge(maxName, max, tags);
+    }
+  }
 }
@@ -18,6 +18,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import okhttp3.HttpUrl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +39,7 @@ public class ProbeStatusSink {
   private final int batchSize;
   private final boolean isInstrumentTheWorld;
   private final boolean useMultiPart;
+  private final List<Consumer<String>> probeRemovalListeners = new CopyOnWriteArrayList<>();
 
   public ProbeStatusSink(Config config, String diagnosticsEndpoint, boolean useMultiPart) {
     this(config, new BatchUploader(config, diagnosticsEndpoint), useMultiPart);
@@ -160,7 +163,16 @@ public class ProbeStatusSink {
   }
 
   public void removeDiagnostics(ProbeId probeId) {
-    probeStatuses.remove(probeId.getEncodedId());
+    String encodedProbeId = probeId.getEncodedId();
+    probeStatuses.remove(encodedProbeId);
+    for (Consumer<String> listener : probeRemovalListeners) {
+      listener.accept(encodedProbeId);
+    }
+  }
+
+  /** Notifies the listener with the encoded id of each removed (or replaced) probe. */
+  public void addProbeRemovalListener(Consumer<String> listener) {
+    probeRemovalListeners.add(listener);
   }
 
   private void addDiagnostics(ProbeStatus message) {
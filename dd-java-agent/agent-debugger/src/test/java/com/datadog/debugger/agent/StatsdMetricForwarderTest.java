@@ -1,14 +1,22 @@
 package com.datadog.debugger.agent;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.doubleThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 import com.datadog.debugger.sink.ProbeStatusSink;
 import datadog.trace.api.Config;
+import datadog.trace.api.StatsDClient;
 import datadog.trace.bootstrap.debugger.ProbeId;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import org.junit.jupiter.api.Test;
 
 class StatsdMetricForwarderTest {
@@ -88,4 +96,141 @@ class StatsdMetricForwarderTest {
     statsdMetricForwarder.count("badId:0", "name", 1, new String[] {"foo:bar"});
     verify(probeStatusSink, times(0)).addEmitting(eq(METRIC_ID));
   }
+
+  @Test
+  void aggregatesCountsUntilFlush() {
+    StatsDClient statsd = mock(StatsDClient.class);
+    StatsdMetricForwarder statsdMetricForwarder =
+        new StatsdMetricForwarder(statsd, mock(ProbeStatusSink.class));
+    String[] tags = new String[] {"foo:bar"};
+    for (int i = 0; i < 1000; i++) {
+      statsdMetricForwarder.count(METRIC_ID.getEncodedId(), "name", 2, tags);
+    }
+    verifyNoInteractions(statsd);
+    statsdMetricForwarder.flush();
+    verify(statsd).count("name", 2000, tags);
+    statsdMetricForwarder.count(METRIC_ID.getEncodedId(), "name", 1, tags);
+    statsdMetricForwarder.flush();
+    verify(statsd).count("name", 1, tags);
+    // nothing recorded during the last interval
+    statsdMetricForwarder.flush();
+    verifyNoMoreInteractions(statsd);
+  }
+
+  @Test
+  void keepsCountsRecordedWhileFlushing() throws InterruptedException {
+    StatsDClient statsd = mock(StatsDClient.class);
+    LongAdder flushed = new LongAdder();
+    doAnswer(
+            invocation -> {
+              flushed.add(invocation.getArgument(1));
+              return null;
+            })
+        .when(statsd)
+        .count(eq("name"), anyLong(), eq("foo:bar"));
+    StatsdMetricForwarder statsdMetricForwarder =
+        new StatsdMetricForwarder(statsd, mock(ProbeStatusSink.class));
+    String[] tags = new String[] {"foo:bar"};
+    AtomicBoolean recording = new AtomicBoolean(true);
+    Thread flusher =
+        new Thread(
+            () -> {
+              while (recording.get()) {
+                statsdMetricForwarder.flush();
+              }
+            });
+    flusher.start();
+    int recorded = 0;
+    for (int i = 0; i < 1000; i++) {
+      for (int j = 0; j < 100; j++) {
+        statsdMetricForwarder.count(METRIC_ID.getEncodedId(), "name", 1, tags);
+        recorded++;
+      }
+      // let the flusher see the aggregate idle
+      Thread.yield();
+    }
+    recording.set(false);
+    flusher.join();
+    statsdMetricForwarder.flush();
+    assertEquals(recorded, flushed.sum());
+  }
+
+  @Test
+  void sendsLastGaugeValueOnFlush() {
+    StatsDClient statsd = mock(StatsDClient.class);
+    StatsdMetricForwarder statsdMetricForwarder =
+        new StatsdMetricForwarder(statsd, mock(ProbeStatusSink.class));
+    String[] tags = new String[] {"foo:bar"};
+    statsdMetricForwarder.gauge(METRIC_ID.getEncodedId(), "name", 1, tags);
+    statsdMetricForwarder.gauge(METRIC_ID.getEncodedId(), "name", 42, tags);
+    statsdMetricForwarder.flush();
+    verify(statsd).gauge("name", 42L, tags);
+    statsdMetricForwarder.flush();
+    verifyNoMoreInteractions(statsd);
+  }
+
+  @Test
+  void sendsHistogramAggregatesOnFlush() {
+    StatsDClient statsd = mock(StatsDClient.class);
+    StatsdMetricForwarder statsdMetricForwarder =
+        new StatsdMetricForwarder(statsd, mock(ProbeStatusSink.class));
+    String[] tags = new String[] {"foo:bar"};
+    for (int i = 1; i <= 100; i++) {
+      statsdMetricForwarder.histogram(METRIC_ID.getEncodedId(), "name", i, tags);
+    }
+    verifyNoInteractions(statsd);
+    statsdMetricForwarder.flush();
+    verify(statsd).count("name.count", 100, tags);
+    verify(statsd).gauge("name.avg", 50.5, tags);
+    verify(statsd).gauge(eq("name.median"), doubleThat(v -> Math.abs(v - 50) <= 1), eq("foo:bar"));
+    verify(statsd)
+        .gauge(eq("name.95percentile"), doubleThat(v -> Math.abs(v - 95) <= 1), eq("foo:bar"));
+    verify(statsd).gauge("name.max", 100.0, tags);
+    statsdMetricForwarder.flush();
+    verifyNoMoreInteractions(statsd);
+  }
+
+  @Test
+  void evictsRemovedProbeAfterFinalFlushes() {
+    StatsDClient statsd = mock(StatsDClient.class);
+    StatsdMetricForwarder statsdMetricForwarder =
+        new StatsdMetricForwarder(statsd, mock(ProbeStatusSink.class));
+    String[] tags = new String[] {"foo:bar"};
+    statsdMetricForwarder.histogram(METRIC_ID.getEncodedId(), "name", 1, tags);
+    statsdMetricForwarder.removeProbe(METRIC_ID.getEncodedId());
+    statsdMetricForwarder.flush();
+    verify(statsd).count("name.count", 1, tags);
+    // values recorded before the instrumentation is gone are still sent
+    statsdMetricForwarder.histogram(METRIC_ID.getEncodedId(), "name", 2, tags);
+    assertEquals(1, statsdMetricForwarder.probeMetrics.size());
+    statsdMetricForwarder.flush();
+    verify(statsd).gauge("name.max", 2.0, tags);
+    assertTrue(statsdMetricForwarder.probeMetrics.isEmpty());
+  }
+
+  @Test
+  void keepsAggregatesOfActiveProbes() {
+    StatsDClient statsd = mock(StatsDClient.class);
+    StatsdMetricForwarder statsdMetricForwarder =
+        new StatsdMetricForwarder(statsd, mock(ProbeStatusSink.class));
+    String[] tags = new String[] {"foo:bar"};
+    statsdMetricForwarder.count(METRIC_ID.getEncodedId(), "name", 1, tags);
+    statsdMetricForwarder.removeProbe(new ProbeId(METRIC_ID.getId(), 1).getEncodedId());
+    for (int i = 0; i < StatsdMetricForwarder.EVICTION_FLUSHES + 1; i++) {
+      statsdMetricForwarder.flush();
+    }
+    assertEquals(1, statsdMetricForwarder.probeMetrics.size());
+  }
+
+  @Test
+  void forwardsDistributionValues() {
+    StatsDClient statsd = mock(StatsDClient.class);
+    StatsdMetricForwarder statsdMetricForwarder =
+        new StatsdMetricForwarder(statsd, mock(ProbeStatusSink.class));
+    String[] tags = new String[] {"foo:bar"};
+    statsdMetricForwarder.distribution(METRIC_ID.getEncodedId(), "name", 1, tags);
+    statsdMetricForwarder.distribution(METRIC_ID.getEncodedId(), "name", 2.0, tags);
+    verify(statsd).distribution("name", 1L, tags);
+    verify(statsd).distribution("name", 2.0, tags);
+  }
 }
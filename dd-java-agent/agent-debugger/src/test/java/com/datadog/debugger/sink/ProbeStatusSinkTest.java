@@ -15,6 +15,7 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -133,6 +134,15 @@ class ProbeStatusSinkTest {
         probeStatusSink.getDiagnostics());
   }
 
+  @Test
+  void notifiesProbeRemovalListeners() {
+    List<String> removed = new ArrayList<>();
+    probeStatusSink.addProbeRemovalListener(removed::add);
+    probeStatusSink.addReceived(PROBE_ID);
+    probeStatusSink.removeDiagnostics(PROBE_ID);
+    assertEquals(Collections.singletonList(PROBE_ID.getEncodedId()), removed);
+  }
+
   @Test
   void addReceivedThenInstalledThenNewVersion() {
     probeStatusSink.addReceived(PROBE_ID);
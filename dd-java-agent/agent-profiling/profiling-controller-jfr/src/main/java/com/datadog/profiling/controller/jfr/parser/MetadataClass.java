@@ -0,0 +1,76 @@
+package com.datadog.profiling.controller.jfr.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** A type description from the chunk metadata */
+public final class MetadataClass {
+  /** A field description */
+  public static final class Field {
+    public final String name;
+    public final long typeId;
+    public final boolean constantPool;
+    public final int dimension;
+
+    Field(String name, long typeId, boolean constantPool, int dimension) {
+      this.name = name;
+      this.typeId = typeId;
+      this.constantPool = constantPool;
+      this.dimension = dimension;
+    }
+
+    @Override
+    public String toString() {
+      return "Field{"
+          + "name='"
+          + name
+          + '\''
+          + ", typeId="
+          + typeId
+          + ", constantPool="
+          + constantPool
+          + ", dimension="
+          + dimension
+          + '}';
+    }
+  }
+
+  public final long id;
+  public final String name;
+  public final String superType;
+  private final List<Field> fields = new ArrayList<>();
+
+  MetadataClass(long id, String name, String superType) {
+    this.id = id;
+    this.name = name;
+    this.superType = superType;
+  }
+
+  void addField(Field field) {
+    fields.add(field);
+  }
+
+  /**
+   * @return the type fields in the order they are written in the recording
+   */
+  public List<Field> getFields() {
+    return Collections.unmodifiableList(fields);
+  }
+
+  @Override
+  public String toString() {
+    return "MetadataClass{"
+        + "id="
+        + id
+        + ", name='"
+        + name
+        + '\''
+        + ", superType='"
+        + superType
+        + '\''
+        + ", fields="
+        + fields
+        + '}';
+  }
+}
@@ -20,6 +20,9 @@ public final class MetadataEvent {
   private final NonBlockingHashMapLong<String> eventTypeNameMapBacking =
       new NonBlockingHashMapLong<>(256);
   private final LongMapping<String> eventTypeMap;
+  private final NonBlockingHashMapLong<MetadataClass> classMapBacking =
+      new NonBlockingHashMapLong<>(512);
+  private final LongMapping<MetadataClass> classMap;
 
   MetadataEvent(RecordingStream stream) throws IOException {
     size = (int) stream.readVarint();
@@ -30,8 +33,9 @@ public final class MetadataEvent {
     startTime = stream.readVarint();
     duration = stream.readVarint();
     metadataId = stream.readVarint();
-    readElements(stream, readStringTable(stream));
+    readElements(stream, readStringTable(stream), null);
     eventTypeMap = eventTypeNameMapBacking::get;
+    classMap = classMapBacking::get;
   }
 
   /**
@@ -43,6 +47,15 @@ public final class MetadataEvent {
     return eventTypeMap;
   }
 
+  /**
+   * Return the mappings of type ids to the type descriptions, including the type fields
+   *
+   * @return mappings of type ids to type descriptions
+   */
+  public LongMapping<MetadataClass> getClassMap() {
+    return classMap;
+  }
+
   private String[] readStringTable(RecordingStream stream) throws IOException {
     int stringCnt = (int) stream.readVarint();
     String[] stringConstants = new String[stringCnt];
@@ -52,38 +65,59 @@ public final class MetadataEvent {
     return stringConstants;
   }
 
-  private void readElements(RecordingStream stream, String[] stringConstants) throws IOException {
+  private void readElements(
+      RecordingStream stream, String[] stringConstants, MetadataClass enclosingClass)
+      throws IOException {
     // get the element name
     int stringPtr = (int) stream.readVarint();
     boolean isClassElement = "class".equals(stringConstants[stringPtr]);
+    boolean isFieldElement = enclosingClass != null && "field".equals(stringConstants[stringPtr]);
 
     // process the attributes
     int attrCount = (int) stream.readVarint();
     String superType = null;
     String name = null;
     String id = null;
+    String type = null;
+    boolean constantPool = false;
+    int dimension = 0;
     for (int i = 0; i < attrCount; i++) {
       int keyPtr = (int) stream.readVarint();
       int valPtr = (int) stream.readVarint();
-      // ignore anything but 'class' elements
-      if (isClassElement) {
-        if ("superType".equals(stringConstants[keyPtr])) {
+      // ignore anything but 'class' and 'field' elements
+      if (isClassElement || isFieldElement) {
+        String key = stringConstants[keyPtr];
+        if ("superType".equals(key)) {
           superType = stringConstants[valPtr];
-        } else if ("name".equals(stringConstants[keyPtr])) {
+        } else if ("name".equals(key)) {
           name = stringConstants[valPtr];
-        } else if ("id".equals(stringConstants[keyPtr])) {
+        } else if ("id".equals(key)) {
           id = stringConstants[valPtr];
+        } else if ("class".equals(key)) {
+          type = stringConstants[valPtr];
+        } else if ("constantPool".equals(key)) {
+          constantPool = "true".equals(stringConstants[valPtr]);
+        } else if ("dimension".equals(key)) {
+          dimension = Integer.parseInt(stringConstants[valPtr]);
         }
       }
     }
-    // only event types are currently collected
-    if (name != null && id != null && "jdk.jfr.Event".equals(superType)) {
-      eventTypeNameMapBacking.put(Long.parseLong(id), name);
+    MetadataClass currentClass = null;
+    if (isClassElement && name != null && id != null) {
+      long typeId = Long.parseLong(id);
+      currentClass = new MetadataClass(typeId, name, superType);
+      classMapBacking.put(typeId, currentClass);
+      if ("jdk.jfr.Event".equals(superType)) {
+        eventTypeNameMapBacking.put(typeId, name);
+      }
+    } else if (isFieldElement && name != null && type != null) {
+      enclosingClass.addField(
+          new MetadataClass.Field(name, Long.parseLong(type), constantPool, dimension));
     }
     // now inspect all the enclosed elements
     int elemCount = (int) stream.readVarint();
     for (int i = 0; i < elemCount; i++) {
-      readElements(stream, stringConstants);
+      readElements(stream, stringConstants, currentClass);
     }
   }
 
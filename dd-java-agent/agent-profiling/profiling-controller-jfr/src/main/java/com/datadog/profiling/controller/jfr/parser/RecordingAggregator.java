@@ -0,0 +1,678 @@
+package com.datadog.profiling.controller.jfr.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pre-aggregates a JFR recording before it gets uploaded. <br>
+ * Within each chunk, the events of the selected types which differ only in their start time and
+ * their 'weight' (eg. allocation samples with the same thread, stack trace and object class) are
+ * folded into a single event carrying the sum of the weights and the start time of the first
+ * occurrence. All other events, the constant pools and the metadata are copied verbatim. <br>
+ * Any chunk which can not be aggregated safely (unexpected layout, uncompressed integers, parsing
+ * problems) is copied as it is.
+ */
+public final class RecordingAggregator {
+  private static final Logger log = LoggerFactory.getLogger(RecordingAggregator.class);
+
+  static final String START_TIME_FIELD = "startTime";
+  static final String WEIGHT_FIELD = "weight";
+
+  // magic (4 bytes) + major (2 bytes) + minor (2 bytes) + size (8 bytes)
+  private static final int CHUNK_HEADER_PREFIX_SIZE = 16;
+  private static final int CHUNK_HEADER_SIZE = 68;
+  private static final int CHUNK_SIZE_OFFSET = 8;
+  private static final int CHUNK_CP_OFFSET_OFFSET = 16;
+  private static final int CHUNK_META_OFFSET_OFFSET = 24;
+  private static final int CHUNK_FEATURES_OFFSET = 64;
+  private static final int COMPRESSED_INTS_FLAG = 1;
+
+  private static final long METADATA_TYPE_ID = 0;
+  private static final long CHECKPOINT_TYPE_ID = 1;
+
+  // the maximum nesting of inlined structures
+  private static final int MAX_FIELD_DEPTH = 16;
+
+  private static final EventLayout NOT_AGGREGATED = new EventLayout(null, null);
+
+  private final Set<String> eventTypes;
+
+  /**
+   * @param eventTypes the names of the event types to aggregate; only event types having a
+   *     primitive {@code weight} field can be aggregated
+   */
+  public RecordingAggregator(Set<String> eventTypes) {
+    this.eventTypes = eventTypes;
+  }
+
+  /**
+   * Aggregate the recording from the input stream, writing the result to the output stream
+   *
+   * @param inputStream the JFR recording
+   * @param outputStream the aggregated recording sink; it is not closed by this method
+   * @throws IOException if reading or writing the data fails
+   */
+  public void aggregate(InputStream inputStream, OutputStream outputStream) throws IOException {
+    byte[] prefix = new byte[CHUNK_HEADER_PREFIX_SIZE];
+    while (true) {
+      int read = readFully(inputStream, prefix, 0, prefix.length);
+      if (read == 0) {
+        return;
+      }
+      long size =
+          read == prefix.length && hasMagic(prefix) ? getLong(prefix, CHUNK_SIZE_OFFSET) : 0;
+      if (size < CHUNK_HEADER_SIZE || size > Integer.MAX_VALUE) {
+        // not something we can process; just pass the rest of the data through
+        outputStream.write(prefix, 0, read);
+        copy(inputStream, outputStream);
+        return;
+      }
+      byte[] chunk = new byte[(int) size];
+      System.arraycopy(prefix, 0, chunk, 0, prefix.length);
+      int remaining = chunk.length - prefix.length;
+      if (readFully(inputStream, chunk, prefix.length, remaining) < remaining) {
+        throw new IOException("Truncated chunk, expected " + size + " bytes");
+      }
+      byte[] aggregated = null;
+      try {
+        aggregated = aggregateChunk(chunk);
+      } catch (IOException | RuntimeException e) {
+        log.debug("Unable to aggregate the recording chunk. Keeping it unchanged.", e);
+      }
+      outputStream.write(aggregated != null ? aggregated : chunk);
+    }
+  }
+
+  /**
+   * @param chunk the chunk data
+   * @return the aggregated chunk data or {@literal null} if the chunk should be kept as is
+   */
+  private byte[] aggregateChunk(byte[] chunk) throws IOException {
+    if ((getInt(chunk, CHUNK_FEATURES_OFFSET) & COMPRESSED_INTS_FLAG) == 0) {
+      return null;
+    }
+    int metaOffset = (int) getLong(chunk, CHUNK_META_OFFSET_OFFSET);
+    int cpOffset = (int) getLong(chunk, CHUNK_CP_OFFSET_OFFSET);
+    MetadataEvent metadata =
+        new MetadataEvent(
+            new RecordingStream(
+                new ByteArrayInputStream(chunk, metaOffset, chunk.length - metaOffset)));
+    LongMapping<MetadataClass> classes = metadata.getClassMap();
+
+    Cursor cursor = new Cursor(chunk);
+    Map<Long, EventLayout> layouts = new HashMap<>();
+    Map<EventKey, Aggregate> aggregates = new HashMap<>();
+    List<Object> records = new ArrayList<>();
+    int folded = 0;
+    int position = CHUNK_HEADER_SIZE;
+    while (position < chunk.length) {
+      cursor.position = position;
+      long size = cursor.readVarint();
+      if (size <= 0 || position + size > chunk.length) {
+        throw new IOException("Invalid event size " + size + " at offset " + position);
+      }
+      int end = position + (int) size;
+      long typeId = cursor.readVarint();
+      EventLayout layout = NOT_AGGREGATED;
+      if (typeId > CHECKPOINT_TYPE_ID) {
+        layout = layouts.get(typeId);
+        if (layout == null) {
+          layout = resolveLayout(classes.getType(typeId));
+          layouts.put(typeId, layout);
+        }
+      }
+      if (layout == NOT_AGGREGATED) {
+        records.add(new Record(position, end, typeId));
+      } else {
+        Aggregate event = readEvent(cursor, classes, layout, typeId, end);
+        Aggregate aggregate = aggregates.putIfAbsent(event.key, event);
+        if (aggregate == null) {
+          records.add(event);
+        } else {
+          aggregate.add(event);
+          folded++;
+        }
+      }
+      position = end;
+    }
+    if (folded == 0) {
+      return null;
+    }
+    byte[] aggregated = writeChunk(chunk, records, cpOffset, metaOffset);
+    log.debug(
+        "Folded {} events; chunk size reduced from {} to {} bytes",
+        folded,
+        chunk.length,
+        aggregated.length);
+    return aggregated.length < chunk.length ? aggregated : null;
+  }
+
+  private EventLayout resolveLayout(MetadataClass type) {
+    if (type == null || !eventTypes.contains(type.name)) {
+      return NOT_AGGREGATED;
+    }
+    List<MetadataClass.Field> fields = type.getFields();
+    if (fields.isEmpty() || !START_TIME_FIELD.equals(fields.get(0).name)) {
+      return NOT_AGGREGATED;
+    }
+    for (MetadataClass.Field field : fields) {
+      if (WEIGHT_FIELD.equals(field.name)) {
+        return field.dimension == 0 && !field.constantPool
+            ? new EventLayout(type, field)
+            : NOT_AGGREGATED;
+      }
+    }
+    return NOT_AGGREGATED;
+  }
+
+  private static Aggregate readEvent(
+      Cursor cursor, LongMapping<MetadataClass> classes, EventLayout layout, long typeId, int end)
+      throws IOException {
+    int payloadStart = cursor.position;
+    int keyStart = -1;
+    int weightStart = -1;
+    int weightEnd = -1;
+    WeightType weightType = null;
+    long longWeight = 0;
+    double doubleWeight = 0;
+    for (MetadataClass.Field field : layout.type.getFields()) {
+      if (field == layout.weight) {
+        weightStart = cursor.position;
+        weightType = WeightType.of(classes.getType(field.typeId));
+        if (weightType == WeightType.INTEGRAL) {
+          longWeight = cursor.readVarint();
+        } else {
+          doubleWeight = weightType.read(cursor);
+        }
+        weightEnd = cursor.position;
+      } else {
+        skipField(cursor, classes, field, 0);
+      }
+      if (keyStart == -1) {
+        // the start time is the first field and is excluded from the key
+        keyStart = cursor.position;
+      }
+    }
+    if (cursor.position != end || weightType == null) {
+      throw new IOException("Unexpected layout of the event type " + layout.type.name);
+    }
+    return new Aggregate(
+        new EventKey(typeId, cursor.data, keyStart, weightStart, weightEnd, end),
+        payloadStart,
+        weightType,
+        longWeight,
+        doubleWeight);
+  }
+
+  private static void skipField(
+      Cursor cursor, LongMapping<MetadataClass> classes, MetadataClass.Field field, int depth)
+      throws IOException {
+    if (field.dimension > 0) {
+      long count = cursor.readVarint();
+      for (long i = 0; i < count; i++) {
+        skipValue(cursor, classes, field, depth);
+      }
+    } else {
+      skipValue(cursor, classes, field, depth);
+    }
+  }
+
+  private static void skipValue(
+      Cursor cursor, LongMapping<MetadataClass> classes, MetadataClass.Field field, int depth)
+      throws IOException {
+    if (field.constantPool) {
+      cursor.readVarint();
+      return;
+    }
+    MetadataClass type = classes.getType(field.typeId);
+    if (type == null) {
+      throw new IOException("Unknown type id " + field.typeId);
+    }
+    switch (type.name) {
+      case "boolean":
+      case "byte":
+        cursor.position += 1;
+        break;
+      case "short":
+      case "char":
+      case "int":
+      case "long":
+        cursor.readVarint();
+        break;
+      case "float":
+        cursor.position += 4;
+        break;
+      case "double":
+        cursor.position += 8;
+        break;
+      case "java.lang.String":
+        cursor.skipString();
+        break;
+      default:
+        if (depth >= MAX_FIELD_DEPTH) {
+          throw new IOException("Too deeply nested type " + type.name);
+        }
+        for (MetadataClass.Field nested : type.getFields()) {
+          skipField(cursor, classes, nested, depth + 1);
+        }
+    }
+  }
+
+  private static byte[] writeChunk(byte[] chunk, List<Object> records, int cpOffset, int metaOffset)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(chunk.length);
+    out.write(chunk, 0, CHUNK_HEADER_SIZE);
+    // maps the original checkpoint/metadata offsets to the new ones
+    Map<Integer, Integer> offsets = new HashMap<>();
+    VarintWriter body = new VarintWriter(256);
+    for (Object item : records) {
+      if (item instanceof Aggregate) {
+        Aggregate aggregate = (Aggregate) item;
+        EventKey key = aggregate.key;
+        body.reset();
+        body.writeVarint(key.typeId);
+        body.write(chunk, aggregate.payloadStart, key.weightStart - aggregate.payloadStart);
+        if (aggregate.weightType == WeightType.INTEGRAL) {
+          body.writeVarint(aggregate.longWeight);
+        } else {
+          aggregate.weightType.write(body, aggregate.doubleWeight);
+        }
+        body.write(chunk, key.weightEnd, key.end - key.weightEnd);
+        writeEvent(out, body);
+        continue;
+      }
+      Record record = (Record) item;
+      if (record.typeId == CHECKPOINT_TYPE_ID) {
+        Cursor cursor = new Cursor(chunk);
+        cursor.position = record.start;
+        cursor.readVarint(); // size
+        cursor.readVarint(); // type id
+        long startTime = cursor.readVarint();
+        long duration = cursor.readVarint();
+        long delta = cursor.readVarint();
+        if (delta != 0) {
+          Integer previous = offsets.get(record.start + (int) delta);
+          if (previous == null) {
+            throw new IOException("Unresolvable checkpoint delta at offset " + record.start);
+          }
+          delta = previous - out.size();
+        }
+        offsets.put(record.start, out.size());
+        body.reset();
+        body.writeVarint(CHECKPOINT_TYPE_ID);
+        body.writeVarint(startTime);
+        body.writeVarint(duration);
+        body.writeVarint(delta);
+        body.write(chunk, cursor.position, record.end - cursor.position);
+        writeEvent(out, body);
+      } else {
+        if (record.typeId == METADATA_TYPE_ID) {
+          offsets.put(record.start, out.size());
+        }
+        out.write(chunk, record.start, record.end - record.start);
+      }
+    }
+    Integer newCpOffset = offsets.get(cpOffset);
+    Integer newMetaOffset = offsets.get(metaOffset);
+    if (newCpOffset == null || newMetaOffset == null) {
+      throw new IOException("Unresolvable constant pool or metadata offset");
+    }
+    byte[] aggregated = out.toByteArray();
+    putLong(aggregated, CHUNK_SIZE_OFFSET, aggregated.length);
+    putLong(aggregated, CHUNK_CP_OFFSET_OFFSET, newCpOffset);
+    putLong(aggregated, CHUNK_META_OFFSET_OFFSET, newMetaOffset);
+    return aggregated;
+  }
+
+  private static void writeEvent(ByteArrayOutputStream out, VarintWriter body) throws IOException {
+    // the event size includes the size of the encoded size itself
+    long size = body.size() + 1;
+    while (body.size() + VarintWriter.varintSize(size) != size) {
+      size = body.size() + VarintWriter.varintSize(size);
+    }
+    VarintWriter.writeVarint(out, size);
+    body.writeTo(out);
+  }
+
+  private static boolean hasMagic(byte[] header) {
+    for (int i = 0; i < ChunkHeader.MAGIC.length; i++) {
+      if (header[i] != ChunkHeader.MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int getInt(byte[] data, int offset) {
+    int value = 0;
+    for (int i = offset; i < offset + 4; i++) {
+      value = (value << 8) | (data[i] & 0xff);
+    }
+    return value;
+  }
+
+  private static long getLong(byte[] data, int offset) {
+    long value = 0;
+    for (int i = offset; i < offset + 8; i++) {
+      value = (value << 8) | (data[i] & 0xff);
+    }
+    return value;
+  }
+
+  private static void putLong(byte[] data, int offset, long value) {
+    for (int i = offset + 7; i >= offset; i--) {
+      data[i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+  private static int readFully(InputStream inputStream, byte[] buffer, int offset, int length)
+      throws IOException {
+    int total = 0;
+    while (total < length) {
+      int read = inputStream.read(buffer, offset + total, length - total);
+      if (read < 0) {
+        break;
+      }
+      total += read;
+    }
+    return total;
+  }
+
+  private static void copy(InputStream inputStream, OutputStream outputStream) throws IOException {
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = inputStream.read(buffer)) > 0) {
+      outputStream.write(buffer, 0, read);
+    }
+  }
+
+  /** A simple cursor over the chunk data */
+  private static final class Cursor {
+    final byte[] data;
+    int position;
+
+    Cursor(byte[] data) {
+      this.data = data;
+    }
+
+    long readVarint() {
+      long value = 0;
+      for (int i = 0; i < 8; i++) {
+        int b = data[position++] & 0xff;
+        value |= (long) (b & 0x7f) << (7 * i);
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      // the 9th byte carries full 8 bits
+      return value | (long) (data[position++] & 0xff) << 56;
+    }
+
+    int readInt() {
+      int value = getInt(data, position);
+      position += 4;
+      return value;
+    }
+
+    long readLong() {
+      long value = getLong(data, position);
+      position += 8;
+      return value;
+    }
+
+    void skipString() throws IOException {
+      byte encoding = data[position++];
+      switch (encoding) {
+        case 0: // null
+        case 1: // empty string
+          break;
+        case 2: // constant pool reference
+          readVarint();
+          break;
+        case 3: // UTF-8 bytes
+        case 5: // Latin-1 bytes
+          position += (int) readVarint();
+          break;
+        case 4: // char array
+          {
+            long length = readVarint();
+            for (long i = 0; i < length; i++) {
+              readVarint();
+            }
+            break;
+          }
+        default:
+          throw new IOException("Unexpected string encoding: " + encoding);
+      }
+    }
+  }
+
+  /** A growable byte buffer supporting the JFR compressed integer encoding */
+  private static final class VarintWriter extends ByteArrayOutputStream {
+    VarintWriter(int size) {
+      super(size);
+    }
+
+    void writeVarint(long value) {
+      writeVarint(this, value);
+    }
+
+    void writeInt(int value) {
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        write((value >>> shift) & 0xff);
+      }
+    }
+
+    void writeLong(long value) {
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        write((int) (value >>> shift) & 0xff);
+      }
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+      for (int i = 0; i < 8; i++) {
+        if ((value & ~0x7FL) == 0) {
+          out.write((int) value);
+          return;
+        }
+        out.write((int) (value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      // the 9th byte carries full 8 bits
+      out.write((int) value & 0xff);
+    }
+
+    static int varintSize(long value) {
+      for (int i = 1; i < 9; i++) {
+        if ((value & (-1L << (7 * i))) == 0) {
+          return i;
+        }
+      }
+      return 9;
+    }
+  }
+
+  /** The supported types of the 'weight' field */
+  private enum WeightType {
+    /** Compressed integer value; read and written directly as a {@literal long} */
+    INTEGRAL {
+      @Override
+      double read(Cursor cursor) {
+        return cursor.readVarint();
+      }
+
+      @Override
+      void write(VarintWriter writer, double value) {
+        writer.writeVarint((long) value);
+      }
+    },
+    FLOAT {
+      @Override
+      double read(Cursor cursor) {
+        return Float.intBitsToFloat(cursor.readInt());
+      }
+
+      @Override
+      void write(VarintWriter writer, double value) {
+        writer.writeInt(Float.floatToIntBits((float) value));
+      }
+    },
+    DOUBLE {
+      @Override
+      double read(Cursor cursor) {
+        return Double.longBitsToDouble(cursor.readLong());
+      }
+
+      @Override
+      void write(VarintWriter writer, double value) {
+        writer.writeLong(Double.doubleToLongBits(value));
+      }
+    };
+
+    abstract double read(Cursor cursor);
+
+    abstract void write(VarintWriter writer, double value);
+
+    static WeightType of(MetadataClass type) throws IOException {
+      if (type != null) {
+        switch (type.name) {
+          case "short":
+          case "int":
+          case "long":
+            return INTEGRAL;
+          case "float":
+            return FLOAT;
+          case "double":
+            return DOUBLE;
+          default:
+        }
+      }
+      throw new IOException("Unsupported weight type " + (type != null ? type.name : null));
+    }
+  }
+
+  /** The resolved layout of an aggregated event type */
+  private static final class EventLayout {
+    final MetadataClass type;
+    final MetadataClass.Field weight;
+
+    EventLayout(MetadataClass type, MetadataClass.Field weight) {
+      this.type = type;
+      this.weight = weight;
+    }
+  }
+
+  /** An event which is copied verbatim */
+  private static final class Record {
+    final int start;
+    final int end;
+    final long typeId;
+
+    Record(int start, int end, long typeId) {
+      this.start = start;
+      this.end = end;
+      this.typeId = typeId;
+    }
+  }
+
+  /** An event folding all the events with the same key */
+  private static final class Aggregate {
+    final EventKey key;
+    final int payloadStart;
+    final WeightType weightType;
+    long longWeight;
+    double doubleWeight;
+
+    Aggregate(
+        EventKey key,
+        int payloadStart,
+        WeightType weightType,
+        long longWeight,
+        double doubleWeight) {
+      this.key = key;
+      this.payloadStart = payloadStart;
+      this.weightType = weightType;
+      this.longWeight = longWeight;
+      this.doubleWeight = doubleWeight;
+    }
+
+    void add(Aggregate other) {
+      longWeight += other.longWeight;
+      doubleWeight += other.doubleWeight;
+    }
+  }
+
+  /**
+   * Identifies the events which can be folded together - all the event data except of the start
+   * time and the weight must be the same
+   */
+  private static final class EventKey {
+    final long typeId;
+    final byte[] data;
+    final int keyStart;
+    final int weightStart;
+    final int weightEnd;
+    final int end;
+    final int hash;
+
+    EventKey(long typeId, byte[] data, int keyStart, int weightStart, int weightEnd, int end) {
+      this.typeId = typeId;
+      this.data = data;
+      this.keyStart = keyStart;
+      this.weightStart = weightStart;
+      this.weightEnd = weightEnd;
+      this.end = end;
+      int h = Long.hashCode(typeId);
+      for (int i = keyStart; i < weightStart; i++) {
+        h = 31 * h + data[i];
+      }
+      for (int i = weightEnd; i < end; i++) {
+        h = 31 * h + data[i];
+      }
+      this.hash = h;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof EventKey)) {
+        return false;
+      }
+      EventKey other = (EventKey) o;
+      return hash == other.hash
+          && typeId == other.typeId
+          && rangeEquals(data, keyStart, weightStart, other.data, other.keyStart, other.weightStart)
+          && rangeEquals(data, weightEnd, end, other.data, other.weightEnd, other.end);
+    }
+
+    private static boolean rangeEquals(byte[] a, int aFrom, int aTo, byte[] b, int bFrom, int bTo) {
+      if (aTo - aFrom != bTo - bFrom) {
+        return false;
+      }
+      for (int i = 0; i < aTo - aFrom; i++) {
+        if (a[aFrom + i] != b[bFrom + i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
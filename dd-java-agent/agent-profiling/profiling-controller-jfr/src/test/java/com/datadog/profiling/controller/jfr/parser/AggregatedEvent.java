@@ -0,0 +1,22 @@
+package com.datadog.profiling.controller.jfr.parser;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Label("Aggregated Event")
+@Name("datadog.AggregatedEvent")
+@Category({"datadog", "test"})
+public class AggregatedEvent extends Event {
+  @Label("tag")
+  private final String tag;
+
+  @Label("weight")
+  private final long weight;
+
+  public AggregatedEvent(String tag, long weight) {
+    this.tag = tag;
+    this.weight = weight;
+  }
+}
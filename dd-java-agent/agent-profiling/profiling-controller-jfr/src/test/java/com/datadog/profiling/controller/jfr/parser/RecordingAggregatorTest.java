@@ -0,0 +1,132 @@
+package com.datadog.profiling.controller.jfr.parser;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RecordingAggregatorTest {
+  private static final String EVENT_NAME = "datadog.AggregatedEvent";
+
+  private Path tempDir;
+
+  @BeforeEach
+  void setup() throws IOException {
+    tempDir = Files.createTempDirectory("dd-aggregator-test");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (Stream<Path> files = Files.list(tempDir)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(tempDir);
+  }
+
+  @Test
+  void testFoldsEvents() throws Exception {
+    byte[] recording = record(3, 100);
+    byte[] aggregated = aggregate(recording, Collections.singleton(EVENT_NAME));
+
+    assertTrue(aggregated.length < recording.length);
+    List<RecordedEvent> rawEvents = readEvents(recording);
+    List<RecordedEvent> aggregatedEvents = readEvents(aggregated);
+    assertEquals(300, countEvents(rawEvents));
+    assertEquals(3, countEvents(aggregatedEvents));
+    assertEquals(sumWeights(rawEvents), sumWeights(aggregatedEvents));
+  }
+
+  @Test
+  void testMultipleChunks() throws Exception {
+    byte[] recording = record(2, 50);
+    ByteArrayOutputStream twoChunks = new ByteArrayOutputStream();
+    twoChunks.write(recording);
+    twoChunks.write(recording);
+    byte[] aggregated = aggregate(twoChunks.toByteArray(), Collections.singleton(EVENT_NAME));
+
+    List<RecordedEvent> aggregatedEvents = readEvents(aggregated);
+    // the events are aggregated only within a chunk
+    assertEquals(4, countEvents(aggregatedEvents));
+    Map<String, Long> expected = sumWeights(readEvents(recording));
+    expected.replaceAll((k, v) -> 2 * v);
+    assertEquals(expected, sumWeights(aggregatedEvents));
+  }
+
+  @Test
+  void testOtherEventTypesUntouched() throws Exception {
+    byte[] recording = record(3, 100);
+    byte[] aggregated = aggregate(recording, Collections.singleton("datadog.UnknownEvent"));
+
+    assertArrayEquals(recording, aggregated);
+  }
+
+  @Test
+  void testNotJfrData() throws Exception {
+    byte[] data = new byte[100];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+    assertArrayEquals(data, aggregate(data, Collections.singleton(EVENT_NAME)));
+  }
+
+  private byte[] record(int tags, int eventsPerTag) throws IOException {
+    Path file = tempDir.resolve("recording.jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(EVENT_NAME).withoutStackTrace();
+      recording.start();
+      for (int i = 0; i < eventsPerTag; i++) {
+        for (int t = 0; t < tags; t++) {
+          new AggregatedEvent("tag-" + t, i + 1).commit();
+        }
+      }
+      recording.stop();
+      recording.dump(file);
+    }
+    return Files.readAllBytes(file);
+  }
+
+  private static byte[] aggregate(byte[] recording, Set<String> eventTypes) throws IOException {
+    ByteArrayOutputStream aggregated = new ByteArrayOutputStream();
+    new RecordingAggregator(eventTypes).aggregate(new ByteArrayInputStream(recording), aggregated);
+    return aggregated.toByteArray();
+  }
+
+  private List<RecordedEvent> readEvents(byte[] recording) throws IOException {
+    Path file = Files.createTempFile(tempDir, "events", ".jfr");
+    Files.write(file, recording);
+    return RecordingFile.readAllEvents(file);
+  }
+
+  private static long countEvents(List<RecordedEvent> events) {
+    return events.stream().filter(e -> EVENT_NAME.equals(e.getEventType().getName())).count();
+  }
+
+  private static Map<String, Long> sumWeights(List<RecordedEvent> events) {
+    Map<String, Long> weights = new HashMap<>();
+    for (RecordedEvent event : events) {
+      if (EVENT_NAME.equals(event.getEventType().getName())) {
+        weights.merge(event.getString("tag"), event.getLong("weight"), Long::sum);
+      }
+    }
+    return weights;
+  }
+}
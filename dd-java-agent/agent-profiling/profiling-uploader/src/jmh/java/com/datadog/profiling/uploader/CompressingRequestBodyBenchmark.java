@@ -0,0 +1,117 @@
+package com.datadog.profiling.uploader;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import datadog.trace.api.profiling.RecordingInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import okio.BufferedSink;
+import okio.Okio;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the compression types and the chunked parallel compression on a multi-chunk recording.
+ * The compression ratio can be derived from the {@code readBytes} and {@code writtenBytes}
+ * counters. With {@code parallelism=1} the reported time is also the CPU time spent compressing;
+ * run with {@code -prof perfnorm} or {@code -prof stack} to see the CPU split for the parallel
+ * mode.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MILLISECONDS)
+@Fork(value = 1)
+public class CompressingRequestBodyBenchmark {
+  private static final String RECORDING =
+      System.getProperty("user.dir") + "/src/test/resources/test-recording.jfr";
+
+  @Param({"lz4", "gzip", "zstd"})
+  String compression;
+
+  @Param({"1", "4"})
+  int parallelism;
+
+  // number of chunks in the benchmarked recording
+  @Param({"16"})
+  int chunks;
+
+  private CompressionType compressionType;
+  private byte[] recording;
+  private ExecutorService executor;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class CompressionCounters {
+    long readBytes;
+    long writtenBytes;
+
+    public long readBytes() {
+      return readBytes;
+    }
+
+    public long writtenBytes() {
+      return writtenBytes;
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      readBytes = 0;
+      writtenBytes = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    byte[] chunk = Files.readAllBytes(Paths.get(RECORDING));
+    ByteArrayOutputStream data = new ByteArrayOutputStream(chunk.length * chunks);
+    for (int i = 0; i < chunks; i++) {
+      data.write(chunk);
+    }
+    recording = data.toByteArray();
+    compressionType = CompressionType.of(compression);
+    executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Benchmark
+  public long compress(CompressionCounters counters) throws IOException {
+    CompressingRequestBody body =
+        new CompressingRequestBody(
+            compressionType,
+            () -> new RecordingInputStream(new ByteArrayInputStream(recording)),
+            executor,
+            parallelism);
+    try (BufferedSink sink = Okio.buffer(Okio.blackhole())) {
+      body.writeTo(sink);
+    }
+    counters.readBytes += body.getReadBytes();
+    counters.writtenBytes += body.getWrittenBytes();
+    return body.getWrittenBytes();
+  }
+}
@@ -0,0 +1,179 @@
+package com.datadog.profiling.uploader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import javax.annotation.Nonnull;
+
+/**
+ * Compresses a recording by splitting it into segments at JFR chunk boundaries and compressing up
+ * to {@code parallelism} segments concurrently.
+ *
+ * <p>Each segment is compressed into a self-contained frame (gzip member, LZ4 frame or zstd frame)
+ * and the frames are written out in the original order. All the supported formats allow
+ * concatenated frames, so the result decompresses to the original recording. Chunks larger than
+ * {@linkplain #MAX_SEGMENT_SIZE} are further split into several segments, which also allows a
+ * single-chunk recording to be compressed in parallel.
+ */
+final class ChunkedCompressor {
+  static final int MAX_SEGMENT_SIZE = 2 * 1024 * 1024;
+
+  // https://github.com/openjdk/jdk/blob/master/src/jdk.jfr/share/classes/jdk/jfr/internal/consumer/ChunkHeader.java
+  private static final byte[] JFR_MAGIC = new byte[] {'F', 'L', 'R', '\0'};
+  // magic (4 bytes) + major (2 bytes) + minor (2 bytes) + chunk size (8 bytes)
+  private static final int JFR_HEADER_PREFIX_SIZE = 16;
+  private static final int JFR_CHUNK_SIZE_OFFSET = 8;
+
+  private final CompressingRequestBody.OutputStreamMappingFunction outputStreamMapper;
+  private final Executor executor;
+  private final int parallelism;
+
+  ChunkedCompressor(
+      @Nonnull CompressingRequestBody.OutputStreamMappingFunction outputStreamMapper,
+      @Nonnull Executor executor,
+      int parallelism) {
+    this.outputStreamMapper = outputStreamMapper;
+    this.executor = executor;
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  /**
+   * Compress all the data from the input stream into the output stream
+   *
+   * @param inputStream the uncompressed data; must support {@linkplain InputStream#mark(int)}
+   * @param outputStream the compressed data sink; it is not closed by this method
+   * @throws IOException if reading, compressing or writing the data fails
+   */
+  void compress(@Nonnull InputStream inputStream, @Nonnull OutputStream outputStream)
+      throws IOException {
+    SegmentReader reader = new SegmentReader(inputStream);
+    Deque<Future<byte[]>> inFlight = new ArrayDeque<>(parallelism);
+    try {
+      byte[] segment;
+      while ((segment = reader.next()) != null) {
+        if (inFlight.size() >= parallelism) {
+          outputStream.write(await(inFlight.poll()));
+        }
+        inFlight.add(submit(segment));
+      }
+      while (!inFlight.isEmpty()) {
+        outputStream.write(await(inFlight.poll()));
+      }
+    } finally {
+      for (Future<byte[]> pending : inFlight) {
+        pending.cancel(true);
+      }
+    }
+  }
+
+  private Future<byte[]> submit(byte[] segment) {
+    FutureTask<byte[]> task = new FutureTask<>(() -> compressSegment(segment));
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      // the executor is saturated or shut down - just compress on the calling thread
+      task.run();
+    }
+    return task;
+  }
+
+  private byte[] compressSegment(byte[] segment) throws IOException {
+    // the compressed data is usually several times smaller than the input
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(segment.length / 4);
+    try (OutputStream os = outputStreamMapper.apply(compressed)) {
+      os.write(segment);
+    }
+    return compressed.toByteArray();
+  }
+
+  private static byte[] await(Future<byte[]> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while compressing recording");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    }
+  }
+
+  /** Reads the input stream in segments not spanning JFR chunk boundaries */
+  static final class SegmentReader {
+    private final InputStream inputStream;
+    private final byte[] header = new byte[JFR_HEADER_PREFIX_SIZE];
+    // remaining bytes of the current JFR chunk; -1 if the input is not (or no longer) chunked JFR
+    private long remainingInChunk = 0;
+
+    SegmentReader(InputStream inputStream) {
+      this.inputStream = inputStream;
+    }
+
+    /**
+     * @return the next segment or {@literal null} if the input stream is exhausted
+     * @throws IOException if reading the input stream fails
+     */
+    byte[] next() throws IOException {
+      if (remainingInChunk == 0) {
+        remainingInChunk = peekChunkSize();
+      }
+      int length =
+          remainingInChunk > 0
+              ? (int) Math.min(remainingInChunk, MAX_SEGMENT_SIZE)
+              : MAX_SEGMENT_SIZE;
+      byte[] segment = new byte[length];
+      int read = readFully(segment);
+      if (read == 0) {
+        return null;
+      }
+      if (remainingInChunk > 0) {
+        remainingInChunk -= read;
+      }
+      return read == length ? segment : Arrays.copyOf(segment, read);
+    }
+
+    private long peekChunkSize() throws IOException {
+      inputStream.mark(JFR_HEADER_PREFIX_SIZE);
+      try {
+        if (readFully(header) < JFR_HEADER_PREFIX_SIZE) {
+          return -1;
+        }
+      } finally {
+        inputStream.reset();
+      }
+      for (int i = 0; i < JFR_MAGIC.length; i++) {
+        if (header[i] != JFR_MAGIC[i]) {
+          return -1;
+        }
+      }
+      long size = 0;
+      for (int i = JFR_CHUNK_SIZE_OFFSET; i < JFR_CHUNK_SIZE_OFFSET + 8; i++) {
+        size = (size << 8) | (header[i] & 0xff);
+      }
+      // a chunk which is still being written has size 0 - treat the rest of the data as one chunk
+      return size > 0 ? size : -1;
+    }
+
+    private int readFully(byte[] buffer) throws IOException {
+      int offset = 0;
+      while (offset < buffer.length) {
+        int read = inputStream.read(buffer, offset, buffer.length - offset);
+        if (read < 0) {
+          break;
+        }
+        offset += read;
+      }
+      return offset;
+    }
+  }
+}
@@ -2,10 +2,12 @@ package com.datadog.profiling.uploader;
 
 import datadog.trace.api.Platform;
 import datadog.trace.api.profiling.RecordingInputStream;
+import io.airlift.compress.zstd.ZstdOutputStream;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.Executor;
 import java.util.zip.GZIPOutputStream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -86,9 +88,12 @@ final class CompressingRequestBody extends RequestBody {
   private static final int[] LZ4_MAGIC = new int[] {0x04, 0x22, 0x4D, 0x18};
   private static final int ZIP_MAGIC[] = new int[] {80, 75, 3, 4};
   private static final int GZ_MAGIC[] = new int[] {31, 139};
+  // https://github.com/facebook/zstd/blob/dev/doc/zstd_compression_format.md#zstandard-frames
+  private static final int[] ZSTD_MAGIC = new int[] {0x28, 0xB5, 0x2F, 0xFD};
 
   private final InputStreamSupplier inputStreamSupplier;
   private final OutputStreamMappingFunction outputStreamMapper;
+  @Nullable private final ChunkedCompressor chunkedCompressor;
   private final RetryPolicy retryPolicy;
   private final RetryBackoff retryBackoff;
 
@@ -106,6 +111,30 @@ final class CompressingRequestBody extends RequestBody {
     this(compressionType, inputStreamSupplier, r -> r <= 1, r -> 10);
   }
 
+  /**
+   * Create a new instance configured with 1 retry and constant 10ms backoff delay, compressing the
+   * data in JFR chunk sized segments concurrently on the provided executor.
+   *
+   * @param compressionType {@linkplain CompressionType} value
+   * @param inputStreamSupplier supplier of the data input stream
+   * @param compressionExecutor executor to compress the segments on; {@literal null} to compress
+   *     the data on the writing thread
+   * @param compressionParallelism maximum number of segments being compressed concurrently
+   */
+  CompressingRequestBody(
+      @Nonnull CompressionType compressionType,
+      @Nonnull InputStreamSupplier inputStreamSupplier,
+      @Nullable Executor compressionExecutor,
+      int compressionParallelism) {
+    this(
+        compressionType,
+        inputStreamSupplier,
+        r -> r <= 1,
+        r -> 10,
+        compressionExecutor,
+        compressionParallelism);
+  }
+
   /**
    * Create a new instance configured with constant 10ms backoff delay.
    *
@@ -133,8 +162,35 @@ final class CompressingRequestBody extends RequestBody {
       @Nonnull InputStreamSupplier inputStreamSupplier,
       @Nonnull RetryPolicy retryPolicy,
       @Nonnull RetryBackoff retryBackoff) {
+    this(compressionType, inputStreamSupplier, retryPolicy, retryBackoff, null, 1);
+  }
+
+  /**
+   * Create a new instance.
+   *
+   * @param compressionType {@linkplain CompressionType} value
+   * @param inputStreamSupplier supplier of the data input stream
+   * @param retryPolicy {@linkplain RetryPolicy} instance
+   * @param retryBackoff {@linkplain RetryBackoff} instance
+   * @param compressionExecutor executor to compress the segments on; {@literal null} to compress
+   *     the data on the writing thread
+   * @param compressionParallelism maximum number of segments being compressed concurrently
+   */
+  CompressingRequestBody(
+      @Nonnull CompressionType compressionType,
+      @Nonnull InputStreamSupplier inputStreamSupplier,
+      @Nonnull RetryPolicy retryPolicy,
+      @Nonnull RetryBackoff retryBackoff,
+      @Nullable Executor compressionExecutor,
+      int compressionParallelism) {
     this.inputStreamSupplier = inputStreamSupplier;
     this.outputStreamMapper = getOutputStreamMapper(compressionType);
+    this.chunkedCompressor =
+        compressionExecutor != null
+                && compressionParallelism > 1
+                && compressionType != CompressionType.OFF
+            ? new ChunkedCompressor(outputStreamMapper, compressionExecutor, compressionParallelism)
+            : null;
     this.retryPolicy = retryPolicy;
     this.retryBackoff = retryBackoff;
   }
@@ -227,6 +283,20 @@ final class CompressingRequestBody extends RequestBody {
 
   private void attemptWrite(@Nonnull InputStream inputStream, @Nonnull OutputStream outputStream)
       throws IOException {
+    if (chunkedCompressor != null && !isCompressed(inputStream)) {
+      try (OutputStream sinkStream =
+          new BufferedOutputStream(outputStream) {
+            @Override
+            public void close() throws IOException {
+              // Do not propagate close; call 'flush()' instead.
+              // The compressed segments are already finalized.
+              flush();
+            }
+          }) {
+        chunkedCompressor.compress(inputStream, sinkStream);
+      }
+      return;
+    }
     try (OutputStream sinkStream =
         isCompressed(inputStream)
             ? new BufferedOutputStream(outputStream) {
@@ -269,7 +339,7 @@ final class CompressingRequestBody extends RequestBody {
    */
   static boolean isCompressed(@Nonnull final InputStream is) throws IOException {
     checkMarkSupported(is);
-    return isGzip(is) || isLz4(is) || isZip(is);
+    return isGzip(is) || isLz4(is) || isZstd(is) || isZip(is);
   }
 
   /**
@@ -323,6 +393,23 @@ final class CompressingRequestBody extends RequestBody {
     }
   }
 
+  /**
+   * Check whether the stream represents Zstd data
+   *
+   * @param is input stream; must support {@linkplain InputStream#mark(int)}
+   * @return {@literal true} if the stream represents Zstd data
+   * @throws IOException
+   */
+  static boolean isZstd(@Nonnull final InputStream is) throws IOException {
+    checkMarkSupported(is);
+    is.mark(ZSTD_MAGIC.length);
+    try {
+      return hasMagic(is, ZSTD_MAGIC);
+    } finally {
+      is.reset();
+    }
+  }
+
   private static void checkMarkSupported(@Nonnull final InputStream is) throws IOException {
     if (!is.markSupported()) {
       throw new IOException("Can not check headers on streams not supporting mark() method");
@@ -342,6 +429,10 @@ final class CompressingRequestBody extends RequestBody {
         {
           return GZIPOutputStream::new;
         }
+      case ZSTD:
+        {
+          return ZstdOutputStream::new;
+        }
       case OFF:
         {
           return out -> out;
@@ -12,7 +12,9 @@ enum CompressionType {
   /** Lower compression ratio with less CPU overhead * */
   LZ4,
   /** Better compression ratio for the price of higher CPU usage * */
-  GZIP;
+  GZIP,
+  /** Compression ratio similar to GZIP at a fraction of its CPU usage * */
+  ZSTD;
 
   private static final Logger log = LoggerFactory.getLogger(CompressionType.class);
 
@@ -30,6 +32,8 @@ enum CompressionType {
         return LZ4;
       case "gzip":
         return GZIP;
+      case "zstd":
+        return ZSTD;
       default:
         log.warn("Unrecognizable compression type: {}. Defaulting to 'on'.", type);
         return ON;
@@ -15,6 +15,9 @@
  */
 package com.datadog.profiling.uploader;
 
+import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_COMPRESSION_PARALLELISM;
+import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_COMPRESSION_PARALLELISM_DEFAULT;
+import static datadog.trace.util.AgentThreadFactory.AgentThread.PROFILER_COMPRESSION;
 import static datadog.trace.util.AgentThreadFactory.AgentThread.PROFILER_HTTP_DISPATCHER;
 
 import com.datadog.profiling.uploader.util.JfrCliHelper;
@@ -45,6 +48,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -120,6 +124,9 @@ public final class ProfileUploader {
   private final HttpUrl url;
   private final int terminationTimeout;
   private final CompressionType compressionType;
+  private final int compressionParallelism;
+  // only set up when the chunked parallel compression is enabled
+  @Nullable private final ExecutorService compressionExecutorService;
 
   private final RecordingDataAdapter jsonAdapter;
 
@@ -201,6 +208,15 @@ public final class ProfileUploader {
             uploadTimeout.toMillis());
 
     compressionType = CompressionType.of(config.getProfilingUploadCompression());
+    compressionParallelism =
+        configProvider.getInteger(
+            PROFILING_UPLOAD_COMPRESSION_PARALLELISM,
+            PROFILING_UPLOAD_COMPRESSION_PARALLELISM_DEFAULT);
+    compressionExecutorService =
+        compressionParallelism > 1 && compressionType != CompressionType.OFF
+            ? Executors.newFixedThreadPool(
+                compressionParallelism, new AgentThreadFactory(PROFILER_COMPRESSION))
+            : null;
   }
 
   /**
@@ -378,6 +394,9 @@ public final class ProfileUploader {
   }
 
   public void shutdown() {
+    if (compressionExecutorService != null) {
+      compressionExecutorService.shutdownNow();
+    }
     okHttpExecutorService.shutdownNow();
     try {
       okHttpExecutorService.awaitTermination(terminationTimeout, TimeUnit.SECONDS);
@@ -408,7 +427,8 @@ public final class ProfileUploader {
   private Call makeRequest(@Nonnull final RecordingType type, @Nonnull final RecordingData data) {
 
     final CompressingRequestBody body =
-        new CompressingRequestBody(compressionType, data::getStream);
+        new CompressingRequestBody(
+            compressionType, data::getStream, compressionExecutorService, compressionParallelism);
     final RequestBody requestBody = makeRequestBody(data, body);
 
     final Map<String, String> headers = new HashMap<>();
@@ -6,6 +6,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import datadog.trace.api.profiling.RecordingInputStream;
+import io.airlift.compress.zstd.ZstdInputStream;
+import io.airlift.compress.zstd.ZstdOutputStream;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -13,6 +15,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.EnumSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
@@ -21,6 +25,7 @@ import net.jpountz.lz4.LZ4FrameOutputStream;
 import okio.BufferedSink;
 import okio.Okio;
 import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -30,12 +35,19 @@ import org.mockito.stubbing.Answer;
 
 class CompressingRequestBodyTest {
   private static byte[] recordingData;
+  private static ExecutorService compressionExecutor;
 
   @BeforeAll
   static void setupAll() throws Exception {
     InputStream dataStream = testRecordingStream();
     recordingData = new byte[dataStream.available()];
     IOUtils.readFully(dataStream, recordingData);
+    compressionExecutor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterAll
+  static void tearDownAll() {
+    compressionExecutor.shutdownNow();
   }
 
   @ParameterizedTest
@@ -150,10 +162,48 @@ class CompressingRequestBodyTest {
   @ParameterizedTest
   @EnumSource(CompressionType.class)
   void writeTo(CompressionType compressionType) throws IOException {
+    assertWriteTo(
+        compressionType,
+        new CompressingRequestBody(
+            compressionType, CompressingRequestBodyTest::testRecordingStream));
+  }
+
+  @ParameterizedTest
+  @EnumSource(CompressionType.class)
+  void writeToChunked(CompressionType compressionType) throws IOException {
+    assertWriteTo(
+        compressionType,
+        new CompressingRequestBody(
+            compressionType,
+            CompressingRequestBodyTest::testRecordingStream,
+            compressionExecutor,
+            4));
+  }
+
+  @ParameterizedTest
+  @EnumSource(CompressionType.class)
+  void writeToChunkedMultipleChunks(CompressionType compressionType) throws IOException {
+    // a recording consisting of several chunks, forcing the data to be split into segments
+    ByteArrayOutputStream multiChunk = new ByteArrayOutputStream();
+    for (int i = 0; i < 3; i++) {
+      multiChunk.write(recordingData);
+    }
+    byte[] data = multiChunk.toByteArray();
     CompressingRequestBody instance =
         new CompressingRequestBody(
-            compressionType, CompressingRequestBodyTest::testRecordingStream);
+            compressionType,
+            () -> new RecordingInputStream(new ByteArrayInputStream(data)),
+            compressionExecutor,
+            2);
+
+    byte[] compressed = instanceWriteAsBytes(instance);
+    assertArrayEquals(data, decompress(compressionType, compressed));
+    assertEquals(data.length, instance.getReadBytes());
+    assertEquals(compressed.length, instance.getWrittenBytes());
+  }
 
+  private static void assertWriteTo(
+      CompressionType compressionType, CompressingRequestBody instance) throws IOException {
     byte[] compressed = instanceWriteAsBytes(instance);
     BufferedInputStream compressedStream =
         new BufferedInputStream(new ByteArrayInputStream(compressed));
@@ -186,6 +236,31 @@ class CompressingRequestBodyTest {
           assertEquals(compressed.length, instance.getWrittenBytes());
           break;
         }
+      case ZSTD:
+        {
+          assertTrue(CompressingRequestBody.isZstd(compressedStream));
+          byte[] uncompressed = IOUtils.toByteArray(new ZstdInputStream(compressedStream));
+          assertArrayEquals(recordingData, uncompressed);
+          assertEquals(recordingData.length, instance.getReadBytes());
+          assertEquals(compressed.length, instance.getWrittenBytes());
+          break;
+        }
+    }
+  }
+
+  private static byte[] decompress(CompressionType compressionType, byte[] compressed)
+      throws IOException {
+    InputStream compressedStream = new ByteArrayInputStream(compressed);
+    switch (compressionType) {
+      case LZ4:
+      case ON:
+        return IOUtils.toByteArray(new LZ4FrameInputStream(compressedStream));
+      case GZIP:
+        return IOUtils.toByteArray(new GZIPInputStream(compressedStream));
+      case ZSTD:
+        return IOUtils.toByteArray(new ZstdInputStream(compressedStream));
+      default:
+        return compressed;
     }
   }
 
@@ -210,6 +285,11 @@ class CompressingRequestBodyTest {
             compressedStream = new GZIPOutputStream(baos);
             break;
           }
+        case ZSTD:
+          {
+            compressedStream = new ZstdOutputStream(baos);
+            break;
+          }
       }
       assertNotNull(compressedStream);
 
@@ -0,0 +1,60 @@
+package com.datadog.profiling.agent;
+
+import com.datadog.profiling.controller.jfr.parser.RecordingAggregator;
+import datadog.trace.api.profiling.RecordingData;
+import datadog.trace.api.profiling.RecordingInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Wraps the recording data and serves the pre-aggregated recording instead of the raw one. The
+ * aggregated recording is computed once, on the first request, and kept in memory until the data
+ * is released. If the aggregation fails the raw recording is served.
+ */
+final class AggregatingRecordingData extends RecordingData {
+  private static final Logger log = LoggerFactory.getLogger(AggregatingRecordingData.class);
+
+  private final RecordingData delegate;
+  private final RecordingAggregator aggregator;
+
+  private byte[] aggregated;
+
+  AggregatingRecordingData(RecordingData delegate, RecordingAggregator aggregator) {
+    super(delegate.getStart(), delegate.getEnd(), delegate.getKind());
+    this.delegate = delegate;
+    this.aggregator = aggregator;
+  }
+
+  @Nonnull
+  @Override
+  public synchronized RecordingInputStream getStream() throws IOException {
+    if (aggregated == null) {
+      ByteArrayOutputStream data = new ByteArrayOutputStream();
+      try (InputStream raw = delegate.getStream()) {
+        aggregator.aggregate(raw, data);
+      } catch (IOException e) {
+        log.debug("Failed to aggregate the recording {}. Using the raw data.", getName(), e);
+        return delegate.getStream();
+      }
+      aggregated = data.toByteArray();
+    }
+    return new RecordingInputStream(new ByteArrayInputStream(aggregated));
+  }
+
+  @Override
+  public synchronized void release() {
+    aggregated = null;
+    delegate.release();
+  }
+
+  @Nonnull
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+}
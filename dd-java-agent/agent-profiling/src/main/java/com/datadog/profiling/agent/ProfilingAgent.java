@@ -2,6 +2,10 @@ package com.datadog.profiling.agent;
 
 import static datadog.trace.api.config.ProfilingConfig.PROFILING_START_FORCE_FIRST;
 import static datadog.trace.api.config.ProfilingConfig.PROFILING_START_FORCE_FIRST_DEFAULT;
+import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_AGGREGATION_ENABLED;
+import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_AGGREGATION_ENABLED_DEFAULT;
+import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_AGGREGATION_EVENTS;
+import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_AGGREGATION_EVENTS_DEFAULT;
 import static datadog.trace.util.AgentThreadFactory.AGENT_THREAD_GROUP;
 
 import com.datadog.profiling.controller.ConfigurationException;
@@ -10,6 +14,7 @@ import com.datadog.profiling.controller.ControllerContext;
 import com.datadog.profiling.controller.ProfilingSystem;
 import com.datadog.profiling.controller.UnsupportedEnvironmentException;
 import com.datadog.profiling.controller.jfr.JFRAccess;
+import com.datadog.profiling.controller.jfr.parser.RecordingAggregator;
 import com.datadog.profiling.uploader.ProfileUploader;
 import datadog.trace.api.Config;
 import datadog.trace.api.Platform;
@@ -18,6 +23,7 @@ import datadog.trace.api.profiling.RecordingData;
 import datadog.trace.api.profiling.RecordingDataListener;
 import datadog.trace.api.profiling.RecordingType;
 import datadog.trace.bootstrap.config.provider.ConfigProvider;
+import de.thetaphi.forbiddenapis.SuppressForbidden;
 import java.io.IOException;
 import java.lang.instrument.Instrumentation;
 import java.lang.ref.WeakReference;
@@ -26,6 +32,9 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
@@ -124,6 +133,19 @@ public class ProfilingAgent {
         DataDumper dumper = dumpPath != null ? new DataDumper(Paths.get(dumpPath)) : null;
 
         uploader = new ProfileUploader(config, configProvider);
+        RecordingAggregator aggregator =
+            configProvider.getBoolean(
+                    PROFILING_UPLOAD_AGGREGATION_ENABLED,
+                    PROFILING_UPLOAD_AGGREGATION_ENABLED_DEFAULT)
+                ? new RecordingAggregator(
+                    configProvider.getSet(
+                        PROFILING_UPLOAD_AGGREGATION_EVENTS, defaultAggregatedEvents()))
+                : null;
+        RecordingDataListener uploadListener =
+            aggregator == null
+                ? uploader::upload
+                : (type, data, sync) ->
+                    uploader.upload(type, new AggregatingRecordingData(data, aggregator), sync);
 
         final Duration startupDelay = Duration.ofSeconds(config.getProfilingStartDelay());
         final Duration uploadPeriod = Duration.ofSeconds(config.getProfilingUploadPeriod());
@@ -138,10 +160,10 @@ public class ProfilingAgent {
                 controller,
                 context.snapshot(),
                 dumper == null
-                    ? uploader::upload
+                    ? uploadListener
                     : (type, data, sync) -> {
                       dumper.onNewData(type, data, sync);
-                      uploader.upload(type, data, sync);
+                      uploadListener.onNewData(type, data, sync);
                     },
                 startupDelay,
                 startupDelayRandomRange,
@@ -171,6 +193,11 @@ public class ProfilingAgent {
     }
   }
 
+  @SuppressForbidden // split on a constant single character
+  private static Set<String> defaultAggregatedEvents() {
+    return new HashSet<>(Arrays.asList(PROFILING_UPLOAD_AGGREGATION_EVENTS_DEFAULT.split(",")));
+  }
+
   private static boolean isStartForceFirstSafe() {
     return Platform.isJavaVersionAtLeast(14)
         || (Platform.isJavaVersion(13) && Platform.isJavaVersionAtLeast(13, 0, 4))
@@ -1,6 +1,7 @@
 package datadog.trace.agent.tooling;
 
 import datadog.trace.api.flare.TracerFlare;
+import datadog.trace.bootstrap.FieldBackedContextStores;
 import java.io.IOException;
 import java.util.zip.ZipOutputStream;
 
@@ -15,5 +16,6 @@ public final class InstrumenterFlare implements TracerFlare.Reporter {
   public void addReportToFlare(ZipOutputStream zip) throws IOException {
     TracerFlare.addText(zip, "instrumenter_state.txt", InstrumenterState.summary());
     TracerFlare.addText(zip, "instrumenter_metrics.txt", InstrumenterMetrics.summary());
+    TracerFlare.addText(zip, "context_stores.txt", FieldBackedContextStores.summary());
   }
 }
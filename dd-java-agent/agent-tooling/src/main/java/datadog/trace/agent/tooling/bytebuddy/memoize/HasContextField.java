@@ -57,5 +57,10 @@ final class HasContextField extends ElementMatcher.Junction.ForNonNullValues<Typ
     protected boolean doMatch(TypeDescription target) {
       return ExcludeFilter.exclude(excludeType, target.getName());
     }
+
+    @Override
+    public String toString() {
+      return "skipContextField(" + excludeType + ")";
+    }
   }
 }
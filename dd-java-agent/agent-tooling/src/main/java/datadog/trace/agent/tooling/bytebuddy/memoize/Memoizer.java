@@ -11,6 +11,8 @@ import datadog.trace.api.InstrumenterConfig;
 import datadog.trace.api.cache.DDCache;
 import datadog.trace.api.cache.DDCaches;
 import de.thetaphi.forbiddenapis.SuppressForbidden;
+import java.net.URL;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.HashMap;
@@ -64,6 +66,9 @@ public final class Memoizer {
   private static final TypeInfoCache<BitSet> memos =
       new TypeInfoCache<>(InstrumenterConfig.get().getResolverMemoPoolSize(), namesAreUnique);
 
+  // optionally records memoized matches so they can be seeded on restart
+  private static volatile PersistedMemos persistedMemos;
+
   // local memoized results, used to detect circular references
   static final ThreadLocal<Map<String, BitSet>> localMemosHolder =
       ThreadLocal.withInitial(HashMap::new);
@@ -92,6 +97,62 @@ public final class Memoizer {
     memos.clear();
   }
 
+  /**
+   * Seeds memoized matches persisted by a previous run when a resolver cache directory is
+   * configured. This must be called after all matchers have been prepared, because memoized matches
+   * are only valid for the same set of matchers.
+   */
+  public static void seedPersistedMemos() {
+    if (null != persistedMemos) {
+      return; // already seeded
+    }
+    Path memoFile = PersistedMemos.discoverMemoFile();
+    if (null != memoFile) {
+      PersistedMemos seeded =
+          new PersistedMemos(
+              memoFile, matcherFingerprint(), InstrumenterConfig.get().getResolverMemoPoolSize());
+      seeded.seed(memos);
+      seeded.persistOnShutdown();
+      persistedMemos = seeded;
+    }
+  }
+
+  /** Fingerprint of the prepared matchers and their parameters that is stable across restarts. */
+  static int matcherFingerprint() {
+    int hash = matchers.size();
+    for (ElementMatcher matcher : matchers) {
+      hash = 31 * hash + stableDescription(matcher.toString()).hashCode();
+    }
+    hash = 31 * hash + annotationMatcherIds.hashCode();
+    hash = 31 * hash + fieldMatcherIds.hashCode();
+    hash = 31 * hash + methodMatcherIds.hashCode();
+    hash = 31 * hash + classMatcherIds.hashCode();
+    hash = 31 * hash + interfaceMatcherIds.hashCode();
+    return 31 * hash + inheritedMatcherIds.hashCode();
+  }
+
+  /** Removes lambda suffixes and identity hash-codes, which vary across restarts. */
+  static String stableDescription(String description) {
+    StringBuilder buf = new StringBuilder(description.length());
+    int i = 0;
+    while (i < description.length()) {
+      char c = description.charAt(i);
+      if (c == '@' || description.startsWith("$$Lambda", i)) {
+        // skip to the end of the class-name or hash-code
+        i++;
+        while (i < description.length()
+            && (Character.isJavaIdentifierPart(description.charAt(i))
+                || description.charAt(i) == '/')) {
+          i++;
+        }
+      } else {
+        buf.append(c);
+        i++;
+      }
+    }
+    return buf.toString();
+  }
+
   static MemoizingMatcher withMatcherId(ElementMatcher matcher) {
     return new MemoizingMatcher(matchers.size());
   }
@@ -186,16 +247,24 @@ public final class Memoizer {
       }
     }
 
+    // tracks where inherited matches came from, so persisted memos can be invalidated
+    PersistedMemos persistedMemos = Memoizer.persistedMemos;
+    List<URL> superClassFiles = null != persistedMemos ? new ArrayList<>() : null;
+
     localMemos.put(name, memo = new BitSet(matchers.size()));
     boolean wasFullParsing = TypePoolFacade.disableFullDescriptions(); // only need outlines here
     try {
       TypeDescription.Generic superType = type.getSuperClass();
       long superTick = InstrumenterMetrics.tick();
       if (null != superType && !"java.lang.Object".equals(superType.getTypeName())) {
-        inherit(memoizeHierarchy(superType.asErasure(), localMemos), memo);
+        TypeDescription superClass = superType.asErasure();
+        inherit(memoizeHierarchy(superClass, localMemos), memo);
+        superClassFiles = trackSuperType(superClass, superClassFiles);
       }
       for (TypeDescription.Generic intf : type.getInterfaces()) {
-        inherit(memoizeHierarchy(intf.asErasure(), localMemos), memo);
+        TypeDescription superInterface = intf.asErasure();
+        inherit(memoizeHierarchy(superInterface, localMemos), memo);
+        superClassFiles = trackSuperType(superInterface, superClassFiles);
       }
       fromTick += (InstrumenterMetrics.tick() - superTick); // adjust to exclude super-type ticks
       for (AnnotationDescription ann : type.getDeclaredAnnotations()) {
@@ -241,6 +310,13 @@ public final class Memoizer {
       memos.share(name, origin.getClassLoader(), origin.getClassFile(), memo);
     }
 
+    // record complete results for the next restart; partial results depend on what's available
+    if (null != superClassFiles
+        && !memo.get(isPartial.matcherId)
+        && type instanceof WithLocation) {
+      persistedMemos.record(name, ((WithLocation) type).getClassFile(), memo, superClassFiles);
+    }
+
     return memo;
   }
 
@@ -250,6 +326,27 @@ public final class Memoizer {
         || sharedMemo.sameClassFile(((WithLocation) type).getClassFile());
   }
 
+  /**
+   * Tracks the class-file of a super-type whose matches may have been inherited. Returns {@code
+   * null} when the super-type has no known location, in which case the memo won't be persisted.
+   */
+  private static List<URL> trackSuperType(TypeDescription superType, List<URL> superClassFiles) {
+    if (null == superClassFiles) {
+      return null;
+    }
+    String superName = superType.getName();
+    if (superName.startsWith("java.") || NoMatchFilter.contains(superName)) {
+      return superClassFiles; // JDK types and types without matches don't need tracking
+    }
+    URL superClassFile =
+        superType instanceof WithLocation ? ((WithLocation) superType).getClassFile() : null;
+    if (null == superClassFile) {
+      return null;
+    }
+    superClassFiles.add(superClassFile);
+    return superClassFiles;
+  }
+
   /** Inherit positive matches from a super-class or interface. */
   private static void inherit(BitSet superMemo, BitSet memo) {
     int matcherId = superMemo.nextSetBit(0);
@@ -0,0 +1,313 @@
+package datadog.trace.agent.tooling.bytebuddy.memoize;
+
+import static datadog.trace.util.AgentThreadFactory.AGENT_THREAD_GROUP;
+
+import datadog.trace.agent.tooling.bytebuddy.TypeInfoCache;
+import datadog.trace.api.DDTraceApiInfo;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists positive memoized matches across restarts, complementing the {@link NoMatchFilter}.
+ *
+ * <p>Each memo records the class-file it was built from along with the size and last-modified time
+ * of the jars (or class-files on disk) containing it and the super-types it inherited matches from.
+ * Memos are only seeded on restart when all their origins are unchanged and the same matchers have
+ * been prepared, so the memoizer can skip parsing the type outlines for those types.
+ */
+final class PersistedMemos {
+  private static final Logger log = LoggerFactory.getLogger(PersistedMemos.class);
+
+  private static final String NO_MATCH_FILTER_SUFFIX = "-nomatch.filter";
+  private static final String MEMOS_SUFFIX = "-memos.cache";
+
+  private final Path memoFile;
+  private final int matcherFingerprint;
+  private final int maxMemos;
+
+  // memos seeded from the previous run plus any built since, keyed by class-file
+  private final Map<String, Memo> memos = new ConcurrentHashMap<>();
+
+  // caches the identity of each origin on disk, so each jar is only checked once
+  private final Map<File, Origin> origins = new ConcurrentHashMap<>();
+
+  private volatile boolean modified;
+
+  PersistedMemos(Path memoFile, int matcherFingerprint, int maxMemos) {
+    this.memoFile = memoFile;
+    this.matcherFingerprint = matcherFingerprint;
+    this.maxMemos = maxMemos;
+  }
+
+  /** Uses the same key as the {@link NoMatchFilter}, i.e. tracer + service combination. */
+  static Path discoverMemoFile() {
+    Path noMatchFile = NoMatchFilter.discoverNoMatchFile();
+    if (null == noMatchFile) {
+      return null;
+    }
+    String noMatchFilterName = noMatchFile.getFileName().toString();
+    return noMatchFile.resolveSibling(
+        noMatchFilterName.substring(0, noMatchFilterName.length() - NO_MATCH_FILTER_SUFFIX.length())
+            + MEMOS_SUFFIX);
+  }
+
+  /**
+   * Records a complete memo so it can be persisted for the next restart. The memo is only recorded
+   * when the memos of the super-types it inherited matches from have also been recorded, because
+   * their origins are needed to tell when any part of the hierarchy has changed.
+   */
+  void record(String name, URL classFile, BitSet memo, Collection<URL> superClassFiles) {
+    if (null == classFile || memos.size() >= maxMemos) {
+      return;
+    }
+    Origin origin = origin(classFile);
+    if (null == origin) {
+      return;
+    }
+    Set<Origin> hierarchy = new LinkedHashSet<>();
+    hierarchy.add(origin);
+    for (URL superClassFile : superClassFiles) {
+      Memo superMemo = memos.get(superClassFile.toExternalForm());
+      if (null == superMemo) {
+        return; // can't tell when the super-type changes
+      }
+      for (Origin superOrigin : superMemo.origins) {
+        hierarchy.add(superOrigin);
+      }
+    }
+    String location = classFile.toExternalForm();
+    memos.put(
+        location,
+        new Memo(name, location, hierarchy.toArray(new Origin[0]), memo.toLongArray()));
+    modified = true;
+  }
+
+  /** Seeds memos from the previous run whose origins are unchanged. */
+  void seed(TypeInfoCache<BitSet> sharedMemos) {
+    if (!Files.exists(memoFile)) {
+      return;
+    }
+    log.debug("Seeding memoized matches from {}", memoFile);
+    int seeded = 0;
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(memoFile)))) {
+      while (true) {
+        switch (in.readUTF()) {
+          case "dd-java-agent":
+            NoMatchFilter.expectVersion(in, DDTraceApiInfo.VERSION);
+            break;
+          case "Memoizer":
+            if (in.readInt() != matcherFingerprint) {
+              modified = true; // different matchers, replace the stale memos on shutdown
+              throw new IOException("matcher mismatch");
+            }
+            int memoCount = in.readInt();
+            for (int i = 0; i < memoCount; i++) {
+              Memo memo = Memo.read(in);
+              if (memos.size() < maxMemos && unchanged(memo.origins)) {
+                memos.put(memo.location, memo);
+                sharedMemos.share(memo.name, null, new URL(memo.location), memo.toBitSet());
+                seeded++;
+              } else {
+                modified = true; // drop stale memos on shutdown
+              }
+            }
+            log.debug("Seeded {} memoized matches", seeded);
+            return;
+          default:
+            throw new IOException("unexpected content");
+        }
+      }
+    } catch (IOException e) {
+      if (log.isDebugEnabled()) {
+        log.info("Unable to seed memoized matches from {}", memoFile, e);
+      } else {
+        log.info("Unable to seed memoized matches from {}: {}", memoFile, e.getMessage());
+      }
+    }
+  }
+
+  void persist() {
+    if (!modified) {
+      return;
+    }
+    log.debug("Persisting memoized matches to {}", memoFile);
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(memoFile)))) {
+      out.writeUTF("dd-java-agent");
+      out.writeUTF(DDTraceApiInfo.VERSION);
+      out.writeUTF("Memoizer");
+      out.writeInt(matcherFingerprint);
+      Memo[] snapshot = memos.values().toArray(new Memo[0]);
+      out.writeInt(snapshot.length);
+      for (Memo memo : snapshot) {
+        memo.write(out);
+      }
+    } catch (IOException e) {
+      if (log.isDebugEnabled()) {
+        log.info("Unable to persist memoized matches to {}", memoFile, e);
+      } else {
+        log.info("Unable to persist memoized matches to {}: {}", memoFile, e.getMessage());
+      }
+    }
+  }
+
+  void persistOnShutdown() {
+    Runtime.getRuntime().addShutdownHook(new ShutdownHook(this));
+  }
+
+  private boolean unchanged(Origin[] memoOrigins) {
+    for (Origin memoOrigin : memoOrigins) {
+      if (!memoOrigin.equals(origin(memoOrigin.file))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Origin origin(URL classFile) {
+    File file = originFile(classFile);
+    return null != file ? origin(file) : null;
+  }
+
+  private Origin origin(File file) {
+    Origin origin = origins.get(file);
+    if (null == origin) {
+      long lastModified = file.lastModified();
+      if (lastModified == 0) {
+        return null; // missing or inaccessible
+      }
+      origins.put(file, origin = new Origin(file, lastModified, file.length()));
+    }
+    return origin;
+  }
+
+  /** The file on disk that identifies the class-file: either its enclosing jar or itself. */
+  static File originFile(URL classFile) {
+    String path = classFile.getPath();
+    if ("jar".equals(classFile.getProtocol())) {
+      // use the outermost jar, which also changes when any nested jar changes
+      int jarEnd = path.indexOf("!/");
+      if (jarEnd < 0 || !path.startsWith("file:")) {
+        return null;
+      }
+      path = path.substring(5, jarEnd);
+    } else if (!"file".equals(classFile.getProtocol())) {
+      return null; // only file-based origins have a stable identity
+    }
+    try {
+      return new File(new URI("file:" + path));
+    } catch (Exception e) {
+      return new File(path); // path was not encoded
+    }
+  }
+
+  /** Identifies the state of the origin on disk when the memo was built. */
+  static final class Origin {
+    final File file;
+    final long lastModified;
+    final long size;
+
+    Origin(File file, long lastModified, long size) {
+      this.file = file;
+      this.lastModified = lastModified;
+      this.size = size;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Origin)) {
+        return false;
+      }
+      Origin origin = (Origin) o;
+      return lastModified == origin.lastModified
+          && size == origin.size
+          && file.equals(origin.file);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * file.hashCode() + Long.hashCode(lastModified)) + Long.hashCode(size);
+    }
+  }
+
+  static final class Memo {
+    final String name;
+    final String location;
+    final Origin[] origins; // origin of the memoized type, followed by those of its super-types
+    private final long[] matches;
+
+    Memo(String name, String location, Origin[] origins, long[] matches) {
+      this.name = name;
+      this.location = location;
+      this.origins = origins;
+      this.matches = matches;
+    }
+
+    BitSet toBitSet() {
+      return BitSet.valueOf(matches);
+    }
+
+    static Memo read(DataInputStream in) throws IOException {
+      String name = in.readUTF();
+      String location = in.readUTF();
+      Origin[] origins = new Origin[in.readInt()];
+      for (int i = 0; i < origins.length; i++) {
+        origins[i] = new Origin(new File(in.readUTF()), in.readLong(), in.readLong());
+      }
+      long[] matches = new long[in.readInt()];
+      for (int i = 0; i < matches.length; i++) {
+        matches[i] = in.readLong();
+      }
+      return new Memo(name, location, origins, matches);
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      out.writeUTF(name);
+      out.writeUTF(location);
+      out.writeInt(origins.length);
+      for (Origin origin : origins) {
+        out.writeUTF(origin.file.getPath());
+        out.writeLong(origin.lastModified);
+        out.writeLong(origin.size);
+      }
+      out.writeInt(matches.length);
+      for (long word : matches) {
+        out.writeLong(word);
+      }
+    }
+  }
+
+  static class ShutdownHook extends Thread {
+    private final PersistedMemos persistedMemos;
+
+    ShutdownHook(PersistedMemos persistedMemos) {
+      super(AGENT_THREAD_GROUP, "dd-Memoizer-persist-hook");
+      this.persistedMemos = persistedMemos;
+    }
+
+    @Override
+    public void run() {
+      persistedMemos.persist();
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package datadog.trace.agent.tooling.bytebuddy.memoize;
+
+import static datadog.trace.util.AgentThreadFactory.AgentThread.SPECULATIVE_MATCHING;
+
+import datadog.trace.agent.tooling.bytebuddy.outline.TypePoolFacade;
+import datadog.trace.util.AgentThreadFactory;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+import net.bytebuddy.description.type.TypeDescription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Speculatively memoizes matches for classes on the application class-path in the background, so
+ * that when those classes are eventually loaded their match decision is already available.
+ *
+ * <p>Classes are only located and parsed, never loaded, and results are shared using the same
+ * caches as regular matching. Uninteresting classes end up in the {@link NoMatchFilter} while
+ * interesting ones have their memoized matches shared for re-use.
+ */
+public final class SpeculativeMatching {
+  private static final Logger log = LoggerFactory.getLogger(SpeculativeMatching.class);
+
+  private static final int BATCH_SIZE = 256;
+
+  private static final Pattern CLASS_PATH_SPLITTER =
+      Pattern.compile(File.pathSeparator, Pattern.LITERAL);
+
+  private SpeculativeMatching() {}
+
+  /** Starts matching classes from jars on the application class-path using background threads. */
+  public static void matchClassPath(int threads) {
+    String classPath = System.getProperty("java.class.path");
+    if (null == classPath || classPath.isEmpty()) {
+      return;
+    }
+    ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            1,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new AgentThreadFactory(SPECULATIVE_MATCHING));
+    executor.allowCoreThreadTimeOut(true);
+    executor.execute(
+        () -> {
+          try {
+            for (String entry : CLASS_PATH_SPLITTER.split(classPath)) {
+              if (entry.endsWith(".jar")) {
+                for (List<String> batch : listClasses(new File(entry))) {
+                  executor.execute(() -> matchClasses(classLoader, batch));
+                }
+              }
+            }
+          } finally {
+            executor.shutdown(); // queued batches still complete
+          }
+        });
+  }
+
+  static List<List<String>> listClasses(File jar) {
+    List<List<String>> batches = new ArrayList<>();
+    List<String> batch = new ArrayList<>(BATCH_SIZE);
+    try (JarFile jarFile = new JarFile(jar)) {
+      Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        String entryName = entries.nextElement().getName();
+        if (entryName.endsWith(".class")
+            && !entryName.startsWith("META-INF/")
+            && !entryName.endsWith("-info.class")) {
+          batch.add(entryName.substring(0, entryName.length() - 6).replace('/', '.'));
+          if (batch.size() == BATCH_SIZE) {
+            batches.add(batch);
+            batch = new ArrayList<>(BATCH_SIZE);
+          }
+        }
+      }
+    } catch (IOException e) {
+      log.debug("Unable to list classes in {}", jar, e);
+    }
+    if (!batch.isEmpty()) {
+      batches.add(batch);
+    }
+    return batches;
+  }
+
+  static void matchClasses(ClassLoader classLoader, List<String> names) {
+    TypePoolFacade.disableLoadClassFallback();
+    TypePoolFacade.switchContext(classLoader);
+    Map<String, BitSet> localMemos = Memoizer.localMemosHolder.get();
+    try {
+      for (String name : names) {
+        try {
+          TypeDescription type = TypePoolFacade.INSTANCE.describe(name).resolve();
+          Memoizer.memoizeHierarchy(type, localMemos);
+        } catch (Throwable e) {
+          if (log.isDebugEnabled()) {
+            log.debug(
+                "{} speculatively matching type {}: {}",
+                e.getClass().getSimpleName(),
+                name,
+                e.getMessage());
+          }
+        }
+      }
+    } finally {
+      TypePoolFacade.INSTANCE.endInstall(); // clears the thread's type-factory context
+    }
+  }
+}
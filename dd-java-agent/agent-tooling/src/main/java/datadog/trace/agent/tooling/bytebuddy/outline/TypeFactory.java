@@ -92,6 +92,8 @@ final class TypeFactory {
 
   boolean createOutlines = OUTLINING_ENABLED;
 
+  boolean loadClassFallback = fallBackToLoadClass;
+
   ClassLoader originalClassLoader;
 
   ClassLoader classLoader;
@@ -116,6 +118,11 @@ final class TypeFactory {
     return classLoader;
   }
 
+  /** Stops this type-factory from falling back to loading classes it can't locate. */
+  void disableLoadClassFallback() {
+    loadClassFallback = false;
+  }
+
   void beginInstall() {
     installing = true;
   }
@@ -267,7 +274,7 @@ final class TypeFactory {
     byte[] bytecode = request.getBytecode();
     if (null != bytecode) {
       type = typeParser.parse(bytecode);
-    } else if (fallBackToLoadClass) {
+    } else if (loadClassFallback) {
       type = loadType(name, typeParser);
     }
 
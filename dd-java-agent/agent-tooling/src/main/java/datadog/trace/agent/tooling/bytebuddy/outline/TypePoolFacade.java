@@ -34,6 +34,14 @@ public final class TypePoolFacade implements TypePool, SharedTypePools.Supplier
     return typeFactory.get().currentContext();
   }
 
+  /**
+   * Stops the active thread from loading classes it can't locate, for threads that resolve types
+   * outside of class-loading, where loading a class would be an unexpected side effect.
+   */
+  public static void disableLoadClassFallback() {
+    typeFactory.get().disableLoadClassFallback();
+  }
+
   @Override
   public void annotationOfInterest(String name) {
     AnnotationOutline.prepareAnnotationOutline(name);
@@ -0,0 +1,136 @@
+package datadog.trace.agent.tooling.bytebuddy.memoize
+
+import datadog.trace.agent.tooling.bytebuddy.TypeInfoCache
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class PersistedMemosTest extends Specification {
+
+  @TempDir
+  Path tempDir
+
+  def "memoized matches are seeded after restart"() {
+    setup:
+    def memoFile = tempDir.resolve('test-memos.cache')
+    def jar = Files.write(tempDir.resolve('lib.jar'), [1, 2, 3] as byte[])
+    def classFile = new URL("jar:${jar.toUri()}!/foo/Bar.class")
+    def memo = new BitSet()
+    memo.set(3)
+    memo.set(130)
+
+    when:
+    def previousRun = new PersistedMemos(memoFile, 42, 16)
+    previousRun.record('foo.Bar', classFile, memo, [])
+    previousRun.persist()
+    def memos = new TypeInfoCache<BitSet>(16)
+    new PersistedMemos(memoFile, 42, 16).seed(memos)
+
+    then:
+    def seeded = memos.find('foo.Bar')
+    seeded.get() == memo
+    seeded.sameClassFile(classFile)
+  }
+
+  def "memoized matches are ignored when the matchers or the jar changed"() {
+    setup:
+    def memoFile = tempDir.resolve('test-memos.cache')
+    def jar = Files.write(tempDir.resolve('lib.jar'), [1, 2, 3] as byte[])
+    def classFile = new URL("jar:${jar.toUri()}!/foo/Bar.class")
+    def memo = new BitSet()
+    memo.set(3)
+    def previousRun = new PersistedMemos(memoFile, 42, 16)
+    previousRun.record('foo.Bar', classFile, memo, [])
+    previousRun.persist()
+
+    when:
+    def memos = new TypeInfoCache<BitSet>(16)
+    new PersistedMemos(memoFile, 43, 16).seed(memos)
+
+    then:
+    memos.find('foo.Bar') == null
+
+    when:
+    Files.write(jar, [1, 2, 3, 4] as byte[])
+    new PersistedMemos(memoFile, 42, 16).seed(memos)
+
+    then:
+    memos.find('foo.Bar') == null
+  }
+
+  def "memoized matches are ignored when a super-type's jar changed"() {
+    setup:
+    def memoFile = tempDir.resolve('test-memos.cache')
+    def appJar = Files.write(tempDir.resolve('app.jar'), [1, 2, 3] as byte[])
+    def libJar = Files.write(tempDir.resolve('lib.jar'), [4, 5, 6] as byte[])
+    def classFile = new URL("jar:${appJar.toUri()}!/foo/Bar.class")
+    def superClassFile = new URL("jar:${libJar.toUri()}!/lib/Base.class")
+    def memo = new BitSet()
+    memo.set(3)
+    def previousRun = new PersistedMemos(memoFile, 42, 16)
+    previousRun.record('lib.Base', superClassFile, memo, [])
+    previousRun.record('foo.Bar', classFile, memo, [superClassFile])
+    previousRun.persist()
+
+    when:
+    def memos = new TypeInfoCache<BitSet>(16)
+    new PersistedMemos(memoFile, 42, 16).seed(memos)
+
+    then:
+    memos.find('foo.Bar').get() == memo
+    memos.find('lib.Base').get() == memo
+
+    when:
+    Files.write(libJar, [4, 5, 6, 7] as byte[])
+    memos = new TypeInfoCache<BitSet>(16)
+    new PersistedMemos(memoFile, 42, 16).seed(memos)
+
+    then:
+    memos.find('foo.Bar') == null
+    memos.find('lib.Base') == null
+  }
+
+  def "memoized matches are not recorded when a super-type memo is unknown"() {
+    setup:
+    def memoFile = tempDir.resolve('test-memos.cache')
+    def appJar = Files.write(tempDir.resolve('app.jar'), [1, 2, 3] as byte[])
+    def libJar = Files.write(tempDir.resolve('lib.jar'), [4, 5, 6] as byte[])
+    def classFile = new URL("jar:${appJar.toUri()}!/foo/Bar.class")
+    def superClassFile = new URL("jar:${libJar.toUri()}!/lib/Base.class")
+    def memo = new BitSet()
+    memo.set(3)
+
+    when:
+    def previousRun = new PersistedMemos(memoFile, 42, 16)
+    previousRun.record('foo.Bar', classFile, memo, [superClassFile])
+    previousRun.persist()
+
+    then:
+    !Files.exists(memoFile)
+  }
+
+  def "matcher descriptions are stable across restarts"() {
+    expect:
+    Memoizer.stableDescription(description) == stable
+
+    where:
+    description                                                       | stable
+    'named(foo.Bar)'                                                  | 'named(foo.Bar)'
+    'hasSuperType(foo.Matchers$$Lambda$42/0x0000000800c0a440@1b2c3d)' | 'hasSuperType(foo.Matchers)'
+    'isAnnotatedWith(foo.Matcher@7f31245a)'                           | 'isAnnotatedWith(foo.Matcher)'
+  }
+
+  def "only file based class-files have an origin"() {
+    expect:
+    PersistedMemos.originFile(new URL(url)) == (path == null ? null : new File(path))
+
+    where:
+    url                                                       | path
+    'jar:file:/app/lib.jar!/foo/Bar.class'                    | '/app/lib.jar'
+    'jar:file:/app/my%20app.jar!/BOOT-INF/lib/x.jar!/Y.class' | '/app/my app.jar'
+    'file:/app/classes/foo/Bar.class'                         | '/app/classes/foo/Bar.class'
+    'http://example.com/foo/Bar.class'                        | null
+  }
+}
@@ -0,0 +1,43 @@
+package datadog.trace.agent.tooling.bytebuddy.memoize
+
+import spock.lang.Specification
+import spock.lang.TempDir
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.jar.JarEntry
+import java.util.jar.JarOutputStream
+
+class SpeculativeMatchingTest extends Specification {
+
+  @TempDir
+  Path tempDir
+
+  def "classes are listed in batches"() {
+    setup:
+    def jar = tempDir.resolve('app.jar')
+    new JarOutputStream(Files.newOutputStream(jar)).withCloseable { out ->
+      ['META-INF/MANIFEST.MF', 'META-INF/versions/11/foo/Bar.class', 'module-info.class',
+       'foo/package-info.class', 'foo/config.properties'].each {
+        out.putNextEntry(new JarEntry(it))
+        out.closeEntry()
+      }
+      (0..<300).each {
+        out.putNextEntry(new JarEntry("foo/Bar${it}.class"))
+        out.closeEntry()
+      }
+    }
+
+    when:
+    def batches = SpeculativeMatching.listClasses(jar.toFile())
+
+    then:
+    batches*.size() == [256, 44]
+    batches.flatten() == (0..<300).collect { "foo.Bar${it}".toString() }
+  }
+
+  def "missing jars are ignored"() {
+    expect:
+    SpeculativeMatching.listClasses(tempDir.resolve('missing.jar').toFile()).isEmpty()
+  }
+}
@@ -0,0 +1,107 @@
+package datadog.benchmark;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time until a new JVM running the agent has served its first request, with a cold or
+ * warm resolver cache ({@code dd.resolver.cache.dir}). The warm cache is populated by a previous
+ * run of the same application, as happens when a service restarts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 10)
+@OutputTimeUnit(MILLISECONDS)
+@Fork(1)
+public class AgentStartupBenchmark {
+
+  @Param({"false", "true"})
+  boolean warmCache;
+
+  private Path cacheDir;
+  private File output;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    cacheDir = Files.createTempDirectory("dd-resolver-cache");
+    output = File.createTempFile("startup-application", ".log");
+    if (warmCache) {
+      timeToFirstRequest();
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void clearColdCache() throws IOException {
+    if (!warmCache) {
+      deleteContents(cacheDir);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    deleteContents(cacheDir);
+    Files.deleteIfExists(cacheDir);
+    Files.deleteIfExists(output.toPath());
+  }
+
+  @Benchmark
+  public int timeToFirstRequest() throws Exception {
+    Process process =
+        new ProcessBuilder(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-javaagent:" + agentJar(),
+                "-Ddd.resolver.cache.dir=" + cacheDir,
+                "-Ddd.service=agent-startup-benchmark",
+                "-Ddd.jmxfetch.enabled=false",
+                "-Ddd.writer.type=LoggingWriter",
+                "-cp",
+                System.getProperty("java.class.path"),
+                StartupApplication.class.getName())
+            .redirectErrorStream(true)
+            .redirectOutput(ProcessBuilder.Redirect.appendTo(output))
+            .start();
+    int exitCode = process.waitFor();
+    if (exitCode != 0) {
+      throw new IllegalStateException("Application failed with " + exitCode + ", see " + output);
+    }
+    return exitCode;
+  }
+
+  private static String agentJar() {
+    String agentJar = System.getProperty("datadog.benchmark.agent.shadowJar.path");
+    if (null == agentJar) {
+      throw new IllegalStateException("datadog.benchmark.agent.shadowJar.path is not set");
+    }
+    return agentJar;
+  }
+
+  private static void deleteContents(Path dir) throws IOException {
+    try (Stream<Path> paths = Files.walk(dir)) {
+      paths
+          .sorted(Comparator.reverseOrder())
+          .filter(path -> !path.equals(dir))
+          .forEach(path -> path.toFile().delete());
+    }
+  }
+}
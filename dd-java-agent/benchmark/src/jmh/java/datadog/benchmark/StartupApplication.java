@@ -0,0 +1,65 @@
+package datadog.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+
+/**
+ * Application started by {@link AgentStartupBenchmark}: loads every class on the class-path, like a
+ * large application does during startup, then serves a single request and exits.
+ */
+public final class StartupApplication {
+
+  public static void main(String[] args) throws IOException {
+    ClassLoader loader = StartupApplication.class.getClassLoader();
+    String classPath = System.getProperty("java.class.path");
+    for (String entry : Pattern.compile(File.pathSeparator, Pattern.LITERAL).split(classPath)) {
+      if (entry.endsWith(".jar")) {
+        loadClasses(new File(entry), loader);
+      }
+    }
+
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          exchange.sendResponseHeaders(200, -1);
+          exchange.close();
+        });
+    server.start();
+    try {
+      URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      int status = connection.getResponseCode();
+      connection.disconnect();
+      if (status != 200) {
+        throw new IllegalStateException("Unexpected response status " + status);
+      }
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private static void loadClasses(File jar, ClassLoader loader) throws IOException {
+    try (JarFile jarFile = new JarFile(jar)) {
+      Enumeration<JarEntry> entries = jarFile.entries();
+      while (entries.hasMoreElements()) {
+        String name = entries.nextElement().getName();
+        if (name.endsWith(".class") && !name.startsWith("META-INF/")) {
+          try {
+            Class.forName(name.substring(0, name.length() - 6).replace('/', '.'), false, loader);
+          } catch (Throwable ignore) {
+            // missing optional dependency
+          }
+        }
+      }
+    }
+  }
+}
@@ -201,6 +201,8 @@ public final class ConfigDefaults {
   static final boolean DEFAULT_TELEMETRY_DEPENDENCY_COLLECTION_ENABLED = true;
   static final boolean DEFAULT_TELEMETRY_LOG_COLLECTION_ENABLED = false;
   static final int DEFAULT_TELEMETRY_DEPENDENCY_RESOLUTION_QUEUE_SIZE = 100000;
+  static final int DEFAULT_TELEMETRY_DEPENDENCY_RESOLUTION_BATCH_SIZE = 32;
+  static final int DEFAULT_TELEMETRY_DEPENDENCY_RESOLUTION_PARALLELISM = 2;
 
   static final boolean DEFAULT_TRACE_128_BIT_TRACEID_GENERATION_ENABLED = true;
   static final boolean DEFAULT_TRACE_128_BIT_TRACEID_LOGGING_ENABLED = false;
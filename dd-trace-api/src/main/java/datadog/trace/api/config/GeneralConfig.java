@@ -46,6 +46,9 @@ public final class GeneralConfig {
   public static final String STATSD_CLIENT_QUEUE_SIZE = "statsd.client.queue.size";
   public static final String STATSD_CLIENT_SOCKET_BUFFER = "statsd.client.socket.buffer";
   public static final String STATSD_CLIENT_SOCKET_TIMEOUT = "statsd.client.socket.timeout";
+  public static final String STATSD_CLIENT_AGGREGATION_FLUSH_INTERVAL =
+      "statsd.client.aggregation.flush.interval";
+  public static final String STATSD_CLIENT_AGGREGATION_SHARDS = "statsd.client.aggregation.shards";
 
   public static final String RUNTIME_METRICS_ENABLED = "runtime.metrics.enabled";
   public static final String RUNTIME_ID_ENABLED = "runtime-id.enabled";
@@ -81,6 +84,12 @@ public final class GeneralConfig {
   public static final String TELEMETRY_LOG_COLLECTION_ENABLED = "telemetry.log-collection.enabled";
   public static final String TELEMETRY_DEPENDENCY_RESOLUTION_QUEUE_SIZE =
       "telemetry.dependency-resolution.queue.size";
+  public static final String TELEMETRY_DEPENDENCY_RESOLUTION_BATCH_SIZE =
+      "telemetry.dependency-resolution.batch.size";
+  public static final String TELEMETRY_DEPENDENCY_RESOLUTION_PARALLELISM =
+      "telemetry.dependency-resolution.parallelism";
+  public static final String TELEMETRY_DEPENDENCY_RESOLUTION_CACHE_FILE =
+      "telemetry.dependency-resolution.cache.file";
   public static final String TELEMETRY_DEBUG_REQUESTS_ENABLED = "telemetry.debug.requests.enabled";
 
   private GeneralConfig() {}
@@ -35,6 +35,16 @@ public final class ProfilingConfig {
   public static final int PROFILING_UPLOAD_TIMEOUT_DEFAULT = 30;
   public static final String PROFILING_UPLOAD_COMPRESSION = "profiling.upload.compression";
   public static final String PROFILING_UPLOAD_COMPRESSION_DEFAULT = "on";
+  public static final String PROFILING_UPLOAD_COMPRESSION_PARALLELISM =
+      "profiling.upload.compression.parallelism";
+  public static final int PROFILING_UPLOAD_COMPRESSION_PARALLELISM_DEFAULT = 1;
+  public static final String PROFILING_UPLOAD_AGGREGATION_ENABLED =
+      "profiling.upload.aggregation.enabled";
+  public static final boolean PROFILING_UPLOAD_AGGREGATION_ENABLED_DEFAULT = false;
+  public static final String PROFILING_UPLOAD_AGGREGATION_EVENTS =
+      "profiling.upload.aggregation.events";
+  public static final String PROFILING_UPLOAD_AGGREGATION_EVENTS_DEFAULT =
+      "jdk.ObjectAllocationSample,datadog.ObjectSample";
   public static final String PROFILING_PROXY_HOST = "profiling.proxy.host";
   public static final String PROFILING_PROXY_PORT = "profiling.proxy.port";
   public static final int PROFILING_PROXY_PORT_DEFAULT = 8080;
@@ -127,6 +127,8 @@ public final class TraceInstrumentationConfig {
   public static final String RESOLVER_USE_URL_CACHES = "resolver.use.url.caches";
   public static final String RESOLVER_RESET_INTERVAL = "resolver.reset.interval";
   public static final String RESOLVER_NAMES_ARE_UNIQUE = "resolver.names.are.unique";
+  public static final String RESOLVER_SPECULATIVE_MATCHING_THREADS =
+      "resolver.speculative.matching.threads";
 
   public static final String ELASTICSEARCH_BODY_ENABLED = "trace.elasticsearch.body.enabled";
   public static final String ELASTICSEARCH_PARAMS_ENABLED = "trace.elasticsearch.params.enabled";
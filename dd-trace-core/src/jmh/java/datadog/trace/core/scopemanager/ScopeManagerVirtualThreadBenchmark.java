@@ -0,0 +1,102 @@
+package datadog.trace.core.scopemanager;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import datadog.trace.bootstrap.instrumentation.api.AgentScope;
+import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
+import datadog.trace.bootstrap.instrumentation.api.ScopeSource;
+import datadog.trace.common.writer.ListWriter;
+import datadog.trace.core.CoreTracer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs one million short-lived tasks that each check for an active span, and optionally activate
+ * one or two nested scopes, to measure per-thread scope-manager overhead.
+ *
+ * <p>Each task gets its own virtual thread when running on Java 21+, otherwise tasks fall back to
+ * a fixed pool of platform threads.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+public class ScopeManagerVirtualThreadBenchmark {
+
+  private static final int TASKS = 1_000_000;
+
+  @Param({"0", "1", "2"})
+  int depth;
+
+  private CoreTracer tracer;
+  private ContinuableScopeManager scopeManager;
+  private AgentSpan rootSpan;
+  private AgentSpan childSpan;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    tracer = CoreTracer.builder().writer(new ListWriter()).strictTraceWrites(false).build();
+    scopeManager = new ContinuableScopeManager(0, false, true);
+    rootSpan = tracer.startSpan("benchmark", "root");
+    childSpan = tracer.startSpan("benchmark", "child", rootSpan.context());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    tracer.close();
+  }
+
+  @Benchmark
+  public void millionTasks() throws Exception {
+    ExecutorService executor = newTaskExecutor();
+    try {
+      for (int i = 0; i < TASKS; i++) {
+        executor.execute(this::task);
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+  }
+
+  private void task() {
+    if (scopeManager.activeSpan() != null) {
+      throw new IllegalStateException("Unexpected active span");
+    }
+    if (depth > 0) {
+      try (AgentScope scope = scopeManager.activate(rootSpan, ScopeSource.INSTRUMENTATION)) {
+        if (depth > 1) {
+          try (AgentScope childScope =
+              scopeManager.activate(childSpan, ScopeSource.INSTRUMENTATION)) {
+            scopeManager.activeSpan();
+          }
+        }
+      }
+    }
+  }
+
+  private static ExecutorService newTaskExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package datadog.trace.core.tagprocessor;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import datadog.trace.api.DDTags;
+import java.util.HashMap;
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the default obfuscator, which prefilters queries, with the same pattern supplied as a
+ * custom regex, which always runs the regex.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Fork(value = 1)
+public class QueryObfuscatorBenchmark {
+
+  @Param({"10", "100"})
+  int params;
+
+  @Param({"false", "true"})
+  boolean withSecret;
+
+  private final QueryObfuscator defaultObfuscator = new QueryObfuscator(null);
+  private final QueryObfuscator regexObfuscator =
+      new QueryObfuscator(QueryObfuscator.DEFAULT_OBFUSCATION_PATTERN);
+
+  private String query;
+
+  @Setup
+  public void setup() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < params; i++) {
+      builder.append("param").append(i).append("=value").append(i).append('&');
+    }
+    if (withSecret) {
+      builder.append("access_token=a0b21ce2-006f-4cc6-95d5-d7b550698482&");
+    }
+    query = builder.append("page=1").toString();
+  }
+
+  @Benchmark
+  public Map<String, Object> defaultPattern() {
+    return defaultObfuscator.processTags(tags());
+  }
+
+  @Benchmark
+  public Map<String, Object> regexOnly() {
+    return regexObfuscator.processTags(tags());
+  }
+
+  private Map<String, Object> tags() {
+    Map<String, Object> tags = new HashMap<>();
+    tags.put(DDTags.HTTP_QUERY, query);
+    return tags;
+  }
+}
@@ -341,6 +341,14 @@ public class CiTestCycleMapperV1 implements RemoteMapper {
       return this;
     }
 
+    @Override
+    public Payload detach() {
+      if (header != null) {
+        header = copyOf(header);
+      }
+      return super.detach();
+    }
+
     @Override
     public int sizeInBytes() {
       if (traceCount() == 0) {
@@ -0,0 +1,65 @@
+package datadog.trace.common.writer;
+
+import datadog.communication.ddagent.DroppingPolicy;
+import datadog.trace.core.monitor.HealthMetrics;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drops traces dropped by the sampler while the serializer can't keep up with the traces kept by
+ * the sampler, so that it spends its time on traces which are going to be kept, before the primary
+ * queue overflows and kept traces have to be dropped.
+ *
+ * <p>The primary queue fills up whenever traces are published faster than they can be serialized
+ * and sent, so its occupancy is used as the feedback signal: shedding starts once the queue is half
+ * full, and stops once it has drained below a quarter of its capacity. Shedding is only done when
+ * stats are computed by the tracer, otherwise the agent would compute stats without these traces.
+ */
+final class BackpressureDroppingPolicy implements DroppingPolicy {
+
+  private final DroppingPolicy delegate;
+  private final Queue<?> primaryQueue;
+  private final HealthMetrics healthMetrics;
+  private final int startSheddingSize;
+  private final int stopSheddingSize;
+  private final AtomicBoolean shedding = new AtomicBoolean();
+
+  BackpressureDroppingPolicy(
+      DroppingPolicy delegate, Queue<?> primaryQueue, int capacity, HealthMetrics healthMetrics) {
+    this.delegate = delegate;
+    this.primaryQueue = primaryQueue;
+    this.healthMetrics = healthMetrics;
+    this.startSheddingSize = Math.max(1, capacity / 2);
+    this.stopSheddingSize = capacity / 4;
+  }
+
+  @Override
+  public boolean active() {
+    if (delegate.active()) {
+      return true;
+    }
+    if (!delegate.statsComputedByClient()) {
+      return false;
+    }
+    int size = primaryQueue.size();
+    if (shedding.get()) {
+      if (size <= stopSheddingSize) {
+        shedding.set(false);
+        return false;
+      }
+      return true;
+    }
+    if (size >= startSheddingSize) {
+      if (shedding.compareAndSet(false, true)) {
+        healthMetrics.onStartShedding();
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean statsComputedByClient() {
+    return delegate.statsComputedByClient();
+  }
+}
@@ -4,6 +4,7 @@ import datadog.trace.core.CoreSpan;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class CompositePayloadDispatcher implements PayloadDispatcher {
 
@@ -34,6 +35,24 @@ public class CompositePayloadDispatcher implements PayloadDispatcher {
     }
   }
 
+  @Override
+  public void awaitPendingSends() {
+    for (PayloadDispatcher delegate : delegates) {
+      delegate.awaitPendingSends();
+    }
+  }
+
+  @Override
+  public boolean awaitPendingSends(long timeout, TimeUnit unit) {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    boolean sent = true;
+    for (PayloadDispatcher delegate : delegates) {
+      long remaining = Math.max(0, deadline - System.nanoTime());
+      sent &= delegate.awaitPendingSends(remaining, TimeUnit.NANOSECONDS);
+    }
+    return sent;
+  }
+
   @Override
   public Collection<RemoteApi> getApis() {
     Collection<RemoteApi> apis = new ArrayList<>(delegates.length);
@@ -39,6 +39,15 @@ public abstract class Payload {
     return this;
   }
 
+  /**
+   * Copies the buffers of this payload, which otherwise belong to the serializer and are reused as
+   * soon as the next payload is serialized. Used when the payload is sent on another thread.
+   */
+  public Payload detach() {
+    body = copyOf(body);
+    return this;
+  }
+
   public int traceCount() {
     return traceCount;
   }
@@ -57,6 +66,13 @@ public abstract class Payload {
 
   public abstract RequestBody toRequest();
 
+  protected static ByteBuffer copyOf(ByteBuffer buffer) {
+    ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+    copy.put(buffer.duplicate());
+    copy.flip();
+    return copy;
+  }
+
   protected int msgpackArrayHeaderSize(int count) {
     if (count < 0x10) {
       return 1;
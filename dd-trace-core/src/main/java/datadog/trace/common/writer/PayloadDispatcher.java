@@ -3,6 +3,7 @@ package datadog.trace.common.writer;
 import datadog.trace.core.CoreSpan;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 interface PayloadDispatcher {
   void onDroppedTrace(int spanCount);
@@ -11,6 +12,16 @@ interface PayloadDispatcher {
 
   void flush();
 
+  /** Blocks until the payloads which are still being sent in the background have been sent. */
+  void awaitPendingSends();
+
+  /**
+   * Waits up to the given timeout for the payloads which are still being sent in the background.
+   *
+   * @return {@code true} if all of them have been sent
+   */
+  boolean awaitPendingSends(long timeout, TimeUnit unit);
+
   // used by tests
   Collection<RemoteApi> getApis();
 }
@@ -1,5 +1,9 @@
 package datadog.trace.common.writer;
 
+import static datadog.trace.util.AgentThreadFactory.AgentThread.TRACE_SENDER;
+import static datadog.trace.util.AgentThreadFactory.newAgentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
 import datadog.communication.monitor.Monitoring;
 import datadog.communication.monitor.Recording;
 import datadog.communication.serialization.ByteBufferConsumer;
@@ -12,15 +16,33 @@ import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.jctools.counters.CountersFactory;
 import org.jctools.counters.FixedSizeStripedLongCounter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Serializes traces into payloads and sends them to the API.
+ *
+ * <p>While the API responds quickly, payloads are sent on the serializing thread, without copying
+ * them. Once sends become slow, payloads are copied and sent on a background thread, so that
+ * serialization can go on while a payload is in flight. That thread is started on the first slow
+ * send and then waits for payloads for the lifetime of the dispatcher. At most {@link
+ * #MAX_PENDING_PAYLOADS} payloads are held for sending; the serializing thread waits for the
+ * oldest to be sent beyond that, which bounds the memory held by payload copies.
+ */
 public class PayloadDispatcherImpl implements ByteBufferConsumer, PayloadDispatcher {
 
   private static final Logger log = LoggerFactory.getLogger(PayloadDispatcherImpl.class);
 
+  static final long ASYNC_THRESHOLD_LATENCY = MILLISECONDS.toNanos(500);
+  static final int MAX_PENDING_PAYLOADS = 2;
+
   private final RemoteApi api;
   private final RemoteMapperDiscovery mapperDiscovery;
   private final HealthMetrics healthMetrics;
@@ -35,6 +57,13 @@ public class PayloadDispatcherImpl implements ByteBufferConsumer, PayloadDispatc
   private final FixedSizeStripedLongCounter droppedTraceCount =
       CountersFactory.createFixedSizeStripedCounter(8);
 
+  private final BlockingQueue<Payload> pendingPayloads =
+      new ArrayBlockingQueue<>(MAX_PENDING_PAYLOADS);
+  private final Semaphore sendPermits = new Semaphore(MAX_PENDING_PAYLOADS);
+  private final AtomicBoolean senderStarted = new AtomicBoolean();
+  // send latency, averaged when decreasing, only written by the thread which is sending
+  private volatile long sendLatency;
+
   public PayloadDispatcherImpl(
       RemoteMapperDiscovery mapperDiscovery,
       RemoteApi api,
@@ -53,6 +82,29 @@ public class PayloadDispatcherImpl implements ByteBufferConsumer, PayloadDispatc
     }
   }
 
+  @Override
+  public void awaitPendingSends() {
+    try {
+      sendPermits.acquire(MAX_PENDING_PAYLOADS);
+      sendPermits.release(MAX_PENDING_PAYLOADS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean awaitPendingSends(long timeout, TimeUnit unit) {
+    try {
+      if (sendPermits.tryAcquire(MAX_PENDING_PAYLOADS, timeout, unit)) {
+        sendPermits.release(MAX_PENDING_PAYLOADS);
+        return true;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
   @Override
   public Collection<RemoteApi> getApis() {
     return Collections.singleton(api);
@@ -108,22 +160,88 @@ public class PayloadDispatcherImpl implements ByteBufferConsumer, PayloadDispatc
     if (messageCount > 0) {
       batchTimer.reset();
       Payload payload = newPayload(messageCount, buffer);
-      final int sizeInBytes = payload.sizeInBytes();
-      healthMetrics.onSerialize(sizeInBytes);
-      RemoteApi.Response response = api.sendSerializedTraces(payload);
-      mapper.reset();
-      if (response.success()) {
-        if (log.isDebugEnabled()) {
-          log.debug("Successfully sent {} traces to the API", messageCount);
-        }
-        healthMetrics.onSend(messageCount, sizeInBytes, response);
+      healthMetrics.onSerialize(payload.sizeInBytes());
+      if (sendLatency < ASYNC_THRESHOLD_LATENCY
+          && sendPermits.availablePermits() == MAX_PENDING_PAYLOADS) {
+        // nothing is being sent in the background, and the API is responsive enough
+        // to send on this thread without copying the payload
+        send(payload);
+        mapper.reset();
       } else {
+        Payload detached = payload.detach();
+        mapper.reset();
+        sendAsync(detached);
+      }
+    }
+  }
+
+  private void sendAsync(Payload payload) {
+    try {
+      sendPermits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      int sizeInBytes = payload.sizeInBytes();
+      if (log.isDebugEnabled()) {
+        log.debug(
+            "Interrupted before sending {} traces of size {} bytes to the API",
+            payload.traceCount(),
+            sizeInBytes);
+      }
+      healthMetrics.onFailedSend(payload.traceCount(), sizeInBytes, RemoteApi.Response.failed(e));
+      return;
+    }
+    // there is always room in the queue once a permit has been acquired
+    pendingPayloads.offer(payload);
+    if (senderStarted.compareAndSet(false, true)) {
+      newAgentThread(TRACE_SENDER, this::sendPendingPayloads).start();
+    }
+  }
+
+  private void sendPendingPayloads() {
+    Thread thread = Thread.currentThread();
+    while (!thread.isInterrupted()) {
+      Payload payload;
+      try {
+        payload = pendingPayloads.take();
+      } catch (InterruptedException e) {
+        thread.interrupt();
+        break;
+      }
+      try {
+        send(payload);
+      } catch (Throwable e) {
         if (log.isDebugEnabled()) {
-          log.debug(
-              "Failed to send {} traces of size {} bytes to the API", messageCount, sizeInBytes);
+          log.debug("Error while sending traces", e);
         }
-        healthMetrics.onFailedSend(messageCount, sizeInBytes, response);
+        healthMetrics.onFailedSend(
+            payload.traceCount(), payload.sizeInBytes(), RemoteApi.Response.failed(e));
+      } finally {
+        sendPermits.release();
+      }
+    }
+  }
+
+  private void send(Payload payload) {
+    final int messageCount = payload.traceCount();
+    final int sizeInBytes = payload.sizeInBytes();
+    long start = System.nanoTime();
+    RemoteApi.Response response = api.sendSerializedTraces(payload);
+    long latency = System.nanoTime() - start;
+    // switch to background sends as soon as a send is slow, but only switch back
+    // once sends have been fast for a while
+    long averageLatency = sendLatency;
+    sendLatency = latency > averageLatency ? latency : (3 * averageLatency + latency) / 4;
+    if (response.success()) {
+      if (log.isDebugEnabled()) {
+        log.debug("Successfully sent {} traces to the API", messageCount);
+      }
+      healthMetrics.onSend(messageCount, sizeInBytes, response);
+    } else {
+      if (log.isDebugEnabled()) {
+        log.debug(
+            "Failed to send {} traces of size {} bytes to the API", messageCount, sizeInBytes);
       }
+      healthMetrics.onFailedSend(messageCount, sizeInBytes, response);
     }
   }
 }
@@ -54,6 +54,8 @@ public class TraceProcessingWorker implements AutoCloseable {
     this.capacity = capacity;
     this.primaryQueue = createQueue(capacity);
     this.secondaryQueue = createQueue(capacity);
+    DroppingPolicy backpressureDroppingPolicy =
+        new BackpressureDroppingPolicy(droppingPolicy, primaryQueue, capacity, healthMetrics);
     this.spanSamplingWorker =
         SpanSamplingWorker.build(
             capacity,
@@ -61,13 +63,13 @@ public class TraceProcessingWorker implements AutoCloseable {
             secondaryQueue,
             singleSpanSampler,
             healthMetrics,
-            droppingPolicy);
+            backpressureDroppingPolicy);
     this.prioritizationStrategy =
         prioritization.create(
             primaryQueue,
             secondaryQueue,
             spanSamplingWorker.getSpanSamplingQueue(),
-            droppingPolicy);
+            backpressureDroppingPolicy);
 
     boolean runAsDaemon = !Config.get().isCiVisibilityEnabled();
     this.serializingHandler =
@@ -187,6 +189,12 @@ public class TraceProcessingWorker implements AutoCloseable {
           }
         }
       }
+      // payloads still held for sending in the background would be lost once the JVM exits
+      long remainingMillis =
+          (long) (shutdownSignalTimestamp + SHUTDOWN_TIMEOUT_MILLIS - System.currentTimeMillis());
+      if (!awaitPendingSends(Math.max(0, remainingMillis), MILLISECONDS)) {
+        log.debug("Datadog trace processor exited before all payloads were sent");
+      }
       log.debug("Datadog trace processor exited. Unpublished traces left: " + !queuesAreEmpty());
     }
 
@@ -239,6 +247,7 @@ public class TraceProcessingWorker implements AutoCloseable {
           payloadDispatcher.addTrace(trace);
         } else if (event instanceof FlushEvent) {
           payloadDispatcher.flush();
+          payloadDispatcher.awaitPendingSends();
           ((FlushEvent) event).sync();
         }
       } catch (final Throwable e) {
@@ -250,6 +259,10 @@ public class TraceProcessingWorker implements AutoCloseable {
       }
     }
 
+    protected boolean awaitPendingSends(long timeout, TimeUnit unit) {
+      return payloadDispatcher.awaitPendingSends(timeout, unit);
+    }
+
     protected void consumeFromPrimaryQueue() throws InterruptedException {
       Object event = primaryQueue.poll(100, MILLISECONDS);
       if (null != event) {
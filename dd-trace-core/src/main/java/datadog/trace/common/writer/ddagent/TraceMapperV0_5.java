@@ -134,7 +134,7 @@ public final class TraceMapperV0_5 implements TraceMapper {
 
   private static class PayloadV0_5 extends Payload {
 
-    private final ByteBuffer dictionary;
+    private ByteBuffer dictionary;
     private final int stringCount;
 
     private PayloadV0_5(ByteBuffer dictionary, int stringCount) {
@@ -142,6 +142,12 @@ public final class TraceMapperV0_5 implements TraceMapper {
       this.stringCount = stringCount;
     }
 
+    @Override
+    public Payload detach() {
+      dictionary = copyOf(dictionary);
+      return super.detach();
+    }
+
     @Override
     public int sizeInBytes() {
       return 1
@@ -31,6 +31,8 @@ public abstract class HealthMetrics implements AutoCloseable {
 
   public void onPartialPublish(final int numberOfDroppedSpans) {}
 
+  public void onStartShedding() {}
+
   public void onScheduleFlush(final boolean previousIncomplete) {}
 
   public void onFlush(final boolean early) {}
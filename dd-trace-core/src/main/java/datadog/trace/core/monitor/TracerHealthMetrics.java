@@ -133,6 +133,9 @@ public class TracerHealthMetrics extends HealthMetrics implements AutoCloseable
   private final FixedSizeStripedLongCounter longRunningTracesExpired =
       CountersFactory.createFixedSizeStripedCounter(8);
 
+  private final FixedSizeStripedLongCounter sheddingStarted =
+      CountersFactory.createFixedSizeStripedCounter(8);
+
   private final StatsDClient statsd;
   private final long interval;
   private final TimeUnit units;
@@ -338,6 +341,11 @@ public class TracerHealthMetrics extends HealthMetrics implements AutoCloseable
     longRunningTracesExpired.inc(expired);
   }
 
+  @Override
+  public void onStartShedding() {
+    sheddingStarted.inc();
+  }
+
   private void onSendAttempt(
       final int traceCount, final int sizeInBytes, final RemoteApi.Response response) {
     apiRequests.inc();
@@ -378,7 +386,7 @@ public class TracerHealthMetrics extends HealthMetrics implements AutoCloseable
     private static final String[] UNSET_TAG = new String[] {"priority:unset"};
     private static final String[] SINGLE_SPAN_SAMPLER = new String[] {"sampler:single-span"};
 
-    private final long[] previousCounts = new long[43];
+    private final long[] previousCounts = new long[44];
     private int countIndex;
 
     @Override
@@ -489,6 +497,8 @@ public class TracerHealthMetrics extends HealthMetrics implements AutoCloseable
         reportIfChanged(
             target.statsd, "long-running.expired", target.longRunningTracesExpired, NO_TAGS);
 
+        reportIfChanged(target.statsd, "queue.shedding.started", target.sheddingStarted, NO_TAGS);
+
       } catch (ArrayIndexOutOfBoundsException e) {
         log.warn(
             "previousCounts array needs resizing to at least {}, was {}",
@@ -607,6 +617,8 @@ public class TracerHealthMetrics extends HealthMetrics implements AutoCloseable
         + "\nlongRunningTracesDropped="
         + longRunningTracesDropped.get()
         + "\nlongRunningTracesExpired="
-        + longRunningTracesExpired.get();
+        + longRunningTracesExpired.get()
+        + "\nsheddingStarted="
+        + sheddingStarted.get();
   }
 }
@@ -36,6 +36,9 @@ import org.slf4j.LoggerFactory;
  * currently active Scope. Such scopes can be suspended with a Continuation to prevent the trace
  * from being reported even if all related spans are finished. It also delegates to other
  * ScopeInterceptors to provide additional functionality.
+ *
+ * <p>Each thread's scope stack is only allocated when it first activates a scope, so the many
+ * threads that only check for an active span (such as short-lived virtual threads) stay cheap.
  */
 public final class ContinuableScopeManager implements AgentScopeManager {
   static final Logger log = LoggerFactory.getLogger(ContinuableScopeManager.class);
@@ -46,7 +49,7 @@ public final class ContinuableScopeManager implements AgentScopeManager {
   final List<ScopeListener> scopeListeners;
   final List<ExtendedScopeListener> extendedScopeListeners;
   final boolean strictMode;
-  private final ScopeStackThreadLocal tlsScopeStack;
+  private final ThreadLocal<ScopeStack> tlsScopeStack = new ThreadLocal<>();
   private final int depthLimit;
   private final boolean inheritAsyncPropagation;
   final HealthMetrics healthMetrics;
@@ -90,7 +93,6 @@ public final class ContinuableScopeManager implements AgentScopeManager {
     this.scopeListeners = new CopyOnWriteArrayList<>();
     this.extendedScopeListeners = new CopyOnWriteArrayList<>();
     this.healthMetrics = healthMetrics;
-    this.tlsScopeStack = new ScopeStackThreadLocal(profilingContextIntegration);
     this.profilingContextIntegration = profilingContextIntegration;
   }
 
@@ -187,7 +189,10 @@ public final class ContinuableScopeManager implements AgentScopeManager {
 
   @Override
   public void closePrevious(final boolean finishSpan) {
-    ScopeStack scopeStack = scopeStack();
+    ScopeStack scopeStack = tlsScopeStack.get();
+    if (scopeStack == null) {
+      return; // nothing activated on this thread
+    }
 
     // close any immediately previous iteration scope
     final ContinuableScope top = scopeStack.top;
@@ -240,15 +245,21 @@ public final class ContinuableScopeManager implements AgentScopeManager {
 
   @Override
   public AgentScope active() {
-    return scopeStack().active();
+    return activeScope();
   }
 
   @Override
   public AgentSpan activeSpan() {
-    final ContinuableScope active = scopeStack().active();
+    final ContinuableScope active = activeScope();
     return active == null ? null : active.span;
   }
 
+  /** Returns the active scope without allocating a scope stack for this thread. */
+  private ContinuableScope activeScope() {
+    final ScopeStack scopeStack = tlsScopeStack.get();
+    return scopeStack == null ? null : scopeStack.active();
+  }
+
   /** Attach a listener to scope activation events */
   public void addScopeListener(final ScopeListener listener) {
     if (listener instanceof ExtendedScopeListener) {
@@ -288,8 +299,14 @@ public final class ContinuableScopeManager implements AgentScopeManager {
     return Stateful.DEFAULT;
   }
 
+  /** Returns the scope stack for this thread, allocating it on first use. */
   ScopeStack scopeStack() {
-    return this.tlsScopeStack.get();
+    ScopeStack scopeStack = this.tlsScopeStack.get();
+    if (scopeStack == null) {
+      scopeStack = new ScopeStack(profilingContextIntegration);
+      this.tlsScopeStack.set(scopeStack);
+    }
+    return scopeStack;
   }
 
   @Override
@@ -299,7 +316,7 @@ public final class ContinuableScopeManager implements AgentScopeManager {
 
   private class ContinuableScopeState implements ScopeState {
 
-    private ScopeStack localScopeStack = tlsScopeStack.initialValue();
+    private ScopeStack localScopeStack = new ScopeStack(profilingContextIntegration);
 
     @Override
     public void activate() {
@@ -312,20 +329,6 @@ public final class ContinuableScopeManager implements AgentScopeManager {
     }
   }
 
-  static final class ScopeStackThreadLocal extends ThreadLocal<ScopeStack> {
-
-    private final ProfilingContextIntegration profilingContextIntegration;
-
-    ScopeStackThreadLocal(ProfilingContextIntegration profilingContextIntegration) {
-      this.profilingContextIntegration = profilingContextIntegration;
-    }
-
-    @Override
-    protected ScopeStack initialValue() {
-      return new ScopeStack(profilingContextIntegration);
-    }
-  }
-
   private void scheduleRootIterationScopeCleanup(ScopeStack scopeStack, ContinuableScope scope) {
     if (rootIterationScopes == null) {
       synchronized (this) {
@@ -7,11 +7,14 @@ import java.util.ArrayDeque;
 /**
  * The invariant is that the top of a non-empty stack is always active. Anytime a scope is closed,
  * cleanup() is called to ensure the invariant
+ *
+ * <p>Most threads never nest scopes, so previous scopes are only given a deque on the first nested
+ * push; until then the stack is just the top scope.
  */
 final class ScopeStack {
 
   private final ProfilingContextIntegration profilingContextIntegration;
-  private final ArrayDeque<ContinuableScope> stack = new ArrayDeque<>(); // previous scopes
+  private ArrayDeque<ContinuableScope> stack; // previous scopes, allocated on first nested push
 
   ContinuableScope top; // current scope
 
@@ -35,7 +38,7 @@ final class ScopeStack {
       // no longer alive -- trigger listener & null out
       curScope.onProperClose();
       changedTop = true;
-      curScope = stack.poll();
+      curScope = stack != null ? stack.poll() : null;
     }
     if (curScope != null && curScope == overdueRootScope) {
       // we know this scope is the last on the stack and is overdue
@@ -58,6 +61,9 @@ final class ScopeStack {
   void push(final ContinuableScope scope) {
     scope.beforeActivated();
     if (top != null) {
+      if (stack == null) {
+        stack = new ArrayDeque<>();
+      }
       stack.push(top);
     } else {
       onBecomeNonEmpty();
@@ -84,6 +90,9 @@ final class ScopeStack {
     // remaining references so the scope gets removed in the subsequent cleanup() call
     top.clearReferences();
     top.span.finishWithEndToEnd();
+    if (stack == null) {
+      return false; // no previous scopes, so we didn't find the expected scope
+    }
     // now do the same for any previous iteration scopes ahead of the expected scope
     for (ContinuableScope scope : stack) {
       if (scope.source() != ScopeSource.ITERATION.id()) {
@@ -98,12 +107,17 @@ final class ScopeStack {
 
   /** Returns the current depth, including the top scope */
   int depth() {
-    return top != null ? 1 + stack.size() : 0;
+    if (top == null) {
+      return 0;
+    }
+    return stack != null ? 1 + stack.size() : 1;
   }
 
   // DQH - regrettably needed for pre-existing tests
   void clear() {
-    stack.clear();
+    if (stack != null) {
+      stack.clear();
+    }
     top = null;
   }
 
@@ -14,10 +14,11 @@ public class QueryObfuscator implements TagsPostProcessor {
 
   private static final Logger log = LoggerFactory.getLogger(QueryObfuscator.class);
 
-  private static final String DEFAULT_OBFUSCATION_PATTERN =
+  static final String DEFAULT_OBFUSCATION_PATTERN =
       "(?i)(?:(?:\"|%22)?)(?:(?:old[-_]?|new[-_]?)?p(?:ass)?w(?:or)?d(?:1|2)?|pass(?:[-_]?phrase)?|secret|(?:api[-_]?|private[-_]?|public[-_]?|access[-_]?|secret[-_]?|app(?:lication)?[-_]?)key(?:[-_]?id)?|token|consumer[-_]?(?:id|key|secret)|sign(?:ed|ature)?|auth(?:entication|orization)?)(?:(?:\\s|%20)*(?:=|%3D)[^&]+|(?:\"|%22)(?:\\s|%20)*(?::|%3A)(?:\\s|%20)*(?:\"|%22)(?:%2[^2]|%[^2]|[^\"%])+(?:\"|%22))|(?:bearer(?:\\s|%20)+[a-z0-9._\\-]+|token(?::|%3A)[a-z0-9]{13}|gh[opsu]_[0-9a-zA-Z]{36}|ey[I-L](?:[\\w=-]|%3D)+\\.ey[I-L](?:[\\w=-]|%3D)+(?:\\.(?:[\\w.+/=-]|%3D|%2F|%2B)+)?|-{5}BEGIN(?:[a-z\\s]|%20)+PRIVATE(?:\\s|%20)KEY-{5}[^\\-]+-{5}END(?:[a-z\\s]|%20)+PRIVATE(?:\\s|%20)KEY(?:-{5})?(?:\\n|%0A)?|(?:ssh-(?:rsa|dss)|ecdsa-[a-z0-9]+-[a-z0-9]+)(?:\\s|%20|%09)+(?:[a-z0-9/.+]|%2F|%5C|%2B){100,}(?:=|%3D)*(?:(?:\\s|%20|%09)+[a-z0-9._-]+)?)";
 
   private final Pattern pattern;
+  private final boolean prefilter;
 
   /**
    * If regex is null - then used default regex pattern If regex is empty string - then disable
@@ -27,10 +28,12 @@ public class QueryObfuscator implements TagsPostProcessor {
     // empty string -> disabled query obfuscation
     if ("".equals(regex)) {
       this.pattern = null;
+      this.prefilter = false;
       return;
     }
 
-    // null -> use default regex
+    // null -> use default regex, which can be prefiltered
+    this.prefilter = regex == null;
     if (regex == null) {
       regex = DEFAULT_OBFUSCATION_PATTERN;
     }
@@ -45,7 +48,7 @@ public class QueryObfuscator implements TagsPostProcessor {
   }
 
   private String obfuscate(String query) {
-    if (pattern != null) {
+    if (pattern != null && (!prefilter || mightMatchDefaultPattern(query))) {
       Matcher matcher = pattern.matcher(query);
       while (matcher.find()) {
         query = Strings.replace(query, matcher.group(), "<redacted>");
@@ -54,6 +57,87 @@ public class QueryObfuscator implements TagsPostProcessor {
     return query;
   }
 
+  /**
+   * Returns {@code false} when the query contains none of the fragments that every match of the
+   * default pattern must contain, so running the regex can be skipped. Checked in one pass.
+   */
+  static boolean mightMatchDefaultPattern(String query) {
+    int length = query.length();
+    for (int i = 0; i < length; ++i) {
+      char c = query.charAt(i);
+      if (c >= 0x80) {
+        return true; // case-insensitive matching also folds some non-ASCII letters
+      }
+      switch (c >= 'A' && c <= 'Z' ? (char) (c | 0x20) : c) {
+        case 'p':
+          if (isFragment(query, i, "pw") || isFragment(query, i, "pass")) {
+            return true;
+          }
+          break;
+        case 's':
+          if (isFragment(query, i, "secret")
+              || isFragment(query, i, "sign")
+              || isFragment(query, i, "ssh-")) {
+            return true;
+          }
+          break;
+        case 'k':
+          if (isFragment(query, i, "key")) {
+            return true;
+          }
+          break;
+        case 't':
+          if (isFragment(query, i, "token")) {
+            return true;
+          }
+          break;
+        case 'c':
+          if (isFragment(query, i, "consumer")) {
+            return true;
+          }
+          break;
+        case 'a':
+          if (isFragment(query, i, "auth")) {
+            return true;
+          }
+          break;
+        case 'b':
+          if (isFragment(query, i, "bearer")) {
+            return true;
+          }
+          break;
+        case 'g': // gh[opsu]_ tokens
+          if (isFragment(query, i, "gh") && i + 3 < length && query.charAt(i + 3) == '_') {
+            return true;
+          }
+          break;
+        case 'e': // ey[i-l] tokens or ecdsa- keys
+          if (isFragment(query, i, "ey") && i + 2 < length && isIToL(query.charAt(i + 2))
+              || isFragment(query, i, "ecdsa-")) {
+            return true;
+          }
+          break;
+        case '-':
+          if (query.startsWith("-----", i)) {
+            return true;
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isIToL(char c) {
+    char lower = (char) (c | 0x20);
+    return lower >= 'i' && lower <= 'l';
+  }
+
+  private static boolean isFragment(String query, int offset, String fragment) {
+    return query.regionMatches(true, offset, fragment, 0, fragment.length());
+  }
+
   @Override
   public Map<String, Object> processTags(Map<String, Object> unsafeTags) {
     Object query = unsafeTags.get(DDTags.HTTP_QUERY);
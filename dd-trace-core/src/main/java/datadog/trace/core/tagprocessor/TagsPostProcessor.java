@@ -3,6 +3,10 @@ package datadog.trace.core.tagprocessor;
 import datadog.trace.core.DDSpanContext;
 import java.util.Map;
 
+/**
+ * Post-processes span tags just before they are serialized. For the agent writer this happens on
+ * the trace processing worker thread, trace by trace, rather than on application threads.
+ */
 public interface TagsPostProcessor {
   Map<String, Object> processTags(Map<String, Object> unsafeTags);
 
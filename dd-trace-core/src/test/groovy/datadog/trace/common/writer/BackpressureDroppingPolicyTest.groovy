@@ -0,0 +1,137 @@
+package datadog.trace.common.writer
+
+import datadog.communication.ddagent.DDAgentFeaturesDiscovery
+import datadog.communication.http.OkHttpUtils
+import datadog.communication.monitor.Monitoring
+import datadog.trace.core.monitor.HealthMetrics
+import datadog.trace.test.util.DDSpecification
+import okhttp3.HttpUrl
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+
+import static datadog.trace.agent.test.server.http.TestHttpServer.httpServer
+
+class BackpressureDroppingPolicyTest extends DDSpecification {
+
+  static final String INFO_WITH_CLIENT_DROPPING =
+  '{"endpoints":["/v0.4/traces","/v0.6/stats"],"client_drop_p0s":true}'
+  static final String INFO_WITHOUT_CLIENT_DROPPING =
+  '{"endpoints":["/v0.4/traces","/v0.6/stats"]}'
+  static final String INFO_WITHOUT_STATS =
+  '{"endpoints":["/v0.4/traces"],"client_drop_p0s":true}'
+
+  @Shared
+  volatile String info
+
+  @Shared
+  @AutoCleanup
+  def agent = httpServer {
+    handlers {
+      get("info") {
+        response.status(200).sendWithType("application/json", info)
+      }
+    }
+  }
+
+  def "shed traces while the primary queue backs up when stats are computed by the tracer"() {
+    setup:
+    def features = discover(INFO_WITHOUT_CLIENT_DROPPING, true)
+    HealthMetrics healthMetrics = Mock(HealthMetrics)
+    Queue<Object> queue = new ArrayDeque<>()
+    def policy = new BackpressureDroppingPolicy(features, queue, 8, healthMetrics)
+
+    when: "the queue is below half its capacity"
+    3.times { queue.offer(it) }
+    boolean active = policy.active()
+
+    then:
+    features.supportsMetrics()
+    !features.active()
+    !active
+    0 * healthMetrics.onStartShedding()
+
+    when: "the queue is half full"
+    queue.offer(3)
+    boolean first = policy.active()
+    boolean second = policy.active()
+
+    then: "shedding starts"
+    first
+    second
+    1 * healthMetrics.onStartShedding()
+
+    when: "the queue drains, but is still above a quarter of its capacity"
+    queue.poll()
+    active = policy.active()
+
+    then: "shedding goes on"
+    active
+    0 * healthMetrics.onStartShedding()
+
+    when: "the queue has drained to a quarter of its capacity"
+    queue.poll()
+    active = policy.active()
+
+    then: "shedding stops"
+    !active
+
+    when: "the queue is half full again"
+    2.times { queue.offer(it) }
+    active = policy.active()
+
+    then: "shedding starts again"
+    active
+    1 * healthMetrics.onStartShedding()
+  }
+
+  def "do not shed traces when stats are computed by the agent"() {
+    setup:
+    def features = discover(agentInfo, metricsEnabled)
+    HealthMetrics healthMetrics = Mock(HealthMetrics)
+    Queue<Object> queue = new ArrayDeque<>()
+    8.times { queue.offer(it) }
+    def policy = new BackpressureDroppingPolicy(features, queue, 8, healthMetrics)
+
+    when:
+    boolean active = policy.active()
+
+    then:
+    !features.supportsMetrics()
+    !active
+    0 * healthMetrics.onStartShedding()
+
+    where:
+    agentInfo                    | metricsEnabled
+    INFO_WITH_CLIENT_DROPPING    | false
+    INFO_WITHOUT_CLIENT_DROPPING | false
+    INFO_WITHOUT_STATS           | true
+  }
+
+  def "agent dropping policy takes precedence"() {
+    setup:
+    def features = discover(INFO_WITH_CLIENT_DROPPING, true)
+    HealthMetrics healthMetrics = Mock(HealthMetrics)
+    def policy = new BackpressureDroppingPolicy(features, new ArrayDeque<>(), 8, healthMetrics)
+
+    when:
+    boolean active = policy.active()
+
+    then:
+    features.active()
+    active
+    0 * healthMetrics.onStartShedding()
+  }
+
+  DDAgentFeaturesDiscovery discover(String info, boolean metricsEnabled) {
+    this.info = info
+    def agentUrl = HttpUrl.get(agent.address)
+    def features = new DDAgentFeaturesDiscovery(
+      OkHttpUtils.buildHttpClient(agentUrl, 1000),
+      Monitoring.DISABLED,
+      agentUrl,
+      false,
+      metricsEnabled)
+    features.discover()
+    return features
+  }
+}
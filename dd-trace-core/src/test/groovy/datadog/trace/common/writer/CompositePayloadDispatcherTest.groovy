@@ -5,6 +5,8 @@ import datadog.trace.common.writer.ddintake.DDIntakeApi
 import datadog.trace.core.CoreSpan
 import spock.lang.Specification
 
+import java.util.concurrent.TimeUnit
+
 class CompositePayloadDispatcherTest extends Specification {
 
   def "test onDroppedTrace"() {
@@ -56,6 +58,25 @@ class CompositePayloadDispatcherTest extends Specification {
     0 * _
   }
 
+  def "test awaitPendingSends"() {
+    given:
+    def dispatcherA = Mock(PayloadDispatcher)
+    def dispatcherB = Mock(PayloadDispatcher)
+    def dispatcher = new CompositePayloadDispatcher(dispatcherA, dispatcherB)
+
+    when:
+    boolean sent = dispatcher.awaitPendingSends(1, TimeUnit.SECONDS)
+
+    then:
+    1 * dispatcherA.awaitPendingSends({ it <= TimeUnit.SECONDS.toNanos(1) }, TimeUnit.NANOSECONDS) >> true
+    1 * dispatcherB.awaitPendingSends(_, TimeUnit.NANOSECONDS) >> sentByB
+    0 * _
+    sent == sentByB
+
+    where:
+    sentByB << [true, false]
+  }
+
   def "test getApis"() {
     given:
     def dispatcherA = Mock(PayloadDispatcher)
@@ -20,6 +20,8 @@ import spock.lang.Shared
 import spock.lang.Timeout
 
 import java.nio.ByteBuffer
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicBoolean
 
@@ -146,6 +148,104 @@ class PayloadDispatcherImplTest extends DDSpecification {
     newPayload.droppedTraces() == 0
   }
 
+  @Timeout(10)
+  def "send payloads in the background while the API is slow"() {
+    setup:
+    HealthMetrics healthMetrics = Stub(HealthMetrics)
+    DDAgentFeaturesDiscovery discovery = Stub(DDAgentFeaturesDiscovery)
+    discovery.getTraceEndpoint() >> traceEndpoint
+    List<String> sendingThreads = new CopyOnWriteArrayList<>()
+    List<Integer> sentSizes = new CopyOnWriteArrayList<>()
+    CountDownLatch release = new CountDownLatch(1)
+    DDAgentApi api = Stub(DDAgentApi)
+    api.sendSerializedTraces(_) >> { Payload payload ->
+      sendingThreads.add(Thread.currentThread().getName())
+      sentSizes.add(payload.sizeInBytes())
+      if (sendingThreads.size() == 1) {
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(PayloadDispatcherImpl.ASYNC_THRESHOLD_LATENCY) + 100)
+      } else {
+        release.await()
+      }
+      return RemoteApi.Response.success(200)
+    }
+    PayloadDispatcherImpl dispatcher = new PayloadDispatcherImpl(new DDAgentMapperDiscovery(discovery), api, healthMetrics, monitoring)
+    List<DDSpan> trace = [realSpan()]
+
+    when: "the first payload is sent slowly"
+    dispatcher.addTrace(trace)
+    dispatcher.flush()
+
+    then: "it is sent on the serializing thread"
+    sendingThreads == [Thread.currentThread().getName()]
+
+    when: "the next payloads are flushed"
+    for (int i = 0; i < PayloadDispatcherImpl.MAX_PENDING_PAYLOADS; i++) {
+      dispatcher.addTrace(trace)
+      dispatcher.addTrace(trace)
+      dispatcher.flush()
+    }
+    Thread serializer = new Thread({
+      dispatcher.addTrace(trace)
+      dispatcher.addTrace(trace)
+      dispatcher.flush()
+    })
+    serializer.start()
+    serializer.join(200)
+
+    then: "they are held for sending without blocking, up to the limit"
+    serializer.isAlive()
+    !dispatcher.awaitPendingSends(50, TimeUnit.MILLISECONDS)
+
+    when: "the API responds again"
+    release.countDown()
+    serializer.join()
+    boolean sent = dispatcher.awaitPendingSends(5, TimeUnit.SECONDS)
+
+    then: "all payloads have been sent in the background, with their own copy of the buffers"
+    sendingThreads.size() == 2 + PayloadDispatcherImpl.MAX_PENDING_PAYLOADS
+    sendingThreads.subList(1, sendingThreads.size()).every { it == "dd-trace-sender" }
+    sentSizes.subList(2, sentSizes.size()).every { it == sentSizes[1] }
+    sent
+
+    where:
+    traceEndpoint << ["v0.5/traces", "v0.4/traces"]
+  }
+
+  @Timeout(10)
+  def "reuse the background sender across slow bursts"() {
+    setup:
+    HealthMetrics healthMetrics = Stub(HealthMetrics)
+    DDAgentFeaturesDiscovery discovery = Stub(DDAgentFeaturesDiscovery)
+    discovery.getTraceEndpoint() >> "v0.4/traces"
+    long slowMillis = TimeUnit.NANOSECONDS.toMillis(PayloadDispatcherImpl.ASYNC_THRESHOLD_LATENCY) + 100
+    List<Thread> sendingThreads = new CopyOnWriteArrayList<>()
+    DDAgentApi api = Stub(DDAgentApi)
+    api.sendSerializedTraces(_) >> {
+      sendingThreads.add(Thread.currentThread())
+      if (sendingThreads.size() % 2 == 1) {
+        Thread.sleep(slowMillis)
+      }
+      return RemoteApi.Response.success(200)
+    }
+    PayloadDispatcherImpl dispatcher = new PayloadDispatcherImpl(new DDAgentMapperDiscovery(discovery), api, healthMetrics, monitoring)
+    List<DDSpan> trace = [realSpan()]
+
+    when: "two bursts each start with a slow send"
+    2.times {
+      dispatcher.addTrace(trace)
+      dispatcher.flush()
+      dispatcher.addTrace(trace)
+      dispatcher.flush()
+      dispatcher.awaitPendingSends()
+    }
+
+    then: "the slow sends happen on the serializing thread, the others on a single sender thread"
+    sendingThreads.size() == 4
+    sendingThreads[0] == Thread.currentThread()
+    sendingThreads[2] == Thread.currentThread()
+    sendingThreads[1].getName() == "dd-trace-sender"
+    sendingThreads[3].is(sendingThreads[1])
+  }
 
   def realSpan() {
     CoreTracer tracer = Stub(CoreTracer)
@@ -415,6 +415,21 @@ class HealthMetricsTest extends DDSpecification {
     healthMetrics.close()
   }
 
+  def "test onStartShedding"() {
+    setup:
+    def latch = new CountDownLatch(1)
+    def healthMetrics = new TracerHealthMetrics(new Latched(statsD, latch), 100, TimeUnit.MILLISECONDS)
+    healthMetrics.start()
+    when:
+    healthMetrics.onStartShedding()
+    healthMetrics.onStartShedding()
+    latch.await(10, TimeUnit.SECONDS)
+    then:
+    1 * statsD.count("queue.shedding.started", 2, _)
+    cleanup:
+    healthMetrics.close()
+  }
+
   private static class Latched implements StatsDClient {
     final StatsDClient delegate
     final CountDownLatch latch
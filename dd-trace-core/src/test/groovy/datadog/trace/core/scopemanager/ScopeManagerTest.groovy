@@ -179,6 +179,43 @@ class ScopeManagerTest extends DDCoreSpecification {
     writer.empty
   }
 
+  def "scope stack is only allocated when a scope is activated"() {
+    when:
+    scopeManager.active()
+    scopeManager.activeSpan()
+    scopeManager.closePrevious(true)
+
+    then:
+    scopeManager.tlsScopeStack.get() == null
+
+    when:
+    def span = tracer.buildSpan("test").start()
+    def scope = tracer.activateSpan(span)
+
+    then: "a single scope does not need a deque of previous scopes"
+    scopeManager.tlsScopeStack.get() != null
+    scopeManager.scopeStack().depth() == 1
+    scopeManager.scopeStack().stack == null
+
+    when:
+    def childSpan = tracer.buildSpan("child").start()
+    def childScope = tracer.activateSpan(childSpan)
+
+    then:
+    scopeManager.scopeStack().depth() == 2
+    scopeManager.scopeStack().stack != null
+
+    when:
+    childScope.close()
+    childSpan.finish()
+    scope.close()
+    span.finish()
+
+    then:
+    scopeManager.scopeStack().depth() == 0
+    scopeManager.active() == null
+  }
+
   def "simple scope and span lifecycle"() {
     when:
     def span = tracer.buildSpan("test").start()
@@ -51,6 +51,26 @@ class PeerServiceCalculatorTest extends DDSpecification {
     ["peer.hostname": "test", "peer.service": "userService"]                      | null               | "userService"
   }
 
+  def "schema v1: consecutive spans with different components resolve their own precursors"() {
+    setup:
+    def calculator = new PeerServiceCalculator(new NamingSchemaV1().peerService(), Collections.emptyMap())
+
+    when:
+    def results = [
+      ["component": "grpc-client", "rpc.service": "svc", "peer.hostname": "test"],
+      ["component": "grpc-client", "rpc.service": "svc2", "peer.hostname": "test"],
+      ["component": "java-jdbc", "rpc.service": "svc", "peer.hostname": "test"],
+      ["rpc.service": "svc", "peer.hostname": "test"],
+      ["component": "grpc-client", "peer.hostname": "test"],
+    ].collect {
+      it.put(Tags.SPAN_KIND, Tags.SPAN_KIND_CLIENT)
+      calculator.processTags(it).get(Tags.PEER_SERVICE)
+    }
+
+    then:
+    results == ["svc", "svc2", "test", "test", "test"]
+  }
+
   def "schema v0: should calculate defaults if enabled"() {
     setup:
     injectSysConfig(TracerConfig.TRACE_PEER_SERVICE_DEFAULTS_ENABLED, "true")
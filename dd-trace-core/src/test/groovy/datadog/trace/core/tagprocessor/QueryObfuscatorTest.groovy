@@ -24,5 +24,39 @@ class QueryObfuscatorTest extends DDSpecification {
     query                                                               | expectedQuery
     'key1=val1&token=a0b21ce2-006f-4cc6-95d5-d7b550698482&key2=val2'    | 'key1=val1&<redacted>&key2=val2'
     'app_key=1111&application_key=2222'                                 | '<redacted>&<redacted>'
+    'Authorization=Bearer%20abc.def&page=1'                             | '<redacted>&page=1'
+    'page=1&sort=desc&filter=name'                                      | 'page=1&sort=desc&filter=name'
+  }
+
+  def "default pattern prefilter only rules out queries that cannot match"() {
+    expect:
+    QueryObfuscator.mightMatchDefaultPattern(query) == mightMatch
+
+    where:
+    query                                      | mightMatch
+    ''                                         | false
+    'page=1&sort=desc&filter=name'             | false
+    'user=abc&id=12&lang=en-GB'                | false
+    'survey=1&journey=home'                    | false
+    'PASSWORD=secret'                          | true
+    'x=Bearer%20abc'                           | true
+    'x=ghp_0123456789'                         | true
+    'x=eyJhbGciOi.eyJzdWIi'                    | true
+    'x=EYLhbGciOi'                             | true
+    'x=-----BEGIN%20RSA%20PRIVATE%20KEY-----'  | true
+    'x=ssh-rsa%20AAAA'                         | true
+    'x=ſecret'                            | true
+  }
+
+  def "custom pattern is always applied"() {
+    setup:
+    def obfuscator = new QueryObfuscator('page=\\d+')
+    def tags = [(DDTags.HTTP_QUERY): 'page=1&sort=desc']
+
+    when:
+    def result = obfuscator.processTags(tags)
+
+    then:
+    result.get(DDTags.HTTP_QUERY) == '<redacted>&sort=desc'
   }
 }
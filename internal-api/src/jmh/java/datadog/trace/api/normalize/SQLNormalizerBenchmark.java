@@ -0,0 +1,65 @@
+package datadog.trace.api.normalize;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import datadog.trace.bootstrap.instrumentation.api.UTF8BytesString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Fork(value = 1)
+public class SQLNormalizerBenchmark {
+
+  @Param({"select", "join", "insert", "in-list-50k"})
+  String query;
+
+  private String sql;
+
+  @Setup
+  public void setup() {
+    switch (query) {
+      case "select":
+        sql = "SELECT * FROM TABLE WHERE userId = 'abc1287681964' ORDER BY FOO DESC";
+        break;
+      case "join":
+        sql =
+            "SELECT t0.id, t0.name, t1.total FROM customers t0"
+                + " JOIN orders t1 ON t0.id = t1.customer_id"
+                + " WHERE t0.region = 'EMEA' AND t1.total > 100.50 AND t1.created > -1e6 LIMIT 25";
+        break;
+      case "insert":
+        sql =
+            "INSERT INTO \"VALUE\" (\"col1\", \"col2\", \"col3\", \"col4\")"
+                + " VALUES ('blah', 12983, X'ff', 'ljahklshdlKASH')";
+        break;
+      case "in-list-50k":
+        // ORM generated query with a large IN (...) list of mixed literals
+        StringBuilder in = new StringBuilder("SELECT * FROM orders WHERE id IN (");
+        for (int i = 0; in.length() < 50_000; i++) {
+          in.append(i).append(", 'order-").append(i).append("', ");
+        }
+        sql = in.append("0)").toString();
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown query " + query);
+    }
+  }
+
+  @Benchmark
+  public UTF8BytesString normalize() {
+    return SQLNormalizer.normalize(sql);
+  }
+}
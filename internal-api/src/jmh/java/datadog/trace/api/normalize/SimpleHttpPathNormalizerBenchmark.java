@@ -0,0 +1,46 @@
+package datadog.trace.api.normalize;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Run with {@code -prof gc} to compare allocation rates between the benchmarks. */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Fork(value = 1)
+public class SimpleHttpPathNormalizerBenchmark {
+
+  private final SimpleHttpPathNormalizer normalizer = new SimpleHttpPathNormalizer();
+
+  private final String[] paths = new String[1024];
+  private int next;
+
+  @Setup
+  public void setup() {
+    for (int i = 0; i < paths.length; i++) {
+      paths[i] = "/api/v2/users/" + i + "/orders/" + (i * 31) + "/items";
+    }
+  }
+
+  @Benchmark
+  public String normalizeUnchanged() {
+    return normalizer.normalize("/api/v2/users/me/orders");
+  }
+
+  @Benchmark
+  public String normalizeRepeatedRoute() {
+    return normalizer.normalize(paths[next++ & (paths.length - 1)]);
+  }
+}
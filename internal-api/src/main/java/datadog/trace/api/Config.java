@@ -101,6 +101,8 @@ import static datadog.trace.api.ConfigDefaults.DEFAULT_SERVLET_ROOT_CONTEXT_SERV
 import static datadog.trace.api.ConfigDefaults.DEFAULT_SITE;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_STARTUP_LOGS_ENABLED;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_TELEMETRY_DEPENDENCY_COLLECTION_ENABLED;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_TELEMETRY_DEPENDENCY_RESOLUTION_BATCH_SIZE;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_TELEMETRY_DEPENDENCY_RESOLUTION_PARALLELISM;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_TELEMETRY_DEPENDENCY_RESOLUTION_QUEUE_SIZE;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_TELEMETRY_EXTENDED_HEARTBEAT_INTERVAL;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_TELEMETRY_HEARTBEAT_INTERVAL;
@@ -244,11 +246,16 @@ import static datadog.trace.api.config.GeneralConfig.RUNTIME_METRICS_ENABLED;
 import static datadog.trace.api.config.GeneralConfig.SERVICE_NAME;
 import static datadog.trace.api.config.GeneralConfig.SITE;
 import static datadog.trace.api.config.GeneralConfig.STARTUP_LOGS_ENABLED;
+import static datadog.trace.api.config.GeneralConfig.STATSD_CLIENT_AGGREGATION_FLUSH_INTERVAL;
+import static datadog.trace.api.config.GeneralConfig.STATSD_CLIENT_AGGREGATION_SHARDS;
 import static datadog.trace.api.config.GeneralConfig.STATSD_CLIENT_QUEUE_SIZE;
 import static datadog.trace.api.config.GeneralConfig.STATSD_CLIENT_SOCKET_BUFFER;
 import static datadog.trace.api.config.GeneralConfig.STATSD_CLIENT_SOCKET_TIMEOUT;
 import static datadog.trace.api.config.GeneralConfig.TAGS;
 import static datadog.trace.api.config.GeneralConfig.TELEMETRY_DEPENDENCY_COLLECTION_ENABLED;
+import static datadog.trace.api.config.GeneralConfig.TELEMETRY_DEPENDENCY_RESOLUTION_BATCH_SIZE;
+import static datadog.trace.api.config.GeneralConfig.TELEMETRY_DEPENDENCY_RESOLUTION_CACHE_FILE;
+import static datadog.trace.api.config.GeneralConfig.TELEMETRY_DEPENDENCY_RESOLUTION_PARALLELISM;
 import static datadog.trace.api.config.GeneralConfig.TELEMETRY_DEPENDENCY_RESOLUTION_QUEUE_SIZE;
 import static datadog.trace.api.config.GeneralConfig.TELEMETRY_EXTENDED_HEARTBEAT_INTERVAL;
 import static datadog.trace.api.config.GeneralConfig.TELEMETRY_HEARTBEAT_INTERVAL;
@@ -634,6 +641,8 @@ public class Config {
   private final Integer statsDClientQueueSize;
   private final Integer statsDClientSocketBuffer;
   private final Integer statsDClientSocketTimeout;
+  private final Integer statsDClientAggregationFlushInterval;
+  private final Integer statsDClientAggregationShards;
 
   private final boolean runtimeMetricsEnabled;
   private final boolean jmxFetchEnabled;
@@ -896,6 +905,9 @@ public class Config {
   private final boolean telemetryMetricsEnabled;
   private final boolean isTelemetryLogCollectionEnabled;
   private final int telemetryDependencyResolutionQueueSize;
+  private final int telemetryDependencyResolutionBatchSize;
+  private final int telemetryDependencyResolutionParallelism;
+  private final String telemetryDependencyResolutionCacheFile;
 
   private final boolean azureAppServices;
   private final String traceAgentPath;
@@ -1352,6 +1364,9 @@ public class Config {
     statsDClientQueueSize = configProvider.getInteger(STATSD_CLIENT_QUEUE_SIZE);
     statsDClientSocketBuffer = configProvider.getInteger(STATSD_CLIENT_SOCKET_BUFFER);
     statsDClientSocketTimeout = configProvider.getInteger(STATSD_CLIENT_SOCKET_TIMEOUT);
+    statsDClientAggregationFlushInterval =
+        configProvider.getInteger(STATSD_CLIENT_AGGREGATION_FLUSH_INTERVAL);
+    statsDClientAggregationShards = configProvider.getInteger(STATSD_CLIENT_AGGREGATION_SHARDS);
 
     runtimeMetricsEnabled = configProvider.getBoolean(RUNTIME_METRICS_ENABLED, true);
 
@@ -1566,6 +1581,16 @@ public class Config {
         configProvider.getInteger(
             TELEMETRY_DEPENDENCY_RESOLUTION_QUEUE_SIZE,
             DEFAULT_TELEMETRY_DEPENDENCY_RESOLUTION_QUEUE_SIZE);
+    telemetryDependencyResolutionBatchSize =
+        configProvider.getInteger(
+            TELEMETRY_DEPENDENCY_RESOLUTION_BATCH_SIZE,
+            DEFAULT_TELEMETRY_DEPENDENCY_RESOLUTION_BATCH_SIZE);
+    telemetryDependencyResolutionParallelism =
+        configProvider.getInteger(
+            TELEMETRY_DEPENDENCY_RESOLUTION_PARALLELISM,
+            DEFAULT_TELEMETRY_DEPENDENCY_RESOLUTION_PARALLELISM);
+    telemetryDependencyResolutionCacheFile =
+        configProvider.getString(TELEMETRY_DEPENDENCY_RESOLUTION_CACHE_FILE);
     clientIpEnabled = configProvider.getBoolean(CLIENT_IP_ENABLED, DEFAULT_CLIENT_IP_ENABLED);
 
     appSecReportingInband =
@@ -2384,6 +2409,14 @@ public class Config {
     return statsDClientSocketTimeout;
   }
 
+  public Integer getStatsDClientAggregationFlushInterval() {
+    return statsDClientAggregationFlushInterval;
+  }
+
+  public Integer getStatsDClientAggregationShards() {
+    return statsDClientAggregationShards;
+  }
+
   public boolean isRuntimeMetricsEnabled() {
     return runtimeMetricsEnabled;
   }
@@ -2691,6 +2724,18 @@ public class Config {
     return telemetryDependencyResolutionQueueSize;
   }
 
+  public int getTelemetryDependencyResolutionBatchSize() {
+    return telemetryDependencyResolutionBatchSize;
+  }
+
+  public int getTelemetryDependencyResolutionParallelism() {
+    return telemetryDependencyResolutionParallelism;
+  }
+
+  public String getTelemetryDependencyResolutionCacheFile() {
+    return telemetryDependencyResolutionCacheFile;
+  }
+
   public boolean isClientIpEnabled() {
     return clientIpEnabled;
   }
@@ -38,6 +38,7 @@ import static datadog.trace.api.config.TraceInstrumentationConfig.RESOLVER_CACHE
 import static datadog.trace.api.config.TraceInstrumentationConfig.RESOLVER_NAMES_ARE_UNIQUE;
 import static datadog.trace.api.config.TraceInstrumentationConfig.RESOLVER_RESET_INTERVAL;
 import static datadog.trace.api.config.TraceInstrumentationConfig.RESOLVER_SIMPLE_METHOD_GRAPH;
+import static datadog.trace.api.config.TraceInstrumentationConfig.RESOLVER_SPECULATIVE_MATCHING_THREADS;
 import static datadog.trace.api.config.TraceInstrumentationConfig.RESOLVER_USE_LOADCLASS;
 import static datadog.trace.api.config.TraceInstrumentationConfig.RESOLVER_USE_URL_CACHES;
 import static datadog.trace.api.config.TraceInstrumentationConfig.RUNTIME_CONTEXT_FIELD_INJECTION;
@@ -121,6 +122,7 @@ public class InstrumenterConfig {
   private final boolean resolverUseLoadClass;
   private final Boolean resolverUseUrlCaches;
   private final int resolverResetInterval;
+  private final int resolverSpeculativeMatchingThreads;
 
   private final boolean runtimeContextFieldInjection;
   private final boolean serialVersionUIDFieldInjection;
@@ -207,6 +209,10 @@ public class InstrumenterConfig {
         Platform.isNativeImageBuilder()
             ? 0
             : configProvider.getInteger(RESOLVER_RESET_INTERVAL, DEFAULT_RESOLVER_RESET_INTERVAL);
+    resolverSpeculativeMatchingThreads =
+        Platform.isNativeImageBuilder()
+            ? 0
+            : configProvider.getInteger(RESOLVER_SPECULATIVE_MATCHING_THREADS, 0);
 
     runtimeContextFieldInjection =
         configProvider.getBoolean(
@@ -374,6 +380,10 @@ public class InstrumenterConfig {
     return resolverResetInterval;
   }
 
+  public int getResolverSpeculativeMatchingThreads() {
+    return resolverSpeculativeMatchingThreads;
+  }
+
   public boolean isRuntimeContextFieldInjection() {
     return runtimeContextFieldInjection;
   }
@@ -496,6 +506,8 @@ public class InstrumenterConfig {
         + resolverUseUrlCaches
         + ", resolverResetInterval="
         + resolverResetInterval
+        + ", resolverSpeculativeMatchingThreads="
+        + resolverSpeculativeMatchingThreads
         + ", runtimeContextFieldInjection="
         + runtimeContextFieldInjection
         + ", serialVersionUIDFieldInjection="
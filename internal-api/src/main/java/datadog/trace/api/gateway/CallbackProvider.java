@@ -4,6 +4,14 @@ package datadog.trace.api.gateway;
 public interface CallbackProvider {
   <C> C getCallback(EventType<C> eventType);
 
+  /**
+   * Cheap check that lets producers skip preparing event data, such as fetching the request
+   * context, when no callback is registered for any event type.
+   */
+  default boolean hasCallbacks() {
+    return true;
+  }
+
   class CallbackProviderNoop implements CallbackProvider {
     public static final CallbackProvider INSTANCE = new CallbackProviderNoop();
 
@@ -13,5 +21,10 @@ public interface CallbackProvider {
     public <C> C getCallback(EventType<C> eventType) {
       return null;
     }
+
+    @Override
+    public boolean hasCallbacks() {
+      return false;
+    }
   }
 }
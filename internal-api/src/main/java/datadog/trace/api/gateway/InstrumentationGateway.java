@@ -22,6 +22,7 @@ import datadog.trace.api.function.TriFunction;
 import datadog.trace.api.http.StoredBodySupplier;
 import datadog.trace.bootstrap.instrumentation.api.URIDataAdapter;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -74,43 +75,63 @@ public class InstrumentationGateway {
     return this.universalCallbackProvider;
   }
 
+  private static final Object[] NO_CALLBACKS = new Object[MAX_EVENTS];
+
+  /**
+   * Publishes the merged AppSec and IAST callbacks as an immutable table indexed by event id. The
+   * table is rebuilt whenever a subscription changes, so looking up a callback is a single volatile
+   * read and never merges or allocates on the request path.
+   */
   private class UniversalCallbackProvider implements CallbackProvider {
-    final AtomicReferenceArray<Object> callbacks = new AtomicReferenceArray<>(MAX_EVENTS);
+    private volatile Object[] dispatchTable = NO_CALLBACKS;
 
     @Override
+    @SuppressWarnings("unchecked")
     public <C> C getCallback(EventType<C> eventType) {
-      int id = eventType.getId();
-      C cb = (C) callbacks.get(id);
-      if (cb != null) {
-        return cb;
-      }
+      return (C) dispatchTable[eventType.getId()];
+    }
 
-      cb = universalCallback(eventType);
-      if (!callbacks.compareAndSet(id, null, cb)) {
-        return getCallback(eventType);
-      }
-      return cb;
+    @Override
+    public boolean hasCallbacks() {
+      return dispatchTable != NO_CALLBACKS;
     }
 
-    void reset() {
-      for (int i = 0; i < callbacks.length(); i++) {
-        callbacks.set(i, null);
+    synchronized void rebuild() {
+      Object[] table = null;
+      for (int id = 0; id < MAX_EVENTS; id++) {
+        Object callback = universalCallback(id);
+        if (callback != null) {
+          if (table == null) {
+            table = new Object[MAX_EVENTS];
+          }
+          table[id] = callback;
+        }
       }
+      dispatchTable = table != null ? table : NO_CALLBACKS;
+    }
+
+    synchronized void reset() {
+      dispatchTable = NO_CALLBACKS;
     }
   }
 
   private class IGCallbackRegistry implements CallbackProvider, SubscriptionService {
     private final AtomicReferenceArray<Object> callbacks = new AtomicReferenceArray<>(MAX_EVENTS);
+    private final AtomicInteger subscriptions = new AtomicInteger();
 
     // for tests
     public void reset() {
       for (int i = 0; i < callbacks.length(); i++) {
         callbacks.set(i, null);
       }
+      subscriptions.set(0);
     }
 
     void reset(EventType<?> et) {
-      callbacks.set(et.getId(), null);
+      if (callbacks.getAndSet(et.getId(), null) != null) {
+        subscriptions.decrementAndGet();
+        universalCallbackProvider.rebuild();
+      }
     }
 
     @Override
@@ -119,6 +140,11 @@ public class InstrumentationGateway {
       return (C) callbacks.get(eventType.getId());
     }
 
+    @Override
+    public boolean hasCallbacks() {
+      return subscriptions.get() > 0;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <C> Subscription registerCallback(final EventType<C> eventType, final C callback) {
@@ -132,15 +158,17 @@ public class InstrumentationGateway {
         throw new IllegalStateException(message);
       }
 
-      universalCallbackProvider.callbacks.set(id, null);
+      subscriptions.incrementAndGet();
+      universalCallbackProvider.rebuild();
 
       return new Subscription() {
         @Override
         public void cancel() {
-          if (!callbacks.compareAndSet(id, wrapped, null)) {
-            if (log.isDebugEnabled()) {
-              log.debug("Failed to unregister callback {} for event type {}", callback, eventType);
-            }
+          if (callbacks.compareAndSet(id, wrapped, null)) {
+            subscriptions.decrementAndGet();
+            universalCallbackProvider.rebuild();
+          } else if (log.isDebugEnabled()) {
+            log.debug("Failed to unregister callback {} for event type {}", callback, eventType);
           }
         }
       };
@@ -364,10 +392,10 @@ public class InstrumentationGateway {
     }
   }
 
-  private <C> C universalCallback(final EventType<C> eventType) {
-    final C callbackAppSec =
-        InstrumentationGateway.this.callbackRegistryAppSec.getCallback(eventType);
-    final C callbackIast = InstrumentationGateway.this.callbackRegistryIast.getCallback(eventType);
+  @SuppressWarnings("unchecked")
+  private <C> C universalCallback(final int eventId) {
+    final C callbackAppSec = (C) callbackRegistryAppSec.callbacks.get(eventId);
+    final C callbackIast = (C) callbackRegistryIast.callbacks.get(eventId);
     if (callbackAppSec == null && callbackIast == null) {
       return null;
     }
@@ -378,7 +406,7 @@ public class InstrumentationGateway {
       return callbackIast;
     }
 
-    switch (eventType.getId()) {
+    switch (eventId) {
       case REQUEST_ENDED_ID:
         return (C)
             (BiFunction<RequestContext, IGSpanInfo, Flow<Void>>)
@@ -16,6 +16,10 @@ public class PeerServiceNamingV1 implements NamingSchema.ForPeerService {
 
   private final Map<String, String> overridesByComponent;
 
+  // spans are processed trace by trace, and consecutive spans tend to share the same component,
+  // so remember how the last component resolved (benign race as resolutions are immutable)
+  private ComponentResolution lastResolution;
+
   private static Map<Object, String[]> initPrecursorsByComponent() {
     final Map<Object, String[]> ret = new HashMap<>(7);
     // messaging
@@ -53,23 +57,35 @@ public class PeerServiceNamingV1 implements NamingSchema.ForPeerService {
   }
 
   private void resolve(@Nonnull final Map<String, Object> unsafeTags) {
-    final Object component = unsafeTags.get(Tags.COMPONENT);
-    // avoid issues with UTF8ByteString or others
-    final String componentString = component == null ? null : component.toString();
-    final String override = overridesByComponent.get(componentString);
+    final ComponentResolution resolution = resolveComponent(unsafeTags.get(Tags.COMPONENT));
     // check if value can be overridden
-    if (override != null) {
-      set(unsafeTags, override, "_component_override");
+    if (resolution.override != null) {
+      set(unsafeTags, resolution.override, "_component_override");
       return;
     }
     // otherwise try to lookup by component specific precursor
-    if (resolveBy(unsafeTags, SPECIFIC_PRECURSORS_BY_COMPONENT.get(componentString))) {
+    if (resolveBy(unsafeTags, resolution.precursors)) {
       return;
     }
     // finally fallback to default lookup
     resolveBy(unsafeTags, DEFAULT_PRECURSORS);
   }
 
+  private ComponentResolution resolveComponent(final Object component) {
+    ComponentResolution resolution = lastResolution;
+    if (resolution == null || resolution.component != component) {
+      // avoid issues with UTF8ByteString or others
+      final String componentString = component == null ? null : component.toString();
+      resolution =
+          new ComponentResolution(
+              component,
+              overridesByComponent.get(componentString),
+              SPECIFIC_PRECURSORS_BY_COMPONENT.get(componentString));
+      lastResolution = resolution;
+    }
+    return resolution;
+  }
+
   private boolean resolveBy(
       @Nonnull final Map<String, Object> unsafeTags, @Nullable final String[] precursors) {
     if (precursors == null) {
@@ -108,4 +124,16 @@ public class PeerServiceNamingV1 implements NamingSchema.ForPeerService {
     }
     return unsafeTags;
   }
+
+  private static final class ComponentResolution {
+    final Object component;
+    final String override;
+    final String[] precursors;
+
+    ComponentResolution(Object component, String override, String[] precursors) {
+      this.component = component;
+      this.override = override;
+      this.precursors = precursors;
+    }
+  }
 }
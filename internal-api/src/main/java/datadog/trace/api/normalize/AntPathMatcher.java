@@ -62,14 +62,19 @@ final class AntPathMatcher {
    *     didn't
    */
   public boolean match(String pattern, String path) {
+    return match(pattern, tokenize(pattern), path, tokenize(path));
+  }
+
+  /**
+   * match the given <code>path</code> against the given <code>pattern</code>, when both have
+   * already been tokenized into directories using {@link #tokenize}.
+   */
+  boolean match(String pattern, String[] pattDirs, String path, String[] pathDirs) {
     String pathSeparator = "/";
     if (path == null || path.startsWith(pathSeparator) != pattern.startsWith(pathSeparator)) {
       return false;
     }
 
-    String[] pattDirs = tokenizeToStringArray(pattern, pathSeparator);
-    String[] pathDirs = tokenizeToStringArray(path, pathSeparator);
-
     int pattIdxStart = 0;
     int pattIdxEnd = pattDirs.length - 1;
     int pathIdxStart = 0;
@@ -326,6 +331,11 @@ final class AntPathMatcher {
 
   private static final String[] EMPTY_STRING_ARRAY = {};
 
+  /** Splits the given path or pattern into its non-empty directories. */
+  static String[] tokenize(String path) {
+    return tokenizeToStringArray(path, "/");
+  }
+
   private static String[] tokenizeToStringArray(String str, String delimiters) {
 
     if (str == null) {
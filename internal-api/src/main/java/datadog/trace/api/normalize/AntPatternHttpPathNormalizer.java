@@ -4,32 +4,47 @@ import datadog.trace.api.cache.DDCache;
 import datadog.trace.api.cache.DDCaches;
 import datadog.trace.bootstrap.instrumentation.api.URIUtils;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Normalizes paths using the first matching Ant-style pattern.
+ *
+ * <p>Patterns are indexed in a trie by their leading literal directories, so a path is only
+ * matched against patterns whose literal prefix it shares, instead of every configured pattern.
+ * Candidates are still tried in configuration order, which keeps first-match semantics.
+ */
 final class AntPatternHttpPathNormalizer extends HttpPathNormalizer {
   private static final Logger log = LoggerFactory.getLogger(AntPatternHttpPathNormalizer.class);
 
   /** Used to preserve original value as is when it's mapped to this value. */
   private static final String KEEP_AS_IS = "*";
 
-  private final Map<String, String> resourceNameMatchers;
   private final AntPathMatcher matcher = new AntPathMatcher();
 
+  private final String[] patterns;
+  private final String[][] patternDirs;
+  private final String[] resourceNames;
+  private final PatternNode patternTrie = new PatternNode();
+
   private final DDCache<String, String> cache = DDCaches.newFixedSizeCache(512);
   private final Function<String, String> cacheLoader =
       new Function<String, String>() {
         @Override
         public String apply(String path) {
-          for (Map.Entry<String, String> resourceNameMatcher : resourceNameMatchers.entrySet()) {
-            if (matcher.match(resourceNameMatcher.getKey(), path)) {
-              if (KEEP_AS_IS.equals(resourceNameMatcher.getValue())) {
+          String[] pathDirs = AntPathMatcher.tokenize(path);
+          BitSet candidates = candidatePatterns(pathDirs);
+          for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (matcher.match(patterns[i], patternDirs[i], path, pathDirs)) {
+              if (KEEP_AS_IS.equals(resourceNames[i])) {
                 return path;
               }
-              return resourceNameMatcher.getValue();
+              return resourceNames[i];
             }
           }
           return null;
@@ -37,18 +52,29 @@ final class AntPatternHttpPathNormalizer extends HttpPathNormalizer {
       };
 
   AntPatternHttpPathNormalizer(Map<String, String> httpResourceNameMatchers) {
-    resourceNameMatchers = httpResourceNameMatchers;
-
     // Clean up invalid patterns
     List<String> invalidPatterns = new ArrayList<>(httpResourceNameMatchers.keySet().size());
-    for (String pattern : resourceNameMatchers.keySet()) {
+    for (String pattern : httpResourceNameMatchers.keySet()) {
       if (!matcher.isPattern(pattern)) {
         invalidPatterns.add(pattern);
       }
     }
     for (String invalid : invalidPatterns) {
       log.warn("Invalid pattern {} removed from matchers", invalid);
-      resourceNameMatchers.remove(invalid);
+      httpResourceNameMatchers.remove(invalid);
+    }
+
+    int patternCount = httpResourceNameMatchers.size();
+    patterns = new String[patternCount];
+    patternDirs = new String[patternCount][];
+    resourceNames = new String[patternCount];
+    int i = 0;
+    for (Map.Entry<String, String> resourceNameMatcher : httpResourceNameMatchers.entrySet()) {
+      patterns[i] = resourceNameMatcher.getKey();
+      patternDirs[i] = AntPathMatcher.tokenize(patterns[i]);
+      resourceNames[i] = resourceNameMatcher.getValue();
+      patternTrie.add(patternDirs[i], i);
+      i++;
     }
   }
 
@@ -59,4 +85,43 @@ final class AntPatternHttpPathNormalizer extends HttpPathNormalizer {
     }
     return cache.computeIfAbsent(path, cacheLoader);
   }
+
+  /** Selects patterns whose leading literal directories match the start of the path. */
+  BitSet candidatePatterns(String[] pathDirs) {
+    BitSet candidates = new BitSet(patterns.length);
+    PatternNode node = patternTrie;
+    node.addPatternsTo(candidates);
+    for (String pathDir : pathDirs) {
+      node = node.children.get(pathDir);
+      if (null == node) {
+        break;
+      }
+      node.addPatternsTo(candidates);
+    }
+    return candidates;
+  }
+
+  /**
+   * Trie node keyed by literal directory; patterns are attached to the node reached by their
+   * literal prefix, since that prefix has to match exactly for the rest of the pattern to apply.
+   */
+  private static final class PatternNode {
+    final Map<String, PatternNode> children = new HashMap<>();
+    final BitSet patterns = new BitSet();
+
+    void add(String[] dirs, int patternIndex) {
+      PatternNode node = this;
+      for (String dir : dirs) {
+        if (dir.indexOf('*') >= 0 || dir.indexOf('?') >= 0) {
+          break;
+        }
+        node = node.children.computeIfAbsent(dir, k -> new PatternNode());
+      }
+      node.patterns.set(patternIndex);
+    }
+
+    void addPatternsTo(BitSet candidates) {
+      candidates.or(patterns);
+    }
+  }
 }
@@ -47,45 +47,155 @@ public final class SQLNormalizer {
   public static UTF8BytesString normalize(String sql) {
     byte[] utf8 = sql.getBytes(UTF_8);
     try {
-      BitSet splitters = findSplitterPositions(utf8);
-      int outputLength = utf8.length;
-      int end = outputLength;
-      int start = end > 0 ? splitters.previousSetBit(end - 1) : -1;
+      // single forward pass which compacts literals in place, so the output never overtakes
+      // the input; tokens are delimited by splitters outside of quotes
+      int outputLength = 0;
+      int tokenStart = -1; // -1 while the leading token is being copied, it's never replaced
       boolean modified = false;
-      // strip out anything ending with a quote (covers string and hex literals)
-      // or anything starting with a number, a quote, a decimal point, or a sign
-      while (end > 0 && start > 0) {
-        int sequenceStart = start + 1;
-        int sequenceEnd = end - 1;
-        if (sequenceEnd == sequenceStart) {
-          // single digit numbers can can be fixed in place
-          if (Character.isDigit(utf8[sequenceStart])) {
-            utf8[sequenceStart] = '?';
-            modified = true;
-          }
-        } else if (sequenceStart < sequenceEnd) {
-          if (isQuoted(utf8, sequenceStart, sequenceEnd)
-              || isNumericLiteralPrefix(utf8, sequenceStart)
-              || isHexLiteralPrefix(utf8, sequenceStart, sequenceEnd)) {
-            int length = sequenceEnd - sequenceStart;
-            System.arraycopy(utf8, end, utf8, sequenceStart + 1, outputLength - end);
-            utf8[sequenceStart] = '?';
-            outputLength -= length;
+      boolean quoted = false;
+      boolean escaped = false;
+      for (int i = 0; i < utf8.length; ++i) {
+        byte b = utf8[i];
+        boolean splitter = false;
+        if (b == '\'' && !escaped) {
+          quoted = !quoted;
+        } else {
+          escaped = (b == '\\') & !escaped;
+          splitter = !quoted & isSplitter(b);
+        }
+        if (splitter) {
+          // strip out anything ending with a quote (covers string and hex literals)
+          // or anything starting with a number, a quote, a decimal point, or a sign
+          if (tokenStart >= 0 && isLiteral(utf8, tokenStart, outputLength - 1)) {
+            utf8[tokenStart] = '?';
+            outputLength = tokenStart + 1;
             modified = true;
           }
+          utf8[outputLength++] = b;
+          tokenStart = i > 0 ? outputLength : -1;
+        } else {
+          utf8[outputLength++] = b;
         }
-        end = start;
-        start = splitters.previousSetBit(start - 1);
+      }
+      if (tokenStart >= 0 && isLiteral(utf8, tokenStart, outputLength - 1)) {
+        utf8[tokenStart] = '?';
+        outputLength = tokenStart + 1;
+        modified = true;
       }
       if (modified) {
-        return UTF8BytesString.create(Arrays.copyOf(utf8, outputLength));
+        return UTF8BytesString.create(
+            outputLength < utf8.length ? Arrays.copyOf(utf8, outputLength) : utf8);
       }
     } catch (Throwable paranoid) {
       log.debug("Error normalizing sql {}", sql, paranoid);
+      return UTF8BytesString.create(sql); // bytes may have been partially compacted
     }
     return UTF8BytesString.create(sql, utf8);
   }
 
+  /**
+   * Returns the hash code of the normalized form of the SQL, without normalizing it. This is the
+   * same as {@code normalize(sql).toString().hashCode()}, but values of literals are skipped over.
+   */
+  public static int shapeHashCode(String sql) {
+    int hash = 0;
+    int start = 0;
+    while (true) {
+      int end = tokenEnd(sql, start);
+      if (start > 1 && isLiteral(sql, start, end - 1)) {
+        hash = 31 * hash + '?';
+      } else {
+        for (int i = start; i < end; ++i) {
+          hash = 31 * hash + sql.charAt(i);
+        }
+      }
+      if (end == sql.length()) {
+        return hash;
+      }
+      hash = 31 * hash + sql.charAt(end);
+      start = end + 1;
+    }
+  }
+
+  /** Returns {@code true} when normalizing the SQL would produce the given normalized form. */
+  public static boolean hasShape(String sql, CharSequence normalized) {
+    int pos = 0;
+    int start = 0;
+    while (true) {
+      int end = tokenEnd(sql, start);
+      if (start > 1 && isLiteral(sql, start, end - 1)) {
+        if (pos >= normalized.length() || normalized.charAt(pos++) != '?') {
+          return false;
+        }
+      } else {
+        if (pos + (end - start) > normalized.length()) {
+          return false;
+        }
+        for (int i = start; i < end; ++i) {
+          if (normalized.charAt(pos++) != sql.charAt(i)) {
+            return false;
+          }
+        }
+      }
+      if (end == sql.length()) {
+        return pos == normalized.length();
+      }
+      if (pos >= normalized.length() || normalized.charAt(pos++) != sql.charAt(end)) {
+        return false;
+      }
+      start = end + 1;
+    }
+  }
+
+  /**
+   * Returns the index of the next splitter outside of quotes, or the length when there is none.
+   * Quoting always ends before a splitter, so each token can be scanned on its own.
+   */
+  private static int tokenEnd(String sql, int start) {
+    boolean quoted = false;
+    boolean escaped = false;
+    for (int i = start; i < sql.length(); ++i) {
+      char c = sql.charAt(i);
+      if (c == '\'' && !escaped) {
+        quoted = !quoted;
+      } else {
+        escaped = (c == '\\') & !escaped;
+        if (!quoted && c < 0x80 && isSplitter((byte) c)) {
+          return i;
+        }
+      }
+    }
+    return sql.length();
+  }
+
+  /** Character-based equivalent of the UTF-8 check; multi-byte characters are never literals. */
+  private static boolean isLiteral(String sql, int start, int end) {
+    if (start == end) {
+      char c = sql.charAt(start);
+      return c >= '0' && c <= '9';
+    } else if (start < end) {
+      char c = sql.charAt(start);
+      return (c == '\'' && sql.charAt(end) == '\'')
+          || (c < 0x80
+              && NUMERIC_LITERAL_PREFIX.get(c)
+              && !(c == '-' && sql.charAt(start + 1) == '-'))
+          || ((c | ' ') == 'x' && start + 1 < end && sql.charAt(start + 1) == '\'');
+    }
+    return false;
+  }
+
+  private static boolean isLiteral(byte[] utf8, int start, int end) {
+    if (start == end) {
+      // single digit numbers
+      return Character.isDigit(utf8[start]);
+    } else if (start < end) {
+      return isQuoted(utf8, start, end)
+          || isNumericLiteralPrefix(utf8, start)
+          || isHexLiteralPrefix(utf8, start, end);
+    }
+    return false; // empty token between adjacent splitters
+  }
+
   private static boolean isQuoted(byte[] utf8, int start, int end) {
     return (utf8[start] == '\'' && utf8[end] == '\'');
   }
@@ -103,20 +213,4 @@ public final class SQLNormalizer {
   private static boolean isSplitter(byte symbol) {
     return SPLITTERS.get(symbol & 0xFF);
   }
-
-  private static BitSet findSplitterPositions(byte[] utf8) {
-    BitSet positions = new BitSet(utf8.length);
-    boolean quoted = false;
-    boolean escaped = false;
-    for (int i = 0; i < utf8.length; ++i) {
-      byte b = utf8[i];
-      if (b == '\'' && !escaped) {
-        quoted = !quoted;
-      } else {
-        escaped = (b == '\\') & !escaped;
-        positions.set(i, !quoted & isSplitter(b));
-      }
-    }
-    return positions;
-  }
 }
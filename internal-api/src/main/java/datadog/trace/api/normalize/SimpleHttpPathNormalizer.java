@@ -1,10 +1,23 @@
 package datadog.trace.api.normalize;
 
 import datadog.trace.api.Config;
+import datadog.trace.api.cache.DDCaches;
+import datadog.trace.api.cache.DDPartialKeyCache;
 
 // public because this is used in the testing module but groovy accesses it through Class.forName
 // which is banned
 public final class SimpleHttpPathNormalizer extends HttpPathNormalizer {
+  private static final int MAX_INTERNED_LENGTH = 1024; // characters
+  private static final int MAX_RETAINED_CAPACITY = 4096; // characters
+
+  // normalized paths are built in a per-thread buffer and only turned into a string when they
+  // are not already cached, so repeated routes share the same string without allocating
+  private static final ThreadLocal<StringBuilder> BUFFER =
+      ThreadLocal.withInitial(StringBuilder::new);
+
+  private static final DDPartialKeyCache<StringBuilder, String> NORMALIZED_PATHS =
+      DDCaches.newFixedSizePartialKeyCache(512);
+
   // package private so things outside groovy for tests can't create an instance
   SimpleHttpPathNormalizer() {}
 
@@ -73,7 +86,42 @@ public final class SimpleHttpPathNormalizer extends HttpPathNormalizer {
         }
       }
     }
-    return sb == null ? path : sb.length() == 0 ? "/" : sb.toString();
+    return sb == null ? path : sb.length() == 0 ? "/" : toNormalizedPath(sb);
+  }
+
+  private static String toNormalizedPath(StringBuilder buffer) {
+    int length = buffer.length();
+    String normalized =
+        length <= MAX_INTERNED_LENGTH
+            ? NORMALIZED_PATHS.computeIfAbsent(
+                buffer,
+                0,
+                length,
+                SimpleHttpPathNormalizer::hash,
+                SimpleHttpPathNormalizer::contentEquals,
+                SimpleHttpPathNormalizer::produce)
+            : buffer.toString();
+    if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+      BUFFER.remove(); // don't hold on to the buffer of an unusually long path
+    }
+    return normalized;
+  }
+
+  private static int hash(StringBuilder buffer, int start, int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + buffer.charAt(i);
+    }
+    return hash;
+  }
+
+  private static boolean contentEquals(
+      StringBuilder buffer, int start, int end, String normalized) {
+    return normalized.contentEquals(buffer);
+  }
+
+  private static String produce(StringBuilder buffer, int hash, int start, int end) {
+    return buffer.toString();
   }
 
   private static boolean isDigit(char c) {
@@ -82,7 +130,8 @@ public final class SimpleHttpPathNormalizer extends HttpPathNormalizer {
 
   private static StringBuilder ensureStringBuilder(StringBuilder sb, String path, int position) {
     if (sb == null) {
-      sb = new StringBuilder();
+      sb = BUFFER.get();
+      sb.setLength(0);
       sb.append(path, 0, position);
     }
 
@@ -12,10 +12,12 @@ public final class AgentThreadFactory implements ThreadFactory {
   // known agent threads
   public enum AgentThread {
     TASK_SCHEDULER("dd-task-scheduler"),
+    SPECULATIVE_MATCHING("dd-speculative-matching"),
 
     TRACE_STARTUP("dd-agent-startup-datadog-tracer"),
     TRACE_MONITOR("dd-trace-monitor"),
     TRACE_PROCESSOR("dd-trace-processor"),
+    TRACE_SENDER("dd-trace-sender"),
     SPAN_SAMPLING_PROCESSOR("dd-span-sampling-processor"),
     TRACE_CASSANDRA_ASYNC_SESSION("dd-cassandra-session-executor"),
 
@@ -28,10 +30,12 @@ public final class AgentThreadFactory implements ThreadFactory {
     PROFILER_STARTUP("dd-agent-startup-datadog-profiler"),
     PROFILER_RECORDING_SCHEDULER("dd-profiler-recording-scheduler"),
     PROFILER_HTTP_DISPATCHER("dd-profiler-http-dispatcher"),
+    PROFILER_COMPRESSION("dd-profiler-compression"),
 
     APPSEC_HTTP_DISPATCHER("dd-appsec-http-dispatcher"),
 
     TELEMETRY("dd-telemetry"),
+    TELEMETRY_DEPENDENCY_RESOLVER("dd-telemetry-dependency-resolver"),
 
     FLEET_MANAGEMENT_POLLER("dd-fleet-management-poller"),
     REMOTE_CONFIG("dd-remote-config"),
@@ -51,7 +55,8 @@ public final class AgentThreadFactory implements ThreadFactory {
     CI_GIT_DATA_SHUTDOWN_HOOK("dd-ci-git-data-shutdown-hook"),
     CI_TEST_EVENTS_SHUTDOWN_HOOK("dd-ci-test-events-shutdown-hook"),
     CI_PROJECT_CONFIGURATOR("dd-ci-project-configurator"),
-    CI_SIGNAL_SERVER("dd-ci-signal-server");
+    CI_SIGNAL_SERVER("dd-ci-signal-server"),
+    CI_REPO_INDEXER("dd-ci-repo-indexer");
 
     public final String threadName;
 
@@ -53,6 +53,8 @@ import static datadog.trace.api.config.GeneralConfig.HEALTH_METRICS_STATSD_PORT
 import static datadog.trace.api.config.GeneralConfig.PERF_METRICS_ENABLED
 import static datadog.trace.api.config.GeneralConfig.SERVICE_NAME
 import static datadog.trace.api.config.GeneralConfig.SITE
+import static datadog.trace.api.config.GeneralConfig.STATSD_CLIENT_AGGREGATION_FLUSH_INTERVAL
+import static datadog.trace.api.config.GeneralConfig.STATSD_CLIENT_AGGREGATION_SHARDS
 import static datadog.trace.api.config.GeneralConfig.TAGS
 import static datadog.trace.api.config.GeneralConfig.TRACER_METRICS_IGNORED_RESOURCES
 import static datadog.trace.api.config.GeneralConfig.VERSION
@@ -2402,4 +2404,28 @@ class ConfigTest extends DDSpecification {
     true                     | 11                        | 11
     false                    | 17                        | 0
   }
+
+  def "statsd client aggregation settings: #configuredFlushInterval, #configuredShards"() {
+    when:
+    def prop = new Properties()
+    if (configuredFlushInterval != null) {
+      prop.setProperty(STATSD_CLIENT_AGGREGATION_FLUSH_INTERVAL, configuredFlushInterval)
+    }
+    if (configuredShards != null) {
+      prop.setProperty(STATSD_CLIENT_AGGREGATION_SHARDS, configuredShards)
+    }
+    Config config = Config.get(prop)
+
+    then:
+    config.statsDClientAggregationFlushInterval == flushInterval
+    config.statsDClientAggregationShards == shards
+
+    where:
+    configuredFlushInterval | configuredShards | flushInterval | shards
+    null                    | null             | null          | null
+    "1000"                  | null             | 1000          | null
+    null                    | "16"             | null          | 16
+    "500"                   | "8"              | 500           | 8
+    "invalid"               | "invalid"        | null          | null
+  }
 }
@@ -112,4 +112,35 @@ class AntPatternHttpPathNormalizerTest extends DDSpecification {
     "/test/foo/bar/baz.html" | "/test/foo/bar/baz.html"
     "/dev/foo/bar/baz.html"  | "dev"
   }
+
+  def "first matching pattern wins across literal prefixes"() {
+    given:
+    def matchers = new LinkedHashMap<String, String>()
+    matchers.put("/api/v1/users/*", "users")
+    matchers.put("/**/health", "health")
+    matchers.put("/api/**", "api")
+    matchers.put("/api/v1/users/*/orders", "orders")
+    (0..<100).each {
+      matchers.put("/service" + it + "/**", "service" + it)
+    }
+    AntPatternHttpPathNormalizer normalizer = new AntPatternHttpPathNormalizer(matchers)
+
+    when:
+    String result = normalizer.normalize(path)
+
+    then:
+    result == normalizedPath
+
+    where:
+    path                          | normalizedPath
+    "/api/v1/users/1"             | "users"
+    "/api/v1/users/1/orders"      | "api"
+    "/api/v1/health"              | "health"
+    "/api"                        | "api"
+    "/service42/a/b"              | "service42"
+    "/service42"                  | "service42"
+    "/service100/a"               | null
+    "/other/health"               | "health"
+    "/other"                      | null
+  }
 }
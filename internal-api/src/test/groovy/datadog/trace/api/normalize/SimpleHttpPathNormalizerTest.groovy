@@ -112,4 +112,28 @@ class SimpleHttpPathNormalizerTest extends DDSpecification {
     "/A%DD%EE/av-1/b_2/c.3/%FFd4d/v5f/v699/7"            | "/A%DD%EE/?/?/?/?/?/?/?"
     "/user/asd%A0123/repository/01234567-9ABC-DEF0-1234" | "/user/?/repository/?"
   }
+
+  def "reuses normalized paths for repeated routes"() {
+    when:
+    def first = simplePathNormalizer.normalize("/user/1/repo/50")
+    def second = simplePathNormalizer.normalize("/user/2/repo/51")
+    def other = simplePathNormalizer.normalize("/user/3/issue/52")
+
+    then:
+    first == "/user/?/repo/?"
+    first.is(second)
+    other == "/user/?/issue/?"
+  }
+
+  def "normalizes paths longer than the interned limit"() {
+    given:
+    def input = "/user/1" * 1000
+
+    when:
+    def norm = simplePathNormalizer.normalize(input)
+
+    then:
+    norm == "/user/?" * 1000
+    simplePathNormalizer.normalize("/user/1") == "/user/?"
+  }
 }
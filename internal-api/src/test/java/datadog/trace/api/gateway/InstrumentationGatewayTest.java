@@ -333,6 +333,34 @@ public class InstrumentationGatewayTest {
     assertThat(gateway.getUniversalCallbackProvider().getCallback(events.requestEnded())).isNull();
   }
 
+  @Test
+  public void universalCallbackFollowsSubscriptionChanges() {
+    CallbackProvider universal = gateway.getUniversalCallbackProvider();
+    SubscriptionService ssIast = gateway.getSubscriptionService(RequestContextSlot.IAST);
+    CallbackProvider cbpIast = gateway.getCallbackProvider(RequestContextSlot.IAST);
+    assertThat(universal.hasCallbacks()).isFalse();
+    assertThat(cbp.hasCallbacks()).isFalse();
+
+    Subscription appSec = ss.registerCallback(events.requestEnded(), callback);
+    Subscription iast = ssIast.registerCallback(events.requestEnded(), callback);
+    BiFunction<RequestContext, IGSpanInfo, Flow<Void>> merged =
+        universal.getCallback(events.requestEnded());
+    assertThat(merged).isNotSameAs(cbp.getCallback(events.requestEnded()));
+    assertThat(merged).isNotSameAs(cbpIast.getCallback(events.requestEnded()));
+    assertThat(universal.hasCallbacks()).isTrue();
+
+    appSec.cancel();
+    BiFunction<RequestContext, IGSpanInfo, Flow<Void>> iastOnly =
+        universal.getCallback(events.requestEnded());
+    assertThat(iastOnly).isSameAs(cbpIast.getCallback(events.requestEnded()));
+    assertThat(cbp.hasCallbacks()).isFalse();
+
+    iast.cancel();
+    assertThat(universal.getCallback(events.requestEnded())).isNull();
+    assertThat(universal.hasCallbacks()).isFalse();
+    assertThat(cbpIast.hasCallbacks()).isFalse();
+  }
+
   @Test
   public void mergeFlowIdenticalFlows() {
     Flow<Void> flow = new Flow.ResultFlow<>(null);
@@ -0,0 +1,208 @@
+package datadog.remoteconfig;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import cafe.cryptography.ed25519.Ed25519PrivateKey;
+import cafe.cryptography.ed25519.Ed25519PublicKey;
+import cafe.cryptography.ed25519.Ed25519Signature;
+import com.squareup.moshi.Moshi;
+import datadog.remoteconfig.state.ParsedConfigKey;
+import datadog.remoteconfig.state.ProductListener;
+import datadog.remoteconfig.state.ProductState;
+import datadog.remoteconfig.tuf.InstantJsonAdapter;
+import datadog.remoteconfig.tuf.RawJsonAdapter;
+import datadog.remoteconfig.tuf.RemoteConfigResponse;
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import okio.ByteString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the handling of a poll response which does not change any of the applied
+ * configurations, the common case. With {@code unchangedTargets=false} every response is handled
+ * as if the targets changed: they are deserialized, canonicalized and their signature verified
+ * again before the configurations are checked for changes.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 5, timeUnit = SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Fork(value = 1)
+public class RemoteConfigResponseBenchmark {
+  private static final String KEY_ID = "benchmark";
+
+  @Param({"500"})
+  int configs;
+
+  @Param({"true", "false"})
+  boolean unchangedTargets;
+
+  private Moshi moshi;
+  private Ed25519PublicKey publicKey;
+  private RemoteConfigResponse.Factory factory;
+  private ProductState productState;
+  private List<ParsedConfigKey> configKeys;
+  private byte[] response;
+
+  @Setup(Level.Trial)
+  public void setup() throws NoSuchAlgorithmException {
+    moshi =
+        new Moshi.Builder()
+            .add(Instant.class, new InstantJsonAdapter())
+            .add(ByteString.class, new RawJsonAdapter())
+            .build();
+    Ed25519PrivateKey privateKey = Ed25519PrivateKey.generate(new SecureRandom());
+    publicKey = privateKey.derivePublic();
+
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    Map<String, Object> targets = new LinkedHashMap<>();
+    List<String> paths = new ArrayList<>(configs);
+    List<String> raws = new ArrayList<>(configs);
+    configKeys = new ArrayList<>(configs);
+    for (int i = 0; i < configs; i++) {
+      String path = "datadog/2/ASM_DD/config-" + i + "/config";
+      byte[] content =
+          ("{\"rules\":[{\"id\":\"rule-" + i + "\",\"name\":\"Rule " + i + "\"}]}")
+              .getBytes(StandardCharsets.UTF_8);
+      Map<String, Object> hashes = new LinkedHashMap<>();
+      hashes.put("sha256", new BigInteger(1, digest.digest(content)).toString(16));
+      Map<String, Object> custom = new LinkedHashMap<>();
+      custom.put("v", 1L);
+      Map<String, Object> target = new LinkedHashMap<>();
+      target.put("custom", custom);
+      target.put("hashes", hashes);
+      target.put("length", (long) content.length);
+      targets.put(path, target);
+      paths.add(path);
+      raws.add(Base64.getEncoder().encodeToString(content));
+      configKeys.add(ParsedConfigKey.parse(path));
+    }
+    Map<String, Object> signed = new LinkedHashMap<>();
+    signed.put("_type", "targets");
+    signed.put("expires", "2030-01-01T00:00:00Z");
+    signed.put("spec_version", "1.0.0");
+    signed.put("targets", targets);
+    signed.put("version", 42L);
+    // the canonical form is valid JSON, so it can be used directly as the signed payload
+    byte[] canonicalSigned = JsonCanonicalizer.canonicalize(signed);
+    Ed25519Signature signature = privateKey.expand().sign(canonicalSigned, publicKey);
+    String targetsJson =
+        "{\"signatures\":[{\"keyid\":\""
+            + KEY_ID
+            + "\",\"sig\":\""
+            + new BigInteger(1, signature.toByteArray()).toString(16)
+            + "\"}],\"signed\":"
+            + new String(canonicalSigned, StandardCharsets.UTF_8)
+            + "}";
+    String targetsBase64 =
+        Base64.getEncoder().encodeToString(targetsJson.getBytes(StandardCharsets.UTF_8));
+
+    StringBuilder clientConfigs = new StringBuilder();
+    StringBuilder targetFiles = new StringBuilder();
+    for (int i = 0; i < configs; i++) {
+      if (i > 0) {
+        clientConfigs.append(',');
+        targetFiles.append(',');
+      }
+      clientConfigs.append('"').append(paths.get(i)).append('"');
+      targetFiles
+          .append("{\"path\":\"")
+          .append(paths.get(i))
+          .append("\",\"raw\":\"")
+          .append(raws.get(i))
+          .append("\"}");
+    }
+    response = responseJson(clientConfigs, targetsBase64, "[]").getBytes(StandardCharsets.UTF_8);
+
+    // the first response carries the file contents which get applied and cached
+    factory = new RemoteConfigResponse.Factory(moshi);
+    productState = new ProductState(Product.ASM_DD);
+    productState.addProductListener(new NoopProductListener());
+    RemoteConfigResponse initial =
+        factory
+            .fromInputStream(
+                new ByteArrayInputStream(
+                    responseJson(clientConfigs, targetsBase64, "[" + targetFiles + "]")
+                        .getBytes(StandardCharsets.UTF_8)))
+            .get();
+    verify(initial);
+    productState.apply(initial, configKeys, ConfigurationChangesListener.PollingRateHinter.NOOP);
+  }
+
+  @Benchmark
+  public boolean handleResponse() {
+    RemoteConfigResponse.Factory responseFactory =
+        unchangedTargets ? factory : new RemoteConfigResponse.Factory(moshi);
+    RemoteConfigResponse fleetResponse =
+        responseFactory.fromInputStream(new ByteArrayInputStream(response)).get();
+    if (!fleetResponse.isTargetsUnchanged()) {
+      verify(fleetResponse);
+    }
+    return productState.apply(
+        fleetResponse, configKeys, ConfigurationChangesListener.PollingRateHinter.NOOP);
+  }
+
+  private void verify(RemoteConfigResponse fleetResponse) {
+    byte[] canonical = JsonCanonicalizer.canonicalize(fleetResponse.getUntypedTargetsSigned());
+    try {
+      Ed25519Signature signature =
+          Ed25519Signature.fromByteArray(
+              HexUtils.fromHexString(fleetResponse.getTargetsSignature(KEY_ID)));
+      if (!publicKey.verify(canonical, signature)) {
+        throw new IllegalStateException("Invalid signature");
+      }
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String responseJson(
+      CharSequence clientConfigs, String targets, String targetFiles) {
+    return "{\"client_configs\":["
+        + clientConfigs
+        + "],\"roots\":[],\"target_files\":"
+        + targetFiles
+        + ",\"targets\":\""
+        + targets
+        + "\"}";
+  }
+
+  private static final class NoopProductListener implements ProductListener {
+    @Override
+    public void accept(
+        ParsedConfigKey configKey,
+        byte[] content,
+        ConfigurationChangesListener.PollingRateHinter pollingRateHinter) {}
+
+    @Override
+    public void remove(
+        ParsedConfigKey configKey,
+        ConfigurationChangesListener.PollingRateHinter pollingRateHinter) {}
+
+    @Override
+    public void commit(ConfigurationChangesListener.PollingRateHinter pollingRateHinter) {}
+  }
+}
@@ -81,6 +81,10 @@ public class ConfigurationPoller
   private PollerRequestFactory requestFactory;
   private RemoteConfigResponse.Factory responseFactory;
   private boolean fatalOnInitialization = false;
+  // whether the targets of the last response were verified and applied without errors
+  private boolean targetsVerified;
+  private boolean targetsApplied;
+  private List<String> appliedClientConfigs = Collections.emptyList();
 
   public ConfigurationPoller(
       Config config,
@@ -134,6 +138,7 @@ public class ConfigurationPoller
     ProductState productState =
         this.productStates.computeIfAbsent(product, p -> new ProductState(product));
     productState.addProductListener(listener);
+    this.targetsApplied = false;
   }
 
   public synchronized <T> void addListener(
@@ -148,6 +153,7 @@ public class ConfigurationPoller
     ProductState productState =
         this.productStates.computeIfAbsent(product, p -> new ProductState(product));
     productState.addProductListener(configKey, listener);
+    this.targetsApplied = false;
   }
 
   public synchronized <T> void addListener(
@@ -161,6 +167,7 @@ public class ConfigurationPoller
 
   public synchronized void removeListeners(Product product) {
     this.productStates.remove(product);
+    this.targetsApplied = false;
   }
 
   public synchronized <T> void addFileListener(
@@ -168,10 +175,12 @@ public class ConfigurationPoller
       ConfigurationDeserializer<T> deserializer,
       ConfigurationChangesTypedListener<T> listener) {
     this.fileListeners.put(file, useDeserializer(deserializer, listener));
+    this.targetsApplied = false;
   }
 
   public synchronized void addConfigurationEndListener(ConfigurationEndListener listener) {
     this.configurationEndListeners.add(listener);
+    this.targetsApplied = false;
   }
 
   public synchronized void removeConfigurationEndListener(ConfigurationEndListener listener) {
@@ -367,13 +376,24 @@ public class ConfigurationPoller
           "Got configuration with targets version {}", fleetResponse.getTargetsSigned().version);
     }
 
+    if (isUnchanged(fleetResponse)) {
+      log.debug("No changes in targets or client configs");
+      rescheduleBaseOnConfiguration(this.durationHint);
+      return;
+    }
+
     try {
-      verifyTargetsSignature(fleetResponse);
+      if (!fleetResponse.isTargetsUnchanged() || !targetsVerified) {
+        targetsVerified = false;
+        verifyTargetsSignature(fleetResponse);
+        targetsVerified = true;
+      }
       verifyTargetsPresence(fleetResponse);
     } catch (RuntimeException rte) {
       ratelimitedLogger.warn("Error doing initial verifications: {}", rte.getMessage(), rte);
       this.nextClientState.hasError = true;
       this.nextClientState.error = rte.getMessage();
+      this.targetsApplied = false;
       return;
     }
 
@@ -418,10 +438,24 @@ public class ConfigurationPoller
     }
 
     updateNextState(fleetResponse, buildErrorMessage(errors));
+    this.targetsApplied = errors.isEmpty();
+    this.appliedClientConfigs = fleetResponse.getClientConfigs();
 
     rescheduleBaseOnConfiguration(this.durationHint);
   }
 
+  /**
+   * A response with the same verified targets and client configs as the last one which was fully
+   * applied would not change anything: the configurations are only applied if their hashes changed
+   * and those are part of the signed targets.
+   */
+  private boolean isUnchanged(RemoteConfigResponse fleetResponse) {
+    return targetsApplied
+        && targetsVerified
+        && fleetResponse.isTargetsUnchanged()
+        && appliedClientConfigs.equals(fleetResponse.getClientConfigs());
+  }
+
   private void runConfigurationEndListener(
       ConfigurationEndListener listener, List<ReportableException> errors) {
     try {
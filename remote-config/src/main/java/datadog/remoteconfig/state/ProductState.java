@@ -11,8 +11,10 @@ import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -57,7 +59,7 @@ public class ProductState {
       ConfigurationChangesListener.PollingRateHinter hinter) {
     errors = null;
 
-    List<ParsedConfigKey> configBeenUsedByProduct = new ArrayList<>();
+    Set<ParsedConfigKey> configBeenUsedByProduct = new HashSet<>();
     boolean changesDetected = false;
 
     for (ParsedConfigKey configKey : relevantKeys) {
@@ -16,6 +16,7 @@ import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -35,12 +36,26 @@ public class RemoteConfigResponse {
 
   private transient Targets targets;
 
+  private transient boolean targetsUnchanged;
+
+  private transient Map<String, VerifiedFile> verifiedFiles;
+
   @Json(name = "target_files")
   public List<TargetFile> targetFiles;
 
+  /**
+   * Creates responses from the agent payloads. The factory remembers the last targets it decoded,
+   * so that a poll returning the same targets does not deserialize them again, and the files whose
+   * sha256 hash has already been verified, so that they are not hashed again while they stay in
+   * the targets. It is not thread-safe.
+   */
   public static class Factory {
     private final JsonAdapter<RemoteConfigResponse> adapterRC;
     private final JsonAdapter<Targets> adapterTargets;
+    private final Map<String, VerifiedFile> verifiedFiles = new HashMap<>();
+
+    private String lastTargetsJson;
+    private Targets lastTargets;
 
     public Factory(Moshi moshi) {
       this.adapterRC = moshi.adapter(RemoteConfigResponse.class);
@@ -54,14 +69,26 @@ public class RemoteConfigResponse {
         if (targetsJsonBase64 == null) {
           return Optional.empty(); // empty response -- no change
         }
-        byte[] targetsJsonDecoded =
-            Base64.getDecoder().decode(targetsJsonBase64.getBytes(StandardCharsets.ISO_8859_1));
-        if (targetsJsonDecoded.length > 0) {
-          response.targets =
-              adapterTargets.fromJson(
-                  Okio.buffer(Okio.source(new ByteArrayInputStream(targetsJsonDecoded))));
-          response.targets.targetsSignedUntyped = extractUntypedSignedField(targetsJsonDecoded);
+        if (lastTargets != null && targetsJsonBase64.equals(lastTargetsJson)) {
+          // same targets version and signature as in the previous response
+          response.targets = lastTargets;
+          response.targetsUnchanged = true;
+        } else {
+          lastTargetsJson = null;
+          lastTargets = null;
+          byte[] targetsJsonDecoded =
+              Base64.getDecoder().decode(targetsJsonBase64.getBytes(StandardCharsets.ISO_8859_1));
+          if (targetsJsonDecoded.length > 0) {
+            response.targets =
+                adapterTargets.fromJson(
+                    Okio.buffer(Okio.source(new ByteArrayInputStream(targetsJsonDecoded))));
+            response.targets.targetsSignedUntyped = extractUntypedSignedField(targetsJsonDecoded);
+            lastTargetsJson = targetsJsonBase64;
+            lastTargets = response.targets;
+            evictVerifiedFiles(response.targets);
+          }
         }
+        response.verifiedFiles = verifiedFiles;
         response.targetsJson = null;
         return Optional.of(response);
       } catch (InterruptedIOException ignored) {
@@ -71,6 +98,14 @@ public class RemoteConfigResponse {
       }
     }
 
+    private void evictVerifiedFiles(Targets targets) {
+      if (targets.targetsSigned == null || targets.targetsSigned.targets == null) {
+        verifiedFiles.clear();
+      } else {
+        verifiedFiles.keySet().retainAll(targets.targetsSigned.targets.keySet());
+      }
+    }
+
     private Map<String, Object> extractUntypedSignedField(byte[] targetsJsonDecoded)
         throws IOException {
       JsonReader reader =
@@ -110,6 +145,14 @@ public class RemoteConfigResponse {
     return this.targets.targetsSignedUntyped;
   }
 
+  /**
+   * @return {@literal true} if the targets are the same as in the previous response created by the
+   *     same factory; they are then not deserialized again
+   */
+  public boolean isTargetsUnchanged() {
+    return this.targetsUnchanged;
+  }
+
   public byte[] getFileContents(String configKey) {
 
     if (targetFiles == null) {
@@ -129,20 +172,26 @@ public class RemoteConfigResponse {
             || (hashStr = configTarget.hashes.get("sha256")) == null) {
           throw new IntegrityCheckException("No sha256 hash present for " + configKey);
         }
-        BigInteger expectedHash = new BigInteger(hashStr, 16);
 
         String raw = targetFile.raw;
         byte[] decode = Base64.getDecoder().decode(raw);
-        BigInteger gottenHash = sha256(decode);
-        if (!expectedHash.equals(gottenHash)) {
-          throw new IntegrityCheckException(
-              "File "
-                  + configKey
-                  + " does not "
-                  + "have the expected sha256 hash: Expected "
-                  + expectedHash.toString(16)
-                  + ", but got "
-                  + gottenHash.toString(16));
+        VerifiedFile verified = verifiedFiles != null ? verifiedFiles.get(configKey) : null;
+        if (verified == null || !verified.matches(hashStr, raw)) {
+          BigInteger expectedHash = new BigInteger(hashStr, 16);
+          BigInteger gottenHash = sha256(decode);
+          if (!expectedHash.equals(gottenHash)) {
+            throw new IntegrityCheckException(
+                "File "
+                    + configKey
+                    + " does not "
+                    + "have the expected sha256 hash: Expected "
+                    + expectedHash.toString(16)
+                    + ", but got "
+                    + gottenHash.toString(16));
+          }
+          if (verifiedFiles != null) {
+            verifiedFiles.put(configKey, new VerifiedFile(hashStr, raw));
+          }
         }
         if (decode.length != configTarget.length) {
           throw new IntegrityCheckException(
@@ -232,4 +281,19 @@ public class RemoteConfigResponse {
     public String path;
     public String raw;
   }
+
+  /** The encoded content of a file whose sha256 hash was verified */
+  static final class VerifiedFile {
+    private final String sha256;
+    private final String raw;
+
+    VerifiedFile(String sha256, String raw) {
+      this.sha256 = sha256;
+      this.raw = raw;
+    }
+
+    boolean matches(String sha256, String raw) {
+      return this.sha256.equals(sha256) && this.raw.equals(raw);
+    }
+  }
 }
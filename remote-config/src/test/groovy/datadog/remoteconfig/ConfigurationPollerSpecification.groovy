@@ -747,6 +747,48 @@ class ConfigurationPollerSpecification extends DDSpecification {
     0 * _._
   }
 
+  void 'processes unchanged targets again if they could not be applied'() {
+    ConfigurationChangesTypedListener listener = Mock()
+
+    when:
+    poller.addListener(Product.ASM_DD,
+      { SLURPER.parse(it) } as ConfigurationDeserializer,
+      listener)
+    poller.start()
+
+    then:
+    1 * scheduler.scheduleAtFixedRate(_, poller, 0, DEFAULT_POLL_PERIOD, TimeUnit.MILLISECONDS) >> { task = it[0]; scheduled }
+
+    when:
+    task.run(poller)
+
+    then:
+    1 * okHttpClient.newCall(_ as Request) >> { call }
+    1 * call.execute() >> {
+      SLURPER.parse(SAMPLE_RESP_BODY.bytes).with {
+        it['target_files'] = []
+        buildOKResponse(JsonOutput.toJson(it))
+      }
+    }
+    0 * _._
+
+    when:
+    2.times { task.run(poller) }
+
+    then:
+    2 * okHttpClient.newCall(_ as Request) >> { request = it[0]; call }
+    2 * call.execute() >> { buildOKResponse(SAMPLE_RESP_BODY) }
+    1 * listener.accept('employee/ASM_DD/1.recommended.json/config', _, _ as ConfigurationChangesListener.PollingRateHinter)
+    0 * _._
+
+    def body = parseBody(request.body())
+    with(body.client.state) {
+      has_error == false
+      targets_version == 23337393
+      config_states.size() == 1
+    }
+  }
+
   void 'accepts an empty object as a response to indicate no changes'() {
     given:
     def listener = Mock(ConfigurationChangesTypedListener)
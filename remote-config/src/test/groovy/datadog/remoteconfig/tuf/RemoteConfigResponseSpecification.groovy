@@ -0,0 +1,84 @@
+package datadog.remoteconfig.tuf
+
+import com.squareup.moshi.Moshi
+import groovy.json.JsonOutput
+import okio.ByteString
+import spock.lang.Specification
+
+import java.security.MessageDigest
+import java.time.Instant
+
+class RemoteConfigResponseSpecification extends Specification {
+  private static final String PATH = 'datadog/2/ASM_DD/rules/config'
+  private static final byte[] CONTENT = '{"rules":[]}'.getBytes('UTF-8')
+
+  RemoteConfigResponse.Factory factory = new RemoteConfigResponse.Factory(
+  new Moshi.Builder()
+  .add(Instant.class, new InstantJsonAdapter())
+  .add(ByteString.class, new RawJsonAdapter())
+  .build())
+
+  void 'reuses the targets of the previous response if they did not change'() {
+    when:
+    def first = parse(body(1, CONTENT))
+    def second = parse(body(1, CONTENT))
+
+    then:
+    !first.targetsUnchanged
+    second.targetsUnchanged
+    second.targetsSigned.is(first.targetsSigned)
+    second.untypedTargetsSigned.is(first.untypedTargetsSigned)
+    second.getFileContents(PATH) == CONTENT
+  }
+
+  void 'decodes the targets again when they change'() {
+    when:
+    def first = parse(body(1, CONTENT))
+    def second = parse(body(2, CONTENT))
+
+    then:
+    !second.targetsUnchanged
+    !second.targetsSigned.is(first.targetsSigned)
+    second.targetsSigned.version == 2
+  }
+
+  void 'verifies the file contents again if they differ from the verified ones'() {
+    setup:
+    def first = parse(body(1, CONTENT))
+    assert first.getFileContents(PATH) == CONTENT
+
+    when:
+    def second = parse(body(1, CONTENT, '{"rules":[1]}'.getBytes('UTF-8')))
+    second.getFileContents(PATH)
+
+    then:
+    second.targetsUnchanged
+    thrown(IntegrityCheckException)
+  }
+
+  private RemoteConfigResponse parse(String body) {
+    factory.fromInputStream(new ByteArrayInputStream(body.getBytes('UTF-8'))).get()
+  }
+
+  private static String body(long version, byte[] expectedContent, byte[] content = expectedContent) {
+    def targets = [
+      signatures: [],
+      signed    : [
+        expires     : '2030-01-01T00:00:00Z',
+        spec_version: '1.0.0',
+        targets     : [
+          (PATH): [
+            custom: [v: 1],
+            hashes: [sha256: new BigInteger(1, MessageDigest.getInstance('SHA-256').digest(expectedContent)).toString(16)],
+            length: expectedContent.length,
+          ]
+        ],
+        version     : version
+      ]
+    ]
+    JsonOutput.toJson(
+      client_configs: [PATH],
+      target_files: [[path: PATH, raw: Base64.encoder.encodeToString(content)]],
+      targets: Base64.encoder.encodeToString(JsonOutput.toJson(targets).getBytes('UTF-8')))
+  }
+}
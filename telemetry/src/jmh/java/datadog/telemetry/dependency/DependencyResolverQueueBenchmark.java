@@ -0,0 +1,82 @@
+package datadog.telemetry.dependency;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Resolves all the test jars in one batch, as happens when an application server starts. */
+@Warmup(iterations = 1, time = 1000, timeUnit = MILLISECONDS)
+@Measurement(iterations = 5, time = 1000, timeUnit = MILLISECONDS)
+@OutputTimeUnit(MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Benchmark)
+public class DependencyResolverQueueBenchmark {
+
+  private static final File JARS_DIR =
+      new File(
+          System.getProperty("user.dir") + "/src/test/resources/datadog/telemetry/dependencies");
+
+  @Param({"1", "2", "4"})
+  int parallelism;
+
+  @Param({"false", "true"})
+  boolean cached;
+
+  private File[] jars;
+  private ExecutorService executor;
+  private DependencyCache cache;
+  private File cacheFile;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    jars = JARS_DIR.listFiles((dir, name) -> name.endsWith(".jar"));
+    executor = parallelism > 1 ? Executors.newFixedThreadPool(parallelism) : null;
+    if (cached) {
+      cacheFile = File.createTempFile("dependencies", ".cache");
+      cacheFile.delete();
+      // populate the cache like a previous run would have done
+      resolveAll();
+      cache.flush();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+    if (cacheFile != null) {
+      cacheFile.delete();
+    }
+  }
+
+  @Benchmark
+  public List<Dependency> resolveAll() {
+    if (cached) {
+      // a new cache instance loads the file like a restarted application
+      cache = new DependencyCache(cacheFile);
+    }
+    DependencyResolverQueue queue = new DependencyResolverQueue(jars.length + 1);
+    queue.setCache(cache);
+    for (File jar : jars) {
+      queue.queueURI(jar.toURI());
+    }
+    return queue.pollDependencies(jars.length, executor);
+  }
+}
@@ -0,0 +1,199 @@
+package datadog.telemetry;
+
+import datadog.telemetry.api.Metric;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A bounded queue of telemetry metrics which coalesces the metrics of the same series (namespace,
+ * name, type, tags and common flag) until they are polled: the points of a metric offered while
+ * another metric of the same series is queued are appended to the queued one. The series are
+ * polled in the order they were first offered.
+ *
+ * <p>The periodic metric actions run more often than the telemetry requests are sent, so without
+ * coalescing every series would be sent several times per request, and the queue would fill up
+ * several times faster.
+ */
+final class MetricSeriesQueue extends AbstractQueue<Metric> {
+  private final int capacity;
+  private final Map<SeriesKey, Series> series = new LinkedHashMap<>(); // guarded by this
+
+  /** @param capacity the maximum number of distinct series in the queue */
+  MetricSeriesQueue(int capacity) {
+    this.capacity = capacity;
+  }
+
+  @Override
+  public synchronized boolean offer(Metric metric) {
+    Objects.requireNonNull(metric);
+    SeriesKey key = new SeriesKey(metric);
+    Series queued = series.get(key);
+    if (queued != null) {
+      queued.add(metric);
+      return true;
+    }
+    if (series.size() >= capacity) {
+      return false;
+    }
+    series.put(key, new Series(metric));
+    return true;
+  }
+
+  @Override
+  public synchronized Metric poll() {
+    Iterator<Series> it = series.values().iterator();
+    if (!it.hasNext()) {
+      return null;
+    }
+    Series next = it.next();
+    it.remove();
+    return next.toMetric();
+  }
+
+  @Override
+  public synchronized Metric peek() {
+    Iterator<Series> it = series.values().iterator();
+    return it.hasNext() ? it.next().toMetric() : null;
+  }
+
+  @Override
+  public synchronized int size() {
+    return series.size();
+  }
+
+  @Override
+  public synchronized boolean isEmpty() {
+    return series.isEmpty();
+  }
+
+  /**
+   * Returns an iterator over a snapshot of the queued series, taken under the queue's lock.
+   * Removing a metric through the iterator removes its series from the queue, unless the series has
+   * been polled in the meantime.
+   */
+  @Override
+  public synchronized Iterator<Metric> iterator() {
+    List<SeriesKey> keys = new ArrayList<>(series.size());
+    List<Series> values = new ArrayList<>(series.size());
+    List<Metric> metrics = new ArrayList<>(series.size());
+    for (Map.Entry<SeriesKey, Series> entry : series.entrySet()) {
+      keys.add(entry.getKey());
+      values.add(entry.getValue());
+      metrics.add(entry.getValue().toMetric());
+    }
+    return new SnapshotIterator(keys, values, metrics);
+  }
+
+  private synchronized void remove(SeriesKey key, Series value) {
+    series.remove(key, value);
+  }
+
+  private final class SnapshotIterator implements Iterator<Metric> {
+    private final List<SeriesKey> keys;
+    private final List<Series> values;
+    private final List<Metric> metrics;
+    private int next;
+    private int lastReturned = -1;
+
+    SnapshotIterator(List<SeriesKey> keys, List<Series> values, List<Metric> metrics) {
+      this.keys = keys;
+      this.values = values;
+      this.metrics = metrics;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < metrics.size();
+    }
+
+    @Override
+    public Metric next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      lastReturned = next++;
+      return metrics.get(lastReturned);
+    }
+
+    @Override
+    public void remove() {
+      if (lastReturned < 0) {
+        throw new IllegalStateException();
+      }
+      MetricSeriesQueue.this.remove(keys.get(lastReturned), values.get(lastReturned));
+      lastReturned = -1;
+    }
+  }
+
+  private static final class Series {
+    private final Metric first;
+    // the points of the coalesced metrics; null until a second metric is added
+    private List<List<Number>> points;
+
+    Series(Metric first) {
+      this.first = first;
+    }
+
+    void add(Metric metric) {
+      if (points == null) {
+        points = new ArrayList<>(first.getPoints().size() + metric.getPoints().size());
+        points.addAll(first.getPoints());
+      }
+      points.addAll(metric.getPoints());
+    }
+
+    Metric toMetric() {
+      if (points == null) {
+        return first;
+      }
+      return new Metric()
+          .namespace(first.getNamespace())
+          .metric(first.getMetric())
+          .type(first.getType())
+          .common(first.getCommon())
+          .tags(first.getTags())
+          .points(new ArrayList<>(points));
+    }
+  }
+
+  private static final class SeriesKey {
+    private final String namespace;
+    private final String metric;
+    private final Metric.TypeEnum type;
+    private final Boolean common;
+    private final List<String> tags;
+    private final int hashCode;
+
+    SeriesKey(Metric metric) {
+      this.namespace = metric.getNamespace();
+      this.metric = metric.getMetric();
+      this.type = metric.getType();
+      this.common = metric.getCommon();
+      this.tags = metric.getTags();
+      this.hashCode = Objects.hash(namespace, this.metric, type, common, tags);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      SeriesKey that = (SeriesKey) o;
+      return Objects.equals(namespace, that.namespace)
+          && Objects.equals(metric, that.metric)
+          && type == that.type
+          && Objects.equals(common, that.common)
+          && Objects.equals(tags, that.tags);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -9,6 +9,7 @@ import datadog.telemetry.api.RequestType;
 import datadog.telemetry.dependency.Dependency;
 import datadog.trace.api.ConfigSetting;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import org.slf4j.Logger;
@@ -24,8 +25,8 @@ public class TelemetryService {
   private final BlockingQueue<ConfigSetting> configurations = new LinkedBlockingQueue<>();
   private final BlockingQueue<Integration> integrations = new LinkedBlockingQueue<>();
   private final BlockingQueue<Dependency> dependencies = new LinkedBlockingQueue<>();
-  private final BlockingQueue<Metric> metrics =
-      new LinkedBlockingQueue<>(1024); // recommended capacity?
+  // metrics of the same series are coalesced until the next request
+  private final Queue<Metric> metrics = new MetricSeriesQueue(1024); // recommended capacity?
 
   private final BlockingQueue<LogMessage> logMessages = new LinkedBlockingQueue<>(1024);
 
@@ -1,11 +1,15 @@
 package datadog.telemetry.dependency;
 
+import datadog.trace.api.Platform;
 import datadog.trace.util.Strings;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
-import java.security.DigestInputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
@@ -30,20 +34,21 @@ public final class Dependency {
   private static final Pattern FILE_REGEX =
       Pattern.compile("(.+)-(\\d[^/-]+(?:-(?:\\w+))*)?\\.jar$");
 
-  private static final byte[] buf = new byte[8192];
+  // largest region of a jar mapped at once when hashing it
+  private static final long MAX_MAPPED_REGION = 64 * 1024 * 1024;
 
-  private static final MessageDigest md;
-
-  static {
-    MessageDigest digest = null;
-    try {
-      digest = MessageDigest.getInstance("SHA-1");
-    } catch (NoSuchAlgorithmException e) {
-      // should not happen
-      log.error("Unable to create cipher", e);
-    }
-    md = digest;
-  }
+  // dependencies may be resolved concurrently, so each thread gets its own digest
+  private static final ThreadLocal<MessageDigest> SHA1 =
+      ThreadLocal.withInitial(
+          () -> {
+            try {
+              return MessageDigest.getInstance("SHA-1");
+            } catch (NoSuchAlgorithmException e) {
+              // should not happen
+              log.error("Unable to create cipher", e);
+              return null;
+            }
+          });
 
   public final String name;
   public final String version;
@@ -126,12 +131,21 @@ public final class Dependency {
     return dependencies;
   }
 
-  public static synchronized Dependency guessFallbackNoPom(
-      Manifest manifest, String source, InputStream is) throws IOException {
+  public static Dependency guessFallbackNoPom(Manifest manifest, String source, InputStream is)
+      throws IOException {
+    return guessFallbackNoPom(manifest, source, sha1(is));
+  }
+
+  static Dependency guessFallbackNoPom(Manifest manifest, String source, File jar)
+      throws IOException {
+    return guessFallbackNoPom(manifest, source, sha1(jar));
+  }
+
+  private static Dependency guessFallbackNoPom(
+      Manifest manifest, String source, @Nullable String hash) {
     String artifactId;
     String groupId = null;
     String version;
-    String hash = null;
 
     // Guess from manifest
     String bundleSymbolicName = null;
@@ -214,18 +228,59 @@ public final class Dependency {
       name = artifactId;
     }
 
-    if (md != null) {
-      // Compute hash for all dependencies that has no pom
-      // No reliable version calculate hash and use any version
-      md.reset();
-      is = new DigestInputStream(is, md);
-      while (is.read(buf, 0, buf.length) > 0) {}
-      hash = String.format("%040X", new BigInteger(1, md.digest()));
-    }
     log.debug("No maven dependency added {}.{} jar name {} hash {}", name, version, source, hash);
     return new Dependency(name, version, source, hash);
   }
 
+  // Compute hash for all dependencies that has no pom
+  // No reliable version calculate hash and use any version
+  @Nullable
+  private static String sha1(InputStream is) throws IOException {
+    MessageDigest md = SHA1.get();
+    if (md == null) {
+      return null;
+    }
+    md.reset();
+    byte[] buf = new byte[8192];
+    int read;
+    while ((read = is.read(buf, 0, buf.length)) > 0) {
+      md.update(buf, 0, read);
+    }
+    return toHex(md.digest());
+  }
+
+  @Nullable
+  private static String sha1(File jar) throws IOException {
+    if (Platform.isWindows()) {
+      // mapped files stay locked until the buffer is garbage collected, which would prevent
+      // application servers from deleting or replacing the jar on undeploy
+      try (InputStream is = Files.newInputStream(jar.toPath())) {
+        return sha1(is);
+      }
+    }
+    MessageDigest md = SHA1.get();
+    if (md == null) {
+      return null;
+    }
+    md.reset();
+    try (FileChannel channel = FileChannel.open(jar.toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      for (long position = 0; position < size; position += MAX_MAPPED_REGION) {
+        MappedByteBuffer region =
+            channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                position,
+                Math.min(MAX_MAPPED_REGION, size - position));
+        md.update(region);
+      }
+    }
+    return toHex(md.digest());
+  }
+
+  private static String toHex(byte[] digest) {
+    return String.format("%040X", new BigInteger(1, digest));
+  }
+
   /** Check is string is valid artifactId. Should be a non-capital single word. */
   private static boolean isValidArtifactId(String artifactId) {
     return hasText(artifactId)
@@ -0,0 +1,224 @@
+package datadog.telemetry.dependency;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the dependencies resolved from jar files in a file, so they are not resolved again on the
+ * next start of the application. A jar is identified by its path, last modification time and size.
+ *
+ * <p>Each line of the file holds one dependency as tab separated fields: path, last modification
+ * time, size, name, version, source and hash. New entries are appended by {@link #flush()}.
+ */
+public final class DependencyCache {
+
+  private static final Logger log = LoggerFactory.getLogger(DependencyCache.class);
+
+  // the file is discarded once it grows past this, e.g. because of temporary paths
+  static final int MAX_ENTRIES = 10000;
+
+  private static final int FIELDS = 7;
+
+  private final File file;
+  private final Map<Key, List<Dependency>> entries = new HashMap<>(); // guarded by this
+  private final List<String> pendingLines = new ArrayList<>(); // guarded by this
+  private boolean loaded; // guarded by this
+  private boolean truncate; // guarded by this
+
+  public DependencyCache(File file) {
+    this.file = file;
+  }
+
+  /**
+   * @param jar the jar file
+   * @return the dependencies previously resolved from the same version of the jar, {@code null}
+   *     if unknown
+   */
+  @Nullable
+  public synchronized List<Dependency> get(File jar) {
+    load();
+    return entries.get(Key.of(jar));
+  }
+
+  /**
+   * Caches the dependencies resolved from a jar; they are written to the file on {@link #flush()}
+   *
+   * @param jar the jar file
+   * @param dependencies the dependencies resolved from the jar
+   */
+  public synchronized void put(File jar, List<Dependency> dependencies) {
+    load();
+    Key key = Key.of(jar);
+    List<String> lines = new ArrayList<>(dependencies.size());
+    for (Dependency dependency : dependencies) {
+      String line =
+          join(
+              key.path,
+              Long.toString(key.lastModified),
+              Long.toString(key.size),
+              dependency.name,
+              dependency.version,
+              dependency.source,
+              dependency.hash != null ? dependency.hash : "");
+      if (line == null) {
+        // a field cannot be stored in the line format, just resolve it again next time
+        return;
+      }
+      lines.add(line);
+    }
+    entries.put(key, dependencies);
+    pendingLines.addAll(lines);
+  }
+
+  /** Appends the entries added since the last flush to the file. */
+  public synchronized void flush() {
+    if (pendingLines.isEmpty()) {
+      return;
+    }
+    try {
+      File parent = file.getAbsoluteFile().getParentFile();
+      if (parent != null) {
+        Files.createDirectories(parent.toPath());
+      }
+      try (OutputStream os =
+              Files.newOutputStream(
+                  file.toPath(),
+                  StandardOpenOption.CREATE,
+                  StandardOpenOption.WRITE,
+                  truncate ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND);
+          Writer writer = new OutputStreamWriter(os, UTF_8)) {
+        for (String line : pendingLines) {
+          writer.write(line);
+          writer.write('\n');
+        }
+      }
+      truncate = false;
+    } catch (IOException | RuntimeException e) {
+      log.debug("Unable to write the dependency cache {}", file, e);
+    }
+    pendingLines.clear();
+  }
+
+  private void load() {
+    if (loaded) {
+      return;
+    }
+    loaded = true;
+    if (!file.isFile()) {
+      return;
+    }
+    int lines = 0;
+    try (BufferedReader reader = Files.newBufferedReader(file.toPath(), UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (++lines > MAX_ENTRIES) {
+          log.debug(
+              "Discarding the dependency cache {} with more than {} entries", file, MAX_ENTRIES);
+          entries.clear();
+          truncate = true;
+          return;
+        }
+        String[] fields = split(line);
+        if (fields == null) {
+          continue;
+        }
+        Key key = new Key(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]));
+        List<Dependency> dependencies = entries.get(key);
+        if (dependencies == null) {
+          dependencies = new ArrayList<>(1);
+          entries.put(key, dependencies);
+        }
+        dependencies.add(
+            new Dependency(
+                fields[3], fields[4], fields[5], fields[6].isEmpty() ? null : fields[6]));
+      }
+    } catch (IOException | RuntimeException e) {
+      log.debug("Unable to read the dependency cache {}", file, e);
+      entries.clear();
+      truncate = true;
+    }
+  }
+
+  /** @return the tab separated fields of the line, {@code null} if there are not {@link #FIELDS} */
+  @Nullable
+  private static String[] split(String line) {
+    String[] fields = new String[FIELDS];
+    int start = 0;
+    for (int i = 0; i < FIELDS - 1; i++) {
+      int end = line.indexOf('\t', start);
+      if (end < 0) {
+        return null;
+      }
+      fields[i] = line.substring(start, end);
+      start = end + 1;
+    }
+    if (line.indexOf('\t', start) >= 0) {
+      return null;
+    }
+    fields[FIELDS - 1] = line.substring(start);
+    return fields;
+  }
+
+  @Nullable
+  private static String join(String... fields) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < fields.length; i++) {
+      String field = fields[i];
+      if (field == null
+          || field.indexOf('\t') >= 0
+          || field.indexOf('\n') >= 0
+          || field.indexOf('\r') >= 0) {
+        return null;
+      }
+      if (i > 0) {
+        sb.append('\t');
+      }
+      sb.append(field);
+    }
+    return sb.toString();
+  }
+
+  static final class Key {
+    final String path;
+    final long lastModified;
+    final long size;
+
+    Key(String path, long lastModified, long size) {
+      this.path = path;
+      this.lastModified = lastModified;
+      this.size = size;
+    }
+
+    static Key of(File jar) {
+      return new Key(jar.getAbsolutePath(), jar.lastModified(), jar.length());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+      Key key = (Key) o;
+      return lastModified == key.lastModified && size == key.size && path.equals(key.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * path.hashCode() + Long.hashCode(lastModified)) + Long.hashCode(size);
+    }
+  }
+}
@@ -2,15 +2,14 @@ package datadog.telemetry.dependency;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.JarURLConnection;
 import java.net.URI;
 import java.net.URL;
-import java.nio.file.Files;
 import java.util.Collections;
 import java.util.List;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,7 +19,19 @@ public class DependencyResolver {
   private static final String JAR_SUFFIX = ".jar";
 
   public static List<Dependency> resolve(URI uri) {
-    return extractDependenciesFromURI(uri);
+    return extractDependenciesFromURI(uri, null);
+  }
+
+  /**
+   * Identify libraries from a URI, reusing the dependencies of jar files which were already
+   * resolved by a previous run
+   *
+   * @param uri URI to a dependency
+   * @param cache the cache of previously resolved jars, may be {@code null}
+   * @return the detected dependencies
+   */
+  public static List<Dependency> resolve(URI uri, @Nullable DependencyCache cache) {
+    return extractDependenciesFromURI(uri, cache);
   }
 
   /**
@@ -31,6 +42,11 @@ public class DependencyResolver {
    */
   // package private for testing
   static List<Dependency> extractDependenciesFromURI(URI uri) {
+    return extractDependenciesFromURI(uri, null);
+  }
+
+  private static List<Dependency> extractDependenciesFromURI(
+      URI uri, @Nullable DependencyCache cache) {
     String scheme = uri.getScheme();
     List<Dependency> dependencies = Collections.emptyList();
     try {
@@ -41,7 +57,15 @@ public class DependencyResolver {
         } else {
           f = new File(uri);
         }
-        dependencies = extractDependenciesFromJar(f);
+        List<Dependency> cached = cache != null ? cache.get(f) : null;
+        if (cached != null) {
+          dependencies = cached;
+        } else {
+          dependencies = extractDependenciesFromJar(f);
+          if (cache != null && !dependencies.isEmpty()) {
+            cache.put(f, dependencies);
+          }
+        }
       } else if ("jar".equals(scheme)) {
         Dependency dependency = getNestedDependency(uri);
         if (dependency != null) {
@@ -81,11 +105,9 @@ public class DependencyResolver {
 
       // Try to guess from manifest or file name
       if (dependencies.isEmpty()) {
-        try (InputStream is = Files.newInputStream(jar.toPath())) {
-          Manifest manifest = file.getManifest();
-          dependencies =
-              Collections.singletonList(Dependency.guessFallbackNoPom(manifest, jar.getName(), is));
-        }
+        Manifest manifest = file.getManifest();
+        dependencies =
+            Collections.singletonList(Dependency.guessFallbackNoPom(manifest, jar.getName(), jar));
       }
     } catch (IOException e) {
       log.debug("unable to read jar file {}", jar, e);
@@ -2,12 +2,19 @@ package datadog.telemetry.dependency;
 
 import datadog.trace.api.Config;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,6 +28,8 @@ public class DependencyResolverQueue {
 
   private boolean resolverQueueDisabled = false;
 
+  @Nullable private DependencyCache cache;
+
   public DependencyResolverQueue() {
     newUrlsQueue = new ConcurrentLinkedQueue<>();
     processedUrlsSet = new HashSet<>();
@@ -33,6 +42,11 @@ public class DependencyResolverQueue {
     processedUrlsSet = new HashSet<>();
   }
 
+  /** Sets the cache used to skip the resolution of jars already resolved in a previous run. */
+  public void setCache(@Nullable DependencyCache cache) {
+    this.cache = cache;
+  }
+
   public void queueURI(URI uri) {
     if (resolverQueueDisabled || uri == null) {
       return;
@@ -79,7 +93,73 @@ public class DependencyResolverQueue {
       return Collections.emptyList();
     }
 
-    List<Dependency> dep = DependencyResolver.resolve(uri);
+    return resolve(uri);
+  }
+
+  /**
+   * Resolves up to {@code maxURIs} queued URIs at once.
+   *
+   * @param maxURIs the maximum number of URIs to resolve
+   * @param executor resolves the URIs in parallel; if {@code null} they are resolved on the calling
+   *     thread
+   * @return the resolved dependencies, in the order the URIs were queued
+   */
+  public List<Dependency> pollDependencies(int maxURIs, @Nullable ExecutorService executor) {
+    List<URI> uris = pollURIs(maxURIs);
+    if (uris.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<Dependency> dependencies = new ArrayList<>(uris.size());
+    if (executor == null || uris.size() == 1) {
+      for (URI next : uris) {
+        dependencies.addAll(resolve(next));
+      }
+      return dependencies;
+    }
+
+    List<Callable<List<Dependency>>> tasks = new ArrayList<>(uris.size());
+    for (URI next : uris) {
+      tasks.add(() -> resolve(next));
+    }
+    List<Future<List<Dependency>>> results;
+    try {
+      results = executor.invokeAll(tasks);
+    } catch (RejectedExecutionException e) {
+      // the executor was shut down
+      for (URI next : uris) {
+        dependencies.addAll(resolve(next));
+      }
+      return dependencies;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return dependencies;
+    }
+    for (Future<List<Dependency>> result : results) {
+      try {
+        dependencies.addAll(result.get());
+      } catch (ExecutionException e) {
+        log.debug("unable to resolve dependency", e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    return dependencies;
+  }
+
+  /** Polls up to {@code maxURIs} queued URIs, so they can be resolved elsewhere. */
+  List<URI> pollURIs(int maxURIs) {
+    List<URI> uris = new ArrayList<>();
+    URI uri;
+    while (uris.size() < maxURIs && (uri = newUrlsQueue.poll()) != null) {
+      uris.add(uri);
+    }
+    return uris;
+  }
+
+  List<Dependency> resolve(URI uri) {
+    List<Dependency> dep = DependencyResolver.resolve(uri, cache);
     if (dep.isEmpty()) {
       log.debug("unable to detect dependency for URI {}", uri);
       return Collections.emptyList();
@@ -1,6 +1,9 @@
 package datadog.telemetry.dependency;
 
+import datadog.trace.api.Config;
 import datadog.trace.util.AgentTaskScheduler;
+import datadog.trace.util.AgentThreadFactory;
+import java.io.File;
 import java.lang.instrument.Instrumentation;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -11,7 +14,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,14 +34,89 @@ public class DependencyService implements Runnable {
 
   private AgentTaskScheduler.Scheduled<Runnable> scheduledTask;
 
+  private int batchSize = 1;
+  private ThreadPoolExecutor resolverExecutor;
+  private DependencyCache cache;
+
+  // number of URIs from the current batch that are still being resolved
+  private final AtomicInteger pendingResolutions = new AtomicInteger();
+
+  /**
+   * Resolves the queued dependencies every second, in batches of {@code
+   * telemetry.dependency-resolution.batch.size} spread over {@code
+   * telemetry.dependency-resolution.parallelism} threads which are released when idle.
+   *
+   * <p>The shared scheduler only hands each batch over to the resolver threads, which also flush
+   * the cache, so other agent tasks are not held up while jars are hashed.
+   */
   public void schedulePeriodicResolution() {
+    Config config = Config.get();
+    batchSize = Math.max(1, config.getTelemetryDependencyResolutionBatchSize());
+    int parallelism = Math.max(1, config.getTelemetryDependencyResolutionParallelism());
+    resolverExecutor =
+        new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            10,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new AgentThreadFactory(AgentThreadFactory.AgentThread.TELEMETRY_DEPENDENCY_RESOLVER));
+    resolverExecutor.allowCoreThreadTimeOut(true);
+    String cacheFile = config.getTelemetryDependencyResolutionCacheFile();
+    if (cacheFile != null && !cacheFile.isEmpty()) {
+      cache = new DependencyCache(new File(cacheFile));
+      resolverQueue.setCache(cache);
+    }
     scheduledTask =
         AgentTaskScheduler.INSTANCE.scheduleAtFixedRate(
             AgentTaskScheduler.RunnableTask.INSTANCE, this, 0, 1000L, TimeUnit.MILLISECONDS);
   }
 
   public void resolveOneDependency() {
-    List<Dependency> dependencies = resolverQueue.pollDependency();
+    addResolved(resolverQueue.pollDependency());
+  }
+
+  /** Resolves the next batch of queued dependencies on the calling thread. */
+  public void resolveDependencies() {
+    addResolved(resolverQueue.pollDependencies(batchSize, resolverExecutor));
+    if (cache != null) {
+      cache.flush();
+    }
+  }
+
+  /** Hands the next batch of queued dependencies over to the resolver threads. */
+  private void scheduleResolution() {
+    ThreadPoolExecutor executor = resolverExecutor;
+    if (executor == null || pendingResolutions.get() > 0) {
+      return; // stopped, or the previous batch is still being resolved
+    }
+    List<URI> uris = resolverQueue.pollURIs(batchSize);
+    if (uris.isEmpty()) {
+      return;
+    }
+    pendingResolutions.set(uris.size());
+    for (URI uri : uris) {
+      try {
+        executor.execute(() -> resolveQueued(uri));
+      } catch (RejectedExecutionException e) {
+        return; // stopped
+      }
+    }
+  }
+
+  private void resolveQueued(URI uri) {
+    try {
+      addResolved(resolverQueue.resolve(uri));
+    } catch (Throwable e) {
+      log.debug("unable to resolve dependency", e);
+    } finally {
+      if (pendingResolutions.decrementAndGet() == 0 && cache != null) {
+        cache.flush();
+      }
+    }
+  }
+
+  private void addResolved(List<Dependency> dependencies) {
     if (!dependencies.isEmpty()) {
       for (Dependency dependency : dependencies) {
         log.debug("Resolved dependency {}", dependency.name);
@@ -93,7 +174,7 @@ public class DependencyService implements Runnable {
 
   @Override
   public void run() {
-    resolveOneDependency();
+    scheduleResolution();
   }
 
   public void stop() {
@@ -101,5 +182,12 @@ public class DependencyService implements Runnable {
       scheduledTask.cancel();
       scheduledTask = null;
     }
+    if (resolverExecutor != null) {
+      resolverExecutor.shutdownNow();
+      resolverExecutor = null;
+    }
+    if (cache != null) {
+      cache.flush();
+    }
   }
 }
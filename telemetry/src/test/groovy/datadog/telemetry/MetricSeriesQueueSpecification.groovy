@@ -0,0 +1,109 @@
+package datadog.telemetry
+
+import datadog.telemetry.api.Metric
+import datadog.trace.test.util.DDSpecification
+
+class MetricSeriesQueueSpecification extends DDSpecification {
+
+  def 'coalesce the points of the same series'() {
+    def queue = new MetricSeriesQueue(10)
+
+    when:
+    queue.offer(metric('a', ['tag:1'], [[1, 1]]))
+    queue.offer(metric('b', ['tag:1'], [[1, 5]]))
+    queue.offer(metric('a', ['tag:1'], [[2, 2], [3, 3]]))
+    queue.offer(metric('a', ['tag:2'], [[2, 4]]))
+
+    then:
+    queue.size() == 3
+
+    when:
+    def first = queue.poll()
+    def second = queue.poll()
+    def third = queue.poll()
+
+    then:
+    first.metric == 'a'
+    first.tags == ['tag:1']
+    first.points == [[1, 1], [2, 2], [3, 3]]
+    second.metric == 'b'
+    second.points == [[1, 5]]
+    third.metric == 'a'
+    third.tags == ['tag:2']
+    third.points == [[2, 4]]
+    queue.poll() == null
+    queue.isEmpty()
+  }
+
+  def 'a single metric of a series is returned as is'() {
+    def queue = new MetricSeriesQueue(10)
+    def metric = metric('a', [], [[1, 1]])
+
+    when:
+    queue.offer(metric)
+
+    then:
+    queue.poll().is(metric)
+  }
+
+  def 'a new series is rejected when the queue is full'() {
+    def queue = new MetricSeriesQueue(1)
+
+    expect:
+    queue.offer(metric('a', [], [[1, 1]]))
+    !queue.offer(metric('b', [], [[1, 1]]))
+    queue.offer(metric('a', [], [[2, 2]]))
+    queue.poll().points == [[1, 1], [2, 2]]
+    queue.offer(metric('b', [], [[1, 1]]))
+  }
+
+  def 'a polled series starts again'() {
+    def queue = new MetricSeriesQueue(10)
+
+    when:
+    queue.offer(metric('a', [], [[1, 1]]))
+    queue.poll()
+    queue.offer(metric('a', [], [[2, 2]]))
+
+    then:
+    queue.poll().points == [[2, 2]]
+  }
+
+  def 'collection methods work on a snapshot of the queued series'() {
+    def queue = new MetricSeriesQueue(10)
+    def a = metric('a', [], [[1, 1]])
+    def b = metric('b', [], [[1, 1]])
+
+    when:
+    queue.offer(a)
+    queue.offer(b)
+    queue.offer(metric('a', [], [[2, 2]]))
+
+    then:
+    queue.iterator().collect { it.metric } == ['a', 'b']
+    queue.iterator().next().points == [[1, 1], [2, 2]]
+    queue.contains(b)
+    queue.toString() != null
+
+    when:
+    def iterator = queue.iterator()
+    iterator.next()
+    iterator.remove()
+
+    then:
+    queue.size() == 1
+    queue.remove(b)
+    queue.isEmpty()
+
+    when:
+    queue.offer(a)
+    queue.clear()
+
+    then:
+    queue.isEmpty()
+  }
+
+  private static Metric metric(String name, List<String> tags, List<List<Number>> points) {
+    new Metric().namespace('tracers').metric(name).type(Metric.TypeEnum.COUNT).common(true).tags(tags).points(points)
+  }
+}
@@ -338,6 +338,27 @@ class TelemetryServiceSpecification extends DDSpecification {
     testHttpClient.assertNoMoreRequests()
   }
 
+  def 'metrics of the same series are coalesced until the next request'() {
+    setup:
+    TestTelemetryRouter testHttpClient = new TestTelemetryRouter()
+    TelemetryService telemetryService = new TelemetryService(testHttpClient, 10000, false)
+
+    when:
+    telemetryService.addMetric(new Metric().namespace("tracers").metric("metric").points([[1, 2]]).tags(["tag1", "tag2"]))
+    telemetryService.addMetric(new Metric().namespace("tracers").metric("metric").points([[2, 3]]).tags(["tag1", "tag2"]))
+    testHttpClient.expectRequest(TelemetryClient.Result.SUCCESS)
+    telemetryService.sendTelemetryEvents()
+
+    then:
+    testHttpClient.assertRequestBody(RequestType.MESSAGE_BATCH)
+      .assertBatch(2)
+      .assertFirstMessage(RequestType.APP_HEARTBEAT).hasNoPayload()
+      .assertNextMessage(RequestType.GENERATE_METRICS).hasPayload().namespace("tracers")
+      .metrics([new Metric().namespace("tracers").metric("metric").points([[1, 2], [2, 3]]).tags(["tag1", "tag2"])])
+      .assertNoMoreMessages()
+    testHttpClient.assertNoMoreRequests()
+  }
+
   def 'send all collected data with extended-heartbeat request every time'() {
     setup:
     TestTelemetryRouter testHttpClient = new TestTelemetryRouter()
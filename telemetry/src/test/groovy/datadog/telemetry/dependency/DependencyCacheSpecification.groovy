@@ -0,0 +1,93 @@
+package datadog.telemetry.dependency
+
+class DependencyCacheSpecification extends DepSpecification {
+
+  File cacheFile = File.createTempFile('dependencies', '.cache')
+
+  void setup() {
+    cacheFile.delete()
+  }
+
+  void cleanup() {
+    cacheFile.delete()
+  }
+
+  void 'resolved dependencies are reused by the next run'() {
+    setup:
+    File jar = getJar('junit-4.12.jar')
+    def cache = new DependencyCache(cacheFile)
+
+    when:
+    def resolved = DependencyResolver.resolve(jar.toURI(), cache)
+    cache.flush()
+
+    then:
+    cacheFile.isFile()
+
+    when:
+    def cached = new DependencyCache(cacheFile).get(jar)
+
+    then:
+    cached.size() == 1
+    with(cached[0]) {
+      name == resolved[0].name
+      version == resolved[0].version
+      source == resolved[0].source
+      hash == '4376590587C49AC6DA6935564233F36B092412AE'
+    }
+  }
+
+  void 'dependencies without a hash are cached'() {
+    setup:
+    File jar = getJar('bson-4.2.0.jar')
+    def cache = new DependencyCache(cacheFile)
+
+    when:
+    cache.put(jar, [new Dependency('org.mongodb:bson', '4.2.0', 'bson-4.2.0.jar', null)])
+    cache.flush()
+    def cached = new DependencyCache(cacheFile).get(jar)
+
+    then:
+    cached.size() == 1
+    cached[0].name == 'org.mongodb:bson'
+    cached[0].hash == null
+  }
+
+  void 'a modified jar is resolved again'() {
+    setup:
+    File jar = File.createTempFile('modified', '.jar')
+    jar.bytes = getJar('junit-4.12.jar').bytes
+    def cache = new DependencyCache(cacheFile)
+    cache.put(jar, [new Dependency('junit', '4.12', jar.name, null)])
+    cache.flush()
+
+    when:
+    jar.setLastModified(jar.lastModified() - 10000)
+
+    then:
+    new DependencyCache(cacheFile).get(jar) == null
+
+    cleanup:
+    jar.delete()
+  }
+
+  void 'a corrupted cache file is ignored'() {
+    setup:
+    File jar = getJar('junit-4.12.jar')
+    cacheFile.text = "${jar.absolutePath}\tnot-a-number\t1\tjunit\t4.12\tjunit-4.12.jar\t\n"
+
+    when:
+    def cache = new DependencyCache(cacheFile)
+
+    then:
+    cache.get(jar) == null
+
+    when:
+    cache.put(jar, [new Dependency('junit', '4.12', 'junit-4.12.jar', null)])
+    cache.flush()
+
+    then:
+    !cacheFile.text.contains('not-a-number')
+    new DependencyCache(cacheFile).get(jar).size() == 1
+  }
+}
@@ -1,5 +1,7 @@
 package datadog.telemetry.dependency
 
+import java.util.concurrent.Executors
+
 class DependencyResolverQueueSpecification extends DepSpecification {
 
   DependencyResolverQueue resolverQueue = new DependencyResolverQueue()
@@ -100,4 +102,34 @@ class DependencyResolverQueueSpecification extends DepSpecification {
     assert deps.isEmpty()
 
   }
+
+  void 'resolve a batch of dependencies in parallel'() {
+    setup:
+    def executor = Executors.newFixedThreadPool(2)
+
+    when:
+    resolverQueue.queueURI(getJar('junit-4.12.jar').toURI())
+    resolverQueue.queueURI(getJar('asm-util-9.2.jar').toURI())
+    resolverQueue.queueURI(getJar('bson-4.2.0.jar').toURI())
+    def deps = resolverQueue.pollDependencies(2, executor)
+
+    then:
+    deps*.name == ['junit', 'asm-util']
+    deps*.hash == ['4376590587C49AC6DA6935564233F36B092412AE', '9A5AEC2CB852B8BD20DAF5D2CE9174891267FE27']
+
+    when:
+    deps = resolverQueue.pollDependencies(2, executor)
+
+    then:
+    deps*.name == ['org.mongodb:bson']
+
+    when:
+    deps = resolverQueue.pollDependencies(2, executor)
+
+    then:
+    deps.isEmpty()
+
+    cleanup:
+    executor.shutdownNow()
+  }
 }
@@ -1,5 +1,7 @@
 package datadog.telemetry.dependency
 
+import spock.util.concurrent.PollingConditions
+
 import java.lang.instrument.ClassFileTransformer
 import java.lang.instrument.IllegalClassFormatException
 import java.lang.instrument.Instrumentation
@@ -50,6 +52,36 @@ class DependencyServiceSpecification extends DepSpecification {
     depService.drainDeterminedDependencies().isEmpty()
   }
 
+  void 'resolves the queued dependencies in batches'() {
+    when:
+    depService.addURL(getJar('junit-4.12.jar').toURL())
+    depService.addURL(getJar('asm-util-9.2.jar').toURL())
+    depService.resolveDependencies()
+
+    then:
+    depService.drainDeterminedDependencies()*.name == ['junit', 'asm-util']
+  }
+
+  void 'periodic resolution hands batches over to the resolver threads'() {
+    setup:
+    def conditions = new PollingConditions(timeout: 5)
+    def resolved = []
+
+    when:
+    depService.addURL(getJar('junit-4.12.jar').toURL())
+    depService.addURL(getJar('asm-util-9.2.jar').toURL())
+    depService.schedulePeriodicResolution()
+
+    then:
+    conditions.eventually {
+      resolved.addAll(depService.drainDeterminedDependencies())
+      assert resolved*.name.sort() == ['asm-util', 'junit']
+    }
+
+    cleanup:
+    depService.stop()
+  }
+
   void 'invalid jar names are ignored'() {
     when:
     depService.addURL(new File(".zip").toURL())